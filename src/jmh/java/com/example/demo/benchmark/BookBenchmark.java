@@ -0,0 +1,49 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.application.dto.book.BookDto;
+import com.example.demo.domain.model.book.Book;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BookBenchmark {
+
+  private Book book;
+
+  @Setup
+  public void setUp() {
+    book = Book.create("9784297100339", "達人プログラマー", 3200, Integer.MAX_VALUE);
+  }
+
+  // 在庫切れで例外の経路に入らないよう、イテレーションごとに在庫を戻す
+  @Setup(Level.Iteration)
+  public void restock() {
+    book.setStock(Integer.MAX_VALUE);
+  }
+
+  @Benchmark
+  public BookDto bookDtoFrom() {
+    return BookDto.from(book);
+  }
+
+  @Benchmark
+  public Book decreaseStock() {
+    book.decreaseStock(1);
+    return book;
+  }
+}
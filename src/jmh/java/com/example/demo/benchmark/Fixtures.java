@@ -0,0 +1,26 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.domain.model.order.Order;
+import java.util.UUID;
+
+final class Fixtures {
+
+  private Fixtures() {}
+
+  // 重複しない13桁のISBNを必要な数だけ作る
+  static String[] isbns(int count) {
+    String[] isbns = new String[count];
+    for (int i = 0; i < count; i++) {
+      isbns[i] = String.format("978%010d", i);
+    }
+    return isbns;
+  }
+
+  static Order order(UUID customerId, String[] isbns) {
+    Order order = Order.create(customerId);
+    for (String isbn : isbns) {
+      order.addOrderItem(isbn, 1);
+    }
+    return order;
+  }
+}
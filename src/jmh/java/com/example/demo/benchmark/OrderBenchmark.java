@@ -0,0 +1,72 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.application.dto.order.OrderDto;
+import com.example.demo.domain.model.order.Order;
+import com.example.demo.domain.model.order.OrderItem;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// 注文の組み立て・明細の参照・DTO変換を、明細数（1〜200行）ごとに計測する
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderBenchmark {
+
+  @Param({"1", "10", "50", "200"})
+  private int lines;
+
+  private UUID customerId;
+  private String[] isbns;
+  private Order order;
+
+  @Setup
+  public void setUp() {
+    customerId = UUID.randomUUID();
+    isbns = Fixtures.isbns(lines);
+    order = Fixtures.order(customerId, isbns);
+  }
+
+  // 明細の追加は同じISBNをまとめるため既存の明細を走査する。1件の注文を組み立てるコスト
+  @Benchmark
+  public Order addOrderItem() {
+    Order newOrder = Order.create(customerId);
+    for (String isbn : isbns) {
+      newOrder.addOrderItem(isbn, 1);
+    }
+    return newOrder;
+  }
+
+  @Benchmark
+  public List<OrderItem> getOrderItems() {
+    return order.getOrderItems();
+  }
+
+  // サービス層のように明細を1件ずつ参照する場合（ループのたびに getOrderItems を呼ぶ）
+  @Benchmark
+  public void getOrderItemsPerLine(Blackhole blackhole) {
+    for (int i = 0; i < lines; i++) {
+      blackhole.consume(order.getOrderItems().get(i));
+    }
+  }
+
+  @Benchmark
+  public OrderDto orderDtoFrom() {
+    return OrderDto.from(order);
+  }
+}
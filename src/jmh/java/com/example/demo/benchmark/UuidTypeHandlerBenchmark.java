@@ -0,0 +1,64 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.infrastructure.typehandler.UuidTypeHandler;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// 結果セットの UUID 列の読み取り。ResultSet はプロキシで代用するため、
+// readString（getString のみ）との差分が型ハンドラ自体のコストになる
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UuidTypeHandlerBenchmark {
+
+  private final UuidTypeHandler typeHandler = new UuidTypeHandler();
+
+  private ResultSet resultSet;
+
+  @Setup
+  public void setUp() {
+    String value = UUID.randomUUID().toString();
+    resultSet =
+        (ResultSet)
+            Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[] {ResultSet.class},
+                (proxy, method, args) -> {
+                  if (method.getName().equals("getString")) {
+                    return value;
+                  }
+                  throw new UnsupportedOperationException(method.getName());
+                });
+  }
+
+  @Benchmark
+  public String readString() throws SQLException {
+    return resultSet.getString("id");
+  }
+
+  @Benchmark
+  public UUID getNullableResultByName() throws SQLException {
+    return typeHandler.getNullableResult(resultSet, "id");
+  }
+
+  @Benchmark
+  public UUID getNullableResultByIndex() throws SQLException {
+    return typeHandler.getNullableResult(resultSet, 1);
+  }
+}
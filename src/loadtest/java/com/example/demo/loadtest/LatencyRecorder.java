@@ -0,0 +1,54 @@
+package com.example.demo.loadtest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+// エンドポイントごとの応答時間（ナノ秒）を HDR ヒストグラムに記録する。
+// 応答時間は「送信するはずだった時刻」から計測するため、サーバーが詰まって送信が遅れた分も含まれる
+// （coordinated omission の補正）。実際に送信してからの時間はサービス時間として別に記録する
+final class LatencyRecorder {
+
+  private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+  private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+  void record(String endpoint, long intendedStartNanos, long sentNanos, long endNanos, boolean ok) {
+    Endpoint recorded = endpoints.computeIfAbsent(endpoint, key -> new Endpoint());
+    recorded.responseTime.recordValue(clamp(endNanos - intendedStartNanos));
+    recorded.serviceTime.recordValue(clamp(endNanos - sentNanos));
+    if (!ok) {
+      recorded.errors.increment();
+    }
+  }
+
+  // 計測期間分のヒストグラムを取り出す。エンドポイント名順
+  Map<String, Result> results() {
+    Map<String, Result> results = new TreeMap<>();
+    endpoints.forEach(
+        (name, endpoint) ->
+            results.put(
+                name,
+                new Result(
+                    endpoint.responseTime.getIntervalHistogram(),
+                    endpoint.serviceTime.getIntervalHistogram(),
+                    endpoint.errors.sum())));
+    return results;
+  }
+
+  private static long clamp(long nanos) {
+    return Math.min(Math.max(nanos, 0), HIGHEST_TRACKABLE_NANOS);
+  }
+
+  record Result(Histogram responseTime, Histogram serviceTime, long errors) {}
+
+  private static final class Endpoint {
+    private final Recorder responseTime = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+    private final Recorder serviceTime = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+    private final LongAdder errors = new LongAdder();
+  }
+}
@@ -0,0 +1,239 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// REST API に一定の到着率で要求を送る（open-loop）。応答を待たずに次の要求を予定どおり送るため、
+// サーバーが遅くなっても送信間隔は変わらず、待たされた時間は応答時間に含まれる
+final class LoadDriver {
+
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+  private static final int MAX_ORDER_LINES = 3;
+
+  private final String baseUrl;
+  private final LoadTestOptions options;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final HttpClient client;
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final LatencyRecorder recorder = new LatencyRecorder();
+  private final LongAdder dispatched = new LongAdder();
+
+  private final List<String> isbns = new ArrayList<>();
+  private final List<String> customerIds = new ArrayList<>();
+
+  LoadDriver(String baseUrl, LoadTestOptions options) {
+    this.baseUrl = baseUrl;
+    this.options = options;
+    this.client =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(REQUEST_TIMEOUT)
+            .executor(executor)
+            .build();
+  }
+
+  // 試験に使う書籍と顧客を API 経由で登録する。既存のデータと重ならないよう実行ごとにキーを変える
+  void seed() throws IOException, InterruptedException {
+    int run = ThreadLocalRandom.current().nextInt(1_000_000);
+    for (int i = 0; i < options.books(); i++) {
+      ObjectNode book = objectMapper.createObjectNode();
+      book.put("isbn", String.format("9%06d%06d", run, i));
+      book.put("title", "負荷試験用の書籍 " + i);
+      book.put("price", 1000 + i % 3000);
+      book.put("stock", 1_000_000);
+      JsonNode created = post("/api/books", book);
+      isbns.add(created.get("isbn").asText());
+    }
+    for (int i = 0; i < options.customers(); i++) {
+      ObjectNode customer = objectMapper.createObjectNode();
+      customer.put("name", "負荷試験用の顧客 " + i);
+      customer.put("email", String.format("loadtest-%06d-%d@example.com", run, i));
+      JsonNode created = post("/api/customers", customer);
+      customerIds.add(created.get("id").asText());
+    }
+  }
+
+  // ウォームアップの後、計測期間の到着分だけを記録する。送信し終えた要求の応答はすべて待つ
+  LatencyRecorder run() throws InterruptedException {
+    Scenario[] scenarios = weightedScenarios(options.mix());
+    SplittableRandom random = new SplittableRandom(42);
+    Semaphore inFlight = new Semaphore(options.maxInFlight());
+
+    long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+    long startNanos = System.nanoTime();
+    long measureStartNanos = startNanos + options.warmup().toNanos();
+    long endNanos = measureStartNanos + options.duration().toNanos();
+
+    for (long i = 0; ; i++) {
+      long intendedStartNanos = startNanos + i * intervalNanos;
+      if (intendedStartNanos >= endNanos) {
+        break;
+      }
+      long delay = intendedStartNanos - System.nanoTime();
+      if (delay > 0) {
+        LockSupport.parkNanos(delay);
+      }
+      Scenario scenario = scenarios[random.nextInt(scenarios.length)];
+      boolean measured = intendedStartNanos >= measureStartNanos;
+      // 同時実行数の上限に達した場合は送信が遅れるが、応答時間は予定時刻から計測するため過小評価にはならない
+      inFlight.acquire();
+      executor.execute(
+          () -> {
+            try {
+              execute(scenario, intendedStartNanos, measured);
+            } finally {
+              inFlight.release();
+            }
+          });
+      if (measured) {
+        dispatched.increment();
+      }
+    }
+
+    if (!inFlight.tryAcquire(
+        options.maxInFlight(), REQUEST_TIMEOUT.toNanos() * 2, TimeUnit.NANOSECONDS)) {
+      System.err.println(
+          "応答を待たずに終了した要求があります: "
+              + (options.maxInFlight() - inFlight.availablePermits()));
+    }
+    executor.shutdownNow();
+    return recorder;
+  }
+
+  long dispatched() {
+    return dispatched.sum();
+  }
+
+  private void execute(Scenario scenario, long intendedStartNanos, boolean measured) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    switch (scenario) {
+      case BOOKS ->
+          send("GET /api/books", get("/api/books?limit=20"), intendedStartNanos, measured);
+      case BOOK ->
+          send(
+              "GET /api/books/{isbn}",
+              get("/api/books/" + isbns.get(random.nextInt(isbns.size()))),
+              intendedStartNanos,
+              measured);
+      case CUSTOMER ->
+          send(
+              "GET /api/customers/{id}",
+              get("/api/customers/" + customerIds.get(random.nextInt(customerIds.size()))),
+              intendedStartNanos,
+              measured);
+      case ORDER -> placeAndCancelOrder(random, intendedStartNanos, measured);
+    }
+  }
+
+  private void placeAndCancelOrder(
+      ThreadLocalRandom random, long intendedStartNanos, boolean measured) {
+    ObjectNode order = objectMapper.createObjectNode();
+    order.put("customerId", customerIds.get(random.nextInt(customerIds.size())));
+    ArrayNode items = order.putArray("orderItems");
+    int lines = random.nextInt(1, MAX_ORDER_LINES + 1);
+    for (int i = 0; i < lines; i++) {
+      ObjectNode item = items.addObject();
+      item.put("bookIsbn", isbns.get(random.nextInt(isbns.size())));
+      item.put("quantity", 1);
+    }
+    HttpResponse<String> created =
+        send("POST /api/orders", postRequest("/api/orders", order), intendedStartNanos, measured);
+    if (created == null || created.statusCode() != 201) {
+      return;
+    }
+    try {
+      String id = objectMapper.readTree(created.body()).get("id").asText();
+      // キャンセルは作成の応答を受けてから送るため、その時点を予定時刻とする
+      send(
+          "DELETE /api/orders/{id}",
+          HttpRequest.newBuilder(uri("/api/orders/" + id))
+              .timeout(REQUEST_TIMEOUT)
+              .DELETE()
+              .build(),
+          System.nanoTime(),
+          measured);
+    } catch (IOException e) {
+      System.err.println("注文作成の応答を解析できませんでした: " + e.getMessage());
+    }
+  }
+
+  private HttpResponse<String> send(
+      String endpoint, HttpRequest request, long intendedStartNanos, boolean measured) {
+    long sentNanos = System.nanoTime();
+    HttpResponse<String> response = null;
+    try {
+      response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    } catch (IOException e) {
+      // 接続エラーやタイムアウトもエラーとして記録する
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (measured) {
+      boolean ok = response != null && response.statusCode() < 400;
+      recorder.record(endpoint, intendedStartNanos, sentNanos, System.nanoTime(), ok);
+    }
+    return response;
+  }
+
+  private JsonNode post(String path, JsonNode body) throws IOException, InterruptedException {
+    HttpResponse<String> response =
+        client.send(postRequest(path, body), HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() != 201) {
+      throw new IllegalStateException(
+          "データの登録に失敗しました: POST "
+              + path
+              + " "
+              + response.statusCode()
+              + " "
+              + response.body());
+    }
+    return objectMapper.readTree(response.body());
+  }
+
+  private HttpRequest get(String path) {
+    return HttpRequest.newBuilder(uri(path)).timeout(REQUEST_TIMEOUT).GET().build();
+  }
+
+  private HttpRequest postRequest(String path, JsonNode body) {
+    return HttpRequest.newBuilder(uri(path))
+        .timeout(REQUEST_TIMEOUT)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+        .build();
+  }
+
+  private URI uri(String path) {
+    return URI.create(baseUrl + path);
+  }
+
+  // 比率の分だけシナリオを並べた配列。一様に1つ選べば比率どおりになる
+  private static Scenario[] weightedScenarios(Map<Scenario, Integer> mix) {
+    List<Scenario> scenarios = new ArrayList<>();
+    mix.forEach(
+        (scenario, weight) -> {
+          for (int i = 0; i < weight; i++) {
+            scenarios.add(scenario);
+          }
+        });
+    return scenarios.toArray(Scenario[]::new);
+  }
+}
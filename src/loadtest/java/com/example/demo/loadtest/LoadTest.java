@@ -0,0 +1,56 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.DemoApplication;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// REST API の負荷試験。--base-url を指定しない場合はアプリを起動し、application.properties の
+// ローカルの PostgreSQL に接続する。
+//   mvn -Pload-test test-compile exec:exec@loadtest -Dloadtest.args="--rate=300 --duration=PT120S"
+// 性能に関わる変更の前後で同じ引数・同じ状態のデータベースで実行し、レポートを比較する
+public final class LoadTest {
+
+  private LoadTest() {}
+
+  public static void main(String[] args) throws Exception {
+    LoadTestOptions options = LoadTestOptions.parse(args);
+    ConfigurableApplicationContext context = null;
+    String baseUrl = options.baseUrl();
+    if (baseUrl == null) {
+      context = startApplication(options.applicationArgs());
+      int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+      baseUrl = "http://localhost:" + port;
+    }
+    try {
+      LoadDriver driver = new LoadDriver(baseUrl, options);
+      driver.seed();
+      LatencyRecorder recorder = driver.run();
+      LoadTestReport.write(options, baseUrl, driver.dispatched(), recorder.results());
+    } finally {
+      if (context != null) {
+        context.close();
+      }
+    }
+  }
+
+  // 空いているポートで起動する。参照系のノンブロッキングAPIは起動中のアプリとポートが重ならないよう無効にする
+  private static ConfigurableApplicationContext startApplication(List<String> applicationArgs) {
+    TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+    List<String> args = new ArrayList<>();
+    addDefault(args, applicationArgs, "--server.port", "0");
+    addDefault(args, applicationArgs, "--app.reactive.enabled", "false");
+    args.addAll(applicationArgs);
+    return SpringApplication.run(DemoApplication.class, args.toArray(String[]::new));
+  }
+
+  private static void addDefault(
+      List<String> args, List<String> applicationArgs, String name, String value) {
+    if (applicationArgs.stream().noneMatch(arg -> arg.startsWith(name + "="))) {
+      args.add(name + "=" + value);
+    }
+  }
+}
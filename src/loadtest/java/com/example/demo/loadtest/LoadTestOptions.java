@@ -0,0 +1,92 @@
+package com.example.demo.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// 負荷試験の設定。--rate=200 のように --名前=値 で指定し、--spring.* と --app.* は起動するアプリに渡す
+record LoadTestOptions(
+    String baseUrl,
+    int rate,
+    Duration warmup,
+    Duration duration,
+    Map<Scenario, Integer> mix,
+    int books,
+    int customers,
+    int maxInFlight,
+    Path reportDirectory,
+    List<String> applicationArgs) {
+
+  static final String DEFAULT_MIX = "books:45,book:45,order:10";
+
+  static LoadTestOptions parse(String[] args) {
+    Map<String, String> values = new LinkedHashMap<>();
+    List<String> applicationArgs = new ArrayList<>();
+    for (String arg : args) {
+      if (arg.startsWith("--spring.") || arg.startsWith("--app.")) {
+        applicationArgs.add(arg);
+        continue;
+      }
+      int separator = arg.indexOf('=');
+      if (!arg.startsWith("--") || separator < 0) {
+        throw new IllegalArgumentException("引数は --名前=値 の形式で指定してください: " + arg);
+      }
+      values.put(arg.substring(2, separator), arg.substring(separator + 1));
+    }
+
+    LoadTestOptions options =
+        new LoadTestOptions(
+            values.remove("base-url"),
+            Integer.parseInt(values.getOrDefault("rate", "200")),
+            Duration.parse(values.getOrDefault("warmup", "PT10S")),
+            Duration.parse(values.getOrDefault("duration", "PT60S")),
+            parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+            Integer.parseInt(values.getOrDefault("books", "1000")),
+            Integer.parseInt(values.getOrDefault("customers", "100")),
+            Integer.parseInt(values.getOrDefault("max-in-flight", "10000")),
+            Path.of(values.getOrDefault("report-dir", "target/loadtest")),
+            List.copyOf(applicationArgs));
+    for (String name :
+        List.of(
+            "rate",
+            "warmup",
+            "duration",
+            "mix",
+            "books",
+            "customers",
+            "max-in-flight",
+            "report-dir")) {
+      values.remove(name);
+    }
+    if (!values.isEmpty()) {
+      throw new IllegalArgumentException("不明な引数です: " + values.keySet());
+    }
+    if (options.rate() <= 0) {
+      throw new IllegalArgumentException("rate は1以上である必要があります");
+    }
+    return options;
+  }
+
+  // books:45,book:45,order:10 の形式。比率の合計は100でなくてもよい
+  static Map<Scenario, Integer> parseMix(String mix) {
+    Map<Scenario, Integer> weights = new LinkedHashMap<>();
+    for (String entry : mix.split(",")) {
+      String[] parts = entry.trim().split(":");
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("mix は シナリオ:比率 をカンマ区切りで指定してください: " + mix);
+      }
+      int weight = Integer.parseInt(parts[1].trim());
+      if (weight < 0) {
+        throw new IllegalArgumentException("比率は0以上である必要があります: " + entry);
+      }
+      weights.merge(Scenario.of(parts[0].trim()), weight, Integer::sum);
+    }
+    if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+      throw new IllegalArgumentException("mix の比率の合計は1以上である必要があります: " + mix);
+    }
+    return weights;
+  }
+}
@@ -0,0 +1,100 @@
+package com.example.demo.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+// 計測結果をレポート（テキスト）とヒストグラムのログ（HdrHistogram のログ形式）に書き出す。
+// 同じ rate・mix・データ量で取ったレポート同士を比較する
+final class LoadTestReport {
+
+  private static final DateTimeFormatter FILE_TIMESTAMP =
+      DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  private LoadTestReport() {}
+
+  static Path write(
+      LoadTestOptions options,
+      String baseUrl,
+      long dispatched,
+      Map<String, LatencyRecorder.Result> results)
+      throws IOException {
+    LocalDateTime now = LocalDateTime.now();
+    Files.createDirectories(options.reportDirectory());
+    String name = "report-" + FILE_TIMESTAMP.format(now);
+    Path report = options.reportDirectory().resolve(name + ".txt");
+    Path histograms = options.reportDirectory().resolve(name + ".hlog");
+
+    StringWriter text = new StringWriter();
+    PrintWriter out = new PrintWriter(text);
+    out.printf("実行日時: %s%n", now);
+    out.printf("対象: %s%n", baseUrl);
+    out.printf(
+        "到着率: %d req/s, ウォームアップ: %s, 計測期間: %s%n",
+        options.rate(), options.warmup(), options.duration());
+    out.printf(
+        "mix: %s%n",
+        options.mix().entrySet().stream()
+            .map(entry -> entry.getKey().label() + ":" + entry.getValue())
+            .collect(Collectors.joining(",")));
+    out.printf("データ量: 書籍 %d 件, 顧客 %d 件%n", options.books(), options.customers());
+    out.printf("計測期間に到着した要求: %d 件%n", dispatched);
+    out.println();
+    out.println("応答時間（予定時刻から応答まで。coordinated omission 補正済み, ms）");
+    printTable(out, results, true);
+    out.println();
+    out.println("サービス時間（実際の送信から応答まで, ms）");
+    printTable(out, results, false);
+    out.flush();
+
+    Files.writeString(report, text.toString());
+    try (PrintStream log = new PrintStream(Files.newOutputStream(histograms))) {
+      HistogramLogWriter writer = new HistogramLogWriter(log);
+      writer.outputLogFormatVersion();
+      writer.outputLegend();
+      for (Map.Entry<String, LatencyRecorder.Result> entry : results.entrySet()) {
+        Histogram histogram = entry.getValue().responseTime();
+        histogram.setTag(entry.getKey().replace(' ', '_'));
+        writer.outputIntervalHistogram(histogram);
+      }
+    }
+    System.out.print(text);
+    System.out.println("レポート: " + report.toAbsolutePath());
+    return report;
+  }
+
+  private static void printTable(
+      PrintWriter out, Map<String, LatencyRecorder.Result> results, boolean responseTime) {
+    out.printf(
+        "%-26s %9s %7s %9s %9s %9s %9s %9s%n",
+        "endpoint", "count", "errors", "p50", "p90", "p99", "p99.9", "max");
+    results.forEach(
+        (endpoint, result) -> {
+          Histogram histogram = responseTime ? result.responseTime() : result.serviceTime();
+          out.printf(
+              "%-26s %9d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+              endpoint,
+              histogram.getTotalCount(),
+              result.errors(),
+              millis(histogram.getValueAtPercentile(50)),
+              millis(histogram.getValueAtPercentile(90)),
+              millis(histogram.getValueAtPercentile(99)),
+              millis(histogram.getValueAtPercentile(99.9)),
+              millis(histogram.getMaxValue()));
+        });
+  }
+
+  private static double millis(long nanos) {
+    return nanos / NANOS_PER_MILLI;
+  }
+}
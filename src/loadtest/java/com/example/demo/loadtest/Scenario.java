@@ -0,0 +1,31 @@
+package com.example.demo.loadtest;
+
+import java.util.Arrays;
+
+// 1回の到着で実行する操作。order は注文の作成と、その注文のキャンセルを続けて行う
+enum Scenario {
+  BOOKS("books"),
+  BOOK("book"),
+  CUSTOMER("customer"),
+  ORDER("order");
+
+  private final String label;
+
+  Scenario(String label) {
+    this.label = label;
+  }
+
+  String label() {
+    return label;
+  }
+
+  static Scenario of(String label) {
+    return Arrays.stream(values())
+        .filter(scenario -> scenario.label.equals(label))
+        .findFirst()
+        .orElseThrow(
+            () ->
+                new IllegalArgumentException(
+                    "不明なシナリオです: " + label + "（books, book, customer, order のいずれか）"));
+  }
+}
@@ -3,8 +3,15 @@ package com.example.demo;
 import java.util.TimeZone;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// R2DBC の ConnectionFactory が Bean として登録されると JDBC の DataSource が自動構成されなくなるため、
+// 参照系のノンブロッキングAPI用の接続は ReactiveDatabase で個別に作成する
+@SpringBootApplication(
+    exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
+@EnableScheduling
 public class DemoApplication {
 
   public static void main(String[] args) {
@@ -0,0 +1,15 @@
+package com.example.demo.application.dto.book;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportRejectionDto {
+  // 入力の行番号（1始まり、CSVのヘッダー行を含む）
+  private long line;
+  private String isbn;
+  private String reason;
+}
@@ -0,0 +1,13 @@
+package com.example.demo.application.dto.book;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class BookImportResultDto {
+  private long inserted;
+  private long updated;
+  private long rejected;
+  // 取り込めなかった行。件数が多い場合は先頭から上限件数までのみ含める（件数は rejected を参照）
+  private List<BookImportRejectionDto> rejections;
+}
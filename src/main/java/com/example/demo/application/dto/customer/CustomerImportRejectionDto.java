@@ -0,0 +1,15 @@
+package com.example.demo.application.dto.customer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerImportRejectionDto {
+  // 入力の行番号（1始まり、CSVのヘッダー行を含む）
+  private long line;
+  private String email;
+  private String reason;
+}
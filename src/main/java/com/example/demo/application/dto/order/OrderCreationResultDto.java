@@ -0,0 +1,12 @@
+package com.example.demo.application.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class OrderCreationResultDto {
+  private OrderDto order;
+  // 同じ冪等キーで作成済みの注文を返した場合は true
+  private boolean replayed;
+}
@@ -17,6 +17,7 @@ public class OrderDto {
   private UUID customerId;
   private LocalDateTime orderDatetime;
   private String status;
+  private String rejectionReason;
   private LocalDateTime createdAt;
   private LocalDateTime updatedAt;
   private List<OrderItemDto> orderItems;
@@ -29,6 +30,7 @@ public class OrderDto {
         order.getCustomerId(),
         order.getOrderDatetime(),
         order.getStatus(),
+        order.getRejectionReason(),
         order.getCreatedAt(),
         order.getUpdatedAt(),
         itemDtos);
@@ -0,0 +1,7 @@
+package com.example.demo.application.dto.page;
+
+public class InvalidCursorException extends RuntimeException {
+  public InvalidCursorException(String message) {
+    super(message);
+  }
+}
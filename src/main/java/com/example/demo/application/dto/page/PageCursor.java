@@ -0,0 +1,49 @@
+package com.example.demo.application.dto.page;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+// キーセットページネーション用の不透明なカーソル（キーをBase64URLでエンコードしたもの）
+public final class PageCursor {
+  public static final int DEFAULT_LIMIT = 100;
+  public static final int MAX_LIMIT = 1000;
+
+  private PageCursor() {}
+
+  public static String encode(String key) {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(key.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static String decode(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return null;
+    }
+    try {
+      return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidCursorException("カーソルが不正です: " + cursor);
+    }
+  }
+
+  public static UUID decodeUuid(String cursor) {
+    String key = decode(cursor);
+    if (key == null) {
+      return null;
+    }
+    try {
+      return UUID.fromString(key);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidCursorException("カーソルが不正です: " + cursor);
+    }
+  }
+
+  public static int normalizeLimit(Integer limit) {
+    if (limit == null) {
+      return DEFAULT_LIMIT;
+    }
+    return Math.max(1, Math.min(limit, MAX_LIMIT));
+  }
+}
@@ -0,0 +1,27 @@
+package com.example.demo.application.dto.page;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageDto<T> {
+  private List<T> items;
+  private String nextCursor;
+
+  // limit + 1 件で取得した行からページを組み立てる（余分な1件があれば次ページあり）
+  public static <E, T> PageDto<T> of(
+      List<E> rows, int limit, Function<E, String> keyExtractor, Function<E, T> mapper) {
+    boolean hasNext = rows.size() > limit;
+    List<E> pageRows = hasNext ? rows.subList(0, limit) : rows;
+    String nextCursor =
+        hasNext ? PageCursor.encode(keyExtractor.apply(pageRows.get(limit - 1))) : null;
+    return new PageDto<>(
+        pageRows.stream().map(mapper).collect(Collectors.toList()), nextCursor);
+  }
+}
@@ -0,0 +1,167 @@
+package com.example.demo.application.service.book;
+
+import com.example.demo.application.dto.book.BookImportRejectionDto;
+import com.example.demo.application.service.imports.CsvLines;
+import com.example.demo.application.service.imports.ImportFormat;
+import com.example.demo.domain.model.book.Book;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// 入力を1行ずつ読み込み、Book.create と同じ規則で検証した書籍だけを返す。不正な行は拒否として記録する
+class BookImportReader implements Iterator<Book> {
+  private static final int ISBN_LENGTH = 13;
+  private static final int MAX_TITLE_LENGTH = 255;
+  private static final String CSV_HEADER = "isbn,title,price,stock";
+
+  private final BufferedReader reader;
+  private final ImportFormat format;
+  private final ObjectMapper objectMapper;
+  private final int maxReportedRejections;
+  private final List<BookImportRejectionDto> rejections = new ArrayList<>();
+
+  private long lineNumber;
+  private long rejected;
+  private Book next;
+  private boolean finished;
+
+  BookImportReader(
+      BufferedReader reader,
+      ImportFormat format,
+      ObjectMapper objectMapper,
+      int maxReportedRejections) {
+    this.reader = reader;
+    this.format = format;
+    this.objectMapper = objectMapper;
+    this.maxReportedRejections = maxReportedRejections;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (next == null && !finished) {
+      String line = readLine();
+      if (line == null) {
+        finished = true;
+      } else if (!line.isBlank() && !isCsvHeader(line)) {
+        next = parse(line);
+      }
+    }
+    return next != null;
+  }
+
+  @Override
+  public Book next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    Book book = next;
+    next = null;
+    return book;
+  }
+
+  long getRejected() {
+    return rejected;
+  }
+
+  List<BookImportRejectionDto> getRejections() {
+    return rejections;
+  }
+
+  private String readLine() {
+    try {
+      String line = reader.readLine();
+      if (line != null) {
+        lineNumber++;
+      }
+      return line;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private boolean isCsvHeader(String line) {
+    return format == ImportFormat.CSV && lineNumber == 1 && CsvLines.isHeader(line, CSV_HEADER);
+  }
+
+  private Book parse(String line) {
+    String isbn = null;
+    try {
+      String[] fields =
+          format == ImportFormat.CSV ? parseCsvFields(line) : parseJsonFields(line);
+      isbn = fields[0];
+      return toBook(
+          isbn, fields[1], parseInteger(fields[2], "価格"), parseInteger(fields[3], "在庫数"));
+    } catch (IllegalArgumentException e) {
+      reject(isbn, e.getMessage());
+      return null;
+    }
+  }
+
+  private Book toBook(String isbn, String title, Integer price, Integer stock) {
+    Book book = Book.create(isbn, title, price, stock);
+    // テーブル定義と書籍登録APIの入力チェックに合わせる
+    if (isbn.length() != ISBN_LENGTH) {
+      throw new IllegalArgumentException("ISBNは13桁である必要があります");
+    }
+    if (title.length() > MAX_TITLE_LENGTH) {
+      throw new IllegalArgumentException("タイトルは255文字以内である必要があります");
+    }
+    if (title.indexOf('\0') >= 0) {
+      throw new IllegalArgumentException("タイトルに使用できない文字が含まれています");
+    }
+    return book;
+  }
+
+  private static Integer parseInteger(String value, String name) {
+    if (value == null || value.isBlank()) {
+      throw new IllegalArgumentException(name + "は必須です");
+    }
+    try {
+      return Integer.valueOf(value.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(name + "は整数である必要があります: " + value);
+    }
+  }
+
+  private static String[] parseCsvFields(String line) {
+    List<String> fields = CsvLines.split(line);
+    if (fields.size() != 4) {
+      throw new IllegalArgumentException("列数が不正です（isbn,title,price,stock の4列が必要です）");
+    }
+    return fields.toArray(new String[0]);
+  }
+
+  private String[] parseJsonFields(String line) {
+    JsonNode node;
+    try {
+      node = objectMapper.readTree(line);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("JSONとして解析できません");
+    }
+    if (!node.isObject()) {
+      throw new IllegalArgumentException("JSONオブジェクトである必要があります");
+    }
+    return new String[] {
+      textOf(node, "isbn"), textOf(node, "title"), textOf(node, "price"), textOf(node, "stock")
+    };
+  }
+
+  private static String textOf(JsonNode node, String field) {
+    JsonNode value = node.get(field);
+    return value == null || value.isNull() ? null : value.asText();
+  }
+
+  private void reject(String isbn, String reason) {
+    rejected++;
+    if (rejections.size() < maxReportedRejections) {
+      rejections.add(new BookImportRejectionDto(lineNumber, isbn, reason));
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package com.example.demo.application.service.book;
+
+import com.example.demo.application.dto.book.BookImportResultDto;
+import com.example.demo.application.service.imports.ImportFormat;
+import com.example.demo.domain.model.book.BookImportCount;
+import com.example.demo.domain.repository.book.BookRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class BookImportService {
+  // 拒否された行の詳細を返す上限。全件を保持しないことで、入力の大きさに関係なくメモリ使用量を一定に保つ
+  static final int MAX_REPORTED_REJECTIONS = 1000;
+
+  private final BookRepository bookRepository;
+  private final ObjectMapper objectMapper;
+
+  @Transactional
+  public BookImportResultDto importBooks(BufferedReader reader, ImportFormat format) {
+    BookImportReader books =
+        new BookImportReader(reader, format, objectMapper, MAX_REPORTED_REJECTIONS);
+    BookImportCount count = bookRepository.importAll(books);
+
+    BookImportResultDto result = new BookImportResultDto();
+    result.setInserted(count.getInserted());
+    result.setUpdated(count.getUpdated());
+    result.setRejected(books.getRejected());
+    result.setRejections(books.getRejections());
+    return result;
+  }
+}
@@ -1,6 +1,8 @@
 package com.example.demo.application.service.book;
 
 import com.example.demo.application.dto.book.BookDto;
+import com.example.demo.application.dto.page.PageCursor;
+import com.example.demo.application.dto.page.PageDto;
 import com.example.demo.domain.exception.BookDeletionException;
 import com.example.demo.domain.exception.BookNotFoundException;
 import com.example.demo.domain.model.book.Book;
@@ -9,7 +11,6 @@ import com.example.demo.presentation.request.book.CreateBookRequest;
 import com.example.demo.presentation.request.book.UpdateBookRequest;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,8 +21,21 @@ public class BookService {
 
   private final BookRepository bookRepository;
 
-  public List<BookDto> findAllBooks() {
-    return bookRepository.findAll().stream().map(BookDto::from).collect(Collectors.toList());
+  public PageDto<BookDto> findBookPage(String cursor, Integer limit) {
+    int pageSize = PageCursor.normalizeLimit(limit);
+    List<Book> rows = bookRepository.findPage(PageCursor.decode(cursor), pageSize + 1);
+    return PageDto.of(rows, pageSize, Book::getIsbn, BookDto::from);
+  }
+
+  public String findBookPageVersion(String cursor, Integer limit) {
+    return bookRepository.findPageVersion(
+        PageCursor.decode(cursor), PageCursor.normalizeLimit(limit) + 1);
+  }
+
+  public LocalDateTime findBookLastModified(String isbn) {
+    return bookRepository
+        .findUpdatedAtById(isbn)
+        .orElseThrow(() -> new BookNotFoundException("書籍が見つかりません。ISBN: " + isbn));
   }
 
   public BookDto findBookById(String isbn) {
@@ -44,7 +58,7 @@ public class BookService {
   public BookDto updateBook(String isbn, UpdateBookRequest request) {
     Book book =
         bookRepository
-            .findById(isbn)
+            .findByIdForUpdate(isbn)
             .orElseThrow(() -> new BookNotFoundException("書籍が見つかりません。ISBN: " + isbn));
 
     book.updatePrice(request.getPrice());
@@ -69,7 +83,7 @@ public class BookService {
   public void deleteBook(String isbn) {
     Book book =
         bookRepository
-            .findById(isbn)
+            .findByIdForUpdate(isbn)
             .orElseThrow(() -> new BookNotFoundException("書籍が見つかりません。ISBN: " + isbn));
 
     if (book.getStock() > 0) {
@@ -0,0 +1,35 @@
+package com.example.demo.application.service.book;
+
+import com.example.demo.application.dto.book.BookDto;
+import com.example.demo.application.dto.page.PageCursor;
+import com.example.demo.domain.exception.BookNotFoundException;
+import com.example.demo.domain.repository.book.ReactiveBookRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReactiveBookService {
+
+  private final ReactiveBookRepository reactiveBookRepository;
+
+  // カーソル以降の書籍をISBN順に流す。limit を省略した場合は最後まで流す。
+  // 不正なカーソルは応答を書き始める前に検出できるよう、呼び出し時に例外をスローする
+  public Flux<BookDto> streamBooks(String cursor, Integer limit) {
+    String afterIsbn = PageCursor.decode(cursor);
+    Integer normalizedLimit = limit == null ? null : PageCursor.normalizeLimit(limit);
+    return reactiveBookRepository.findAll(afterIsbn, normalizedLimit).map(BookDto::from);
+  }
+
+  public Mono<BookDto> findBookById(String isbn) {
+    return reactiveBookRepository
+        .findById(isbn)
+        .map(BookDto::from)
+        .switchIfEmpty(
+            Mono.error(() -> new BookNotFoundException("書籍が見つかりません。ISBN: " + isbn)));
+  }
+}
@@ -0,0 +1,180 @@
+package com.example.demo.application.service.customer;
+
+import com.example.demo.application.dto.customer.CustomerImportRejectionDto;
+import com.example.demo.application.dto.customer.CustomerImportResultDto;
+import com.example.demo.application.service.imports.CsvLines;
+import com.example.demo.application.service.imports.ImportFormat;
+import com.example.demo.domain.model.customer.Customer;
+import com.example.demo.domain.repository.customer.CustomerRepository;
+import com.example.demo.presentation.request.customer.CreateCustomerRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class CustomerImportService {
+  static final int MAX_REPORTED_REJECTIONS = 1000;
+  static final int CHUNK_SIZE = 1000;
+  private static final String CSV_HEADER = "name,email";
+
+  private final CustomerRepository customerRepository;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+
+  // 正規化したメールアドレスで重複を除きながら、一定件数ごとにまとめて登録または更新する
+  @Transactional
+  public CustomerImportResultDto importCustomers(BufferedReader reader, ImportFormat format) {
+    CustomerImportResultDto result = new CustomerImportResultDto();
+    Set<String> seenEmails = new HashSet<>();
+    List<Customer> chunk = new ArrayList<>(CHUNK_SIZE);
+    long lineNumber = 0;
+    String line;
+    while ((line = readLine(reader)) != null) {
+      lineNumber++;
+      if (line.isBlank()
+          || (format == ImportFormat.CSV
+              && lineNumber == 1
+              && CsvLines.isHeader(line, CSV_HEADER))) {
+        continue;
+      }
+
+      CreateCustomerRequest request;
+      try {
+        request = format == ImportFormat.CSV ? parseCsv(line) : parseJson(line);
+        validate(request);
+      } catch (IllegalArgumentException e) {
+        reject(result, lineNumber, null, e.getMessage());
+        continue;
+      }
+
+      String email = normalizeEmail(request.getEmail());
+      if (!seenEmails.add(email)) {
+        reject(result, lineNumber, email, "メールアドレスが重複しています");
+        continue;
+      }
+
+      chunk.add(newCustomer(request.getName().trim(), email));
+      if (chunk.size() == CHUNK_SIZE) {
+        flush(chunk, result);
+      }
+    }
+    flush(chunk, result);
+    return result;
+  }
+
+  static String normalizeEmail(String email) {
+    return email.trim().toLowerCase(Locale.ROOT);
+  }
+
+  private void flush(List<Customer> chunk, CustomerImportResultDto result) {
+    if (chunk.isEmpty()) {
+      return;
+    }
+    // 既存の顧客は同じIDで上書きし、それ以外は新しいIDで登録する
+    Map<String, UUID> existingIds =
+        customerRepository.findIdsByNormalizedEmails(
+            chunk.stream().map(Customer::getEmail).collect(Collectors.toList()));
+    for (Customer customer : chunk) {
+      UUID existingId = existingIds.get(customer.getEmail());
+      if (existingId != null) {
+        customer.setId(existingId);
+        result.setUpdated(result.getUpdated() + 1);
+      } else {
+        customer.setId(UUID.randomUUID());
+        result.setCreated(result.getCreated() + 1);
+      }
+    }
+    customerRepository.saveAll(chunk);
+    chunk.clear();
+  }
+
+  private static Customer newCustomer(String name, String email) {
+    LocalDateTime now = LocalDateTime.now();
+    Customer customer = new Customer();
+    customer.setName(name);
+    customer.setEmail(email);
+    customer.setCreatedAt(now);
+    customer.setUpdatedAt(now);
+    return customer;
+  }
+
+  // 顧客登録APIと同じ入力チェックを行う
+  private void validate(CreateCustomerRequest request) {
+    Set<ConstraintViolation<CreateCustomerRequest>> violations = validator.validate(request);
+    if (!violations.isEmpty()) {
+      throw new IllegalArgumentException(
+          violations.stream()
+              .sorted(Comparator.comparing(v -> v.getPropertyPath().toString()))
+              .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+              .collect(Collectors.joining(", ")));
+    }
+  }
+
+  private static CreateCustomerRequest parseCsv(String line) {
+    List<String> fields = CsvLines.split(line);
+    if (fields.size() != 2) {
+      throw new IllegalArgumentException("列数が不正です（name,email の2列が必要です）");
+    }
+    return newRequest(fields.get(0), fields.get(1));
+  }
+
+  private CreateCustomerRequest parseJson(String line) {
+    JsonNode node;
+    try {
+      node = objectMapper.readTree(line);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("JSONとして解析できません");
+    }
+    if (!node.isObject()) {
+      throw new IllegalArgumentException("JSONオブジェクトである必要があります");
+    }
+    return newRequest(textOf(node, "name"), textOf(node, "email"));
+  }
+
+  private static CreateCustomerRequest newRequest(String name, String email) {
+    CreateCustomerRequest request = new CreateCustomerRequest();
+    request.setName(name);
+    request.setEmail(email == null ? null : email.trim());
+    return request;
+  }
+
+  private static String textOf(JsonNode node, String field) {
+    JsonNode value = node.get(field);
+    return value == null || value.isNull() ? null : value.asText();
+  }
+
+  private static String readLine(BufferedReader reader) {
+    try {
+      return reader.readLine();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void reject(
+      CustomerImportResultDto result, long lineNumber, String email, String reason) {
+    result.setRejected(result.getRejected() + 1);
+    if (result.getRejections().size() < MAX_REPORTED_REJECTIONS) {
+      result.getRejections().add(new CustomerImportRejectionDto(lineNumber, email, reason));
+    }
+  }
+}
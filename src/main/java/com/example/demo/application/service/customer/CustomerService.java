@@ -1,6 +1,8 @@
 package com.example.demo.application.service.customer;
 
 import com.example.demo.application.dto.customer.CustomerDto;
+import com.example.demo.application.dto.page.PageCursor;
+import com.example.demo.application.dto.page.PageDto;
 import com.example.demo.domain.model.customer.Customer;
 import com.example.demo.domain.repository.customer.CustomerRepository;
 import com.example.demo.presentation.request.customer.CreateCustomerRequest;
@@ -8,7 +10,6 @@ import com.example.demo.presentation.request.customer.UpdateCustomerRequest;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,10 +20,21 @@ public class CustomerService {
 
   private final CustomerRepository customerRepository;
 
-  public List<CustomerDto> findAllCustomers() {
-    return customerRepository.findAll().stream()
-        .map(CustomerDto::from)
-        .collect(Collectors.toList());
+  public PageDto<CustomerDto> findCustomerPage(String cursor, Integer limit) {
+    int pageSize = PageCursor.normalizeLimit(limit);
+    List<Customer> rows = customerRepository.findPage(PageCursor.decodeUuid(cursor), pageSize + 1);
+    return PageDto.of(rows, pageSize, c -> c.getId().toString(), CustomerDto::from);
+  }
+
+  public String findCustomerPageVersion(String cursor, Integer limit) {
+    return customerRepository.findPageVersion(
+        PageCursor.decodeUuid(cursor), PageCursor.normalizeLimit(limit) + 1);
+  }
+
+  public LocalDateTime findCustomerLastModified(UUID id) {
+    return customerRepository
+        .findUpdatedAtById(id)
+        .orElseThrow(() -> new RuntimeException("Customer not found with ID: " + id));
   }
 
   public CustomerDto findCustomerById(UUID id) {
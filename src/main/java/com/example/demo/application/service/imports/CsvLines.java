@@ -0,0 +1,46 @@
+package com.example.demo.application.service.imports;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class CsvLines {
+
+  private CsvLines() {}
+
+  // ダブルクォートで囲まれた値（"" はエスケープされた " ）に対応する。値の途中の改行には対応しない
+  public static List<String> split(String line) {
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          field.append(c);
+        }
+      } else if (c == '"' && field.length() == 0) {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    if (quoted) {
+      throw new IllegalArgumentException("CSVの引用符が閉じられていません");
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  // 空白を除いて比較するため、"isbn, title" のようなヘッダーも認識する
+  public static boolean isHeader(String line, String header) {
+    return line.replace(" ", "").trim().equalsIgnoreCase(header);
+  }
+}
@@ -0,0 +1,15 @@
+package com.example.demo.application.service.imports;
+
+public enum ImportFormat {
+  // 1行に1レコードのCSV。先頭行がヘッダーの場合は読み飛ばす
+  CSV,
+  // 1行に1つのJSONオブジェクト
+  NDJSON;
+
+  public static final String CSV_MEDIA_TYPE = "text/csv";
+  public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+  public static ImportFormat fromMediaType(String mediaType) {
+    return CSV_MEDIA_TYPE.equalsIgnoreCase(mediaType) ? CSV : NDJSON;
+  }
+}
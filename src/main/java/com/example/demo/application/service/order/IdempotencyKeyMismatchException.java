@@ -0,0 +1,7 @@
+package com.example.demo.application.service.order;
+
+public class IdempotencyKeyMismatchException extends RuntimeException {
+  public IdempotencyKeyMismatchException(String message) {
+    super(message);
+  }
+}
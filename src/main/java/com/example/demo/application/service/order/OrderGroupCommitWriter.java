@@ -0,0 +1,206 @@
+package com.example.demo.application.service.order;
+
+import com.example.demo.application.dto.order.OrderDto;
+import com.example.demo.domain.repository.book.BookRepository;
+import com.example.demo.infrastructure.thread.WorkerThreads;
+import com.example.demo.presentation.request.order.CreateOrderRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 同時に届いた注文作成をまとめて1つのトランザクションでコミットする（グループコミット）。
+// 注文ごとにセーブポイントを設けるため、在庫不足などで失敗した注文だけが取り消される。
+// 書籍の行ロックはコミットまで保持されるため、同じ書籍を更新するほかの注文はバッチの書き込みが終わるまで待つ。
+// ロックを保持する時間は最大件数（max-batch-size）と最大待ち時間（max-delay）で抑える
+@Slf4j
+@Component
+public class OrderGroupCommitWriter implements SmartLifecycle {
+
+  private static final long POLL_TIMEOUT_MILLIS = 1000;
+
+  private final OrderService orderService;
+  private final BookRepository bookRepository;
+  private final WorkerThreads workerThreads;
+  private final TransactionTemplate batchTransaction;
+  private final TransactionTemplate orderSavepoint;
+  private final BlockingQueue<PendingOrder> queue;
+  private final boolean enabled;
+  private final int maxBatchSize;
+  private final Duration maxDelay;
+
+  private volatile boolean running;
+  private Thread writerThread;
+
+  public OrderGroupCommitWriter(
+      OrderService orderService,
+      BookRepository bookRepository,
+      PlatformTransactionManager transactionManager,
+      WorkerThreads workerThreads,
+      @Value("${app.order.group-commit.enabled:false}") boolean enabled,
+      @Value("${app.order.group-commit.max-batch-size:64}") int maxBatchSize,
+      @Value("${app.order.group-commit.max-delay:5ms}") Duration maxDelay,
+      @Value("${app.order.group-commit.queue-capacity:10000}") int queueCapacity) {
+    this.orderService = orderService;
+    this.bookRepository = bookRepository;
+    this.workerThreads = workerThreads;
+    this.batchTransaction = new TransactionTemplate(transactionManager);
+    this.orderSavepoint = new TransactionTemplate(transactionManager);
+    this.orderSavepoint.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    this.queue = new LinkedBlockingQueue<>(queueCapacity);
+    this.enabled = enabled;
+    this.maxBatchSize = maxBatchSize;
+    this.maxDelay = maxDelay;
+  }
+
+  // 注文を作成し、コミットされるまで待つ。無効な場合やキューが満杯の場合は呼び出し元のスレッドで作成する
+  public OrderDto createOrder(CreateOrderRequest request) {
+    if (!running) {
+      return orderService.createOrder(request);
+    }
+    PendingOrder pending = new PendingOrder(request, new CompletableFuture<>());
+    // 停止処理と競合してキューに取り残された場合も、呼び出し元のスレッドで作成する
+    if (!queue.offer(pending) || (!running && queue.remove(pending))) {
+      return orderService.createOrder(request);
+    }
+    try {
+      return pending.future().join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public void start() {
+    if (!enabled) {
+      return;
+    }
+    running = true;
+    writerThread = workerThreads.start("order-group-commit-writer", this::writeLoop);
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (writerThread != null) {
+      writerThread.interrupt();
+      try {
+        writerThread.join(POLL_TIMEOUT_MILLIS * 2);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    // 書き込まれずに残った注文は失敗させ、呼び出し元を待たせたままにしない
+    List<PendingOrder> remaining = new ArrayList<>();
+    queue.drainTo(remaining);
+    IllegalStateException stopped = new IllegalStateException("注文の書き込みを停止しました");
+    remaining.forEach(pending -> pending.future().completeExceptionally(stopped));
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void writeLoop() {
+    List<PendingOrder> batch = new ArrayList<>(maxBatchSize);
+    while (running) {
+      try {
+        PendingOrder first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        collect(batch);
+        write(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } catch (RuntimeException e) {
+        log.error("注文のグループコミットで予期しないエラーが発生しました", e);
+        batch.forEach(pending -> pending.future().completeExceptionally(e));
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  // 最大件数に達するか、最初の注文から最大待ち時間が経過するまで後続の注文を集める
+  private void collect(List<PendingOrder> batch) throws InterruptedException {
+    long deadline = System.nanoTime() + maxDelay.toNanos();
+    while (batch.size() < maxBatchSize) {
+      queue.drainTo(batch, maxBatchSize - batch.size());
+      long remaining = deadline - System.nanoTime();
+      if (batch.size() >= maxBatchSize || remaining <= 0) {
+        return;
+      }
+      PendingOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+      if (next == null) {
+        return;
+      }
+      batch.add(next);
+    }
+  }
+
+  void write(List<PendingOrder> batch) {
+    List<OrderDto> results = new ArrayList<>(batch.size());
+    List<RuntimeException> failures = new ArrayList<>(batch.size());
+    try {
+      batchTransaction.executeWithoutResult(
+          status -> {
+            // 注文の順に在庫を減らすとロックの取得順が不定になり、ほかのトランザクションとデッドロックするため、
+            // バッチ内のすべての書籍を先にISBN順にロックする
+            bookRepository.lockByIsbns(isbns(batch));
+            for (PendingOrder pending : batch) {
+              try {
+                results.add(
+                    orderSavepoint.execute(s -> orderService.createOrder(pending.request())));
+                failures.add(null);
+              } catch (RuntimeException e) {
+                results.add(null);
+                failures.add(e);
+              }
+            }
+          });
+    } catch (RuntimeException e) {
+      // コミットに失敗した場合はバッチ内のすべての注文を失敗させる
+      batch.forEach(pending -> pending.future().completeExceptionally(e));
+      return;
+    }
+
+    // コミット後に結果を返す
+    for (int i = 0; i < batch.size(); i++) {
+      if (failures.get(i) != null) {
+        batch.get(i).future().completeExceptionally(failures.get(i));
+      } else {
+        batch.get(i).future().complete(results.get(i));
+      }
+    }
+  }
+
+  private static Set<String> isbns(List<PendingOrder> batch) {
+    Set<String> isbns = new TreeSet<>();
+    for (PendingOrder pending : batch) {
+      pending.request().getOrderItems().forEach(item -> isbns.add(item.getBookIsbn()));
+    }
+    return isbns;
+  }
+
+  record PendingOrder(CreateOrderRequest request, CompletableFuture<OrderDto> future) {}
+}
@@ -0,0 +1,144 @@
+package com.example.demo.application.service.order;
+
+import com.example.demo.application.dto.order.OrderCreationResultDto;
+import com.example.demo.application.dto.order.OrderDto;
+import com.example.demo.domain.model.idempotency.IdempotencyKey;
+import com.example.demo.domain.repository.idempotency.IdempotencyKeyRepository;
+import com.example.demo.presentation.request.order.CreateOrderRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Idempotency-Key 付きの注文作成。同じキーの再送には保存済みのレスポンスを返し、在庫や注文テーブルには触れない
+@Slf4j
+@Service
+public class OrderIdempotencyService {
+
+  private final OrderService orderService;
+  private final IdempotencyKeyRepository idempotencyKeyRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectMapper objectMapper;
+  private final Duration ttl;
+
+  // このインスタンスで処理中のキー。同じキーの後続リクエストは完了を待ってから保存済みのレスポンスを返す
+  private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+  public OrderIdempotencyService(
+      OrderService orderService,
+      IdempotencyKeyRepository idempotencyKeyRepository,
+      TransactionTemplate transactionTemplate,
+      ObjectMapper objectMapper,
+      @Value("${app.idempotency.ttl:24h}") Duration ttl) {
+    this.orderService = orderService;
+    this.idempotencyKeyRepository = idempotencyKeyRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.objectMapper = objectMapper;
+    this.ttl = ttl;
+  }
+
+  public OrderCreationResultDto createOrder(String key, CreateOrderRequest request) {
+    String requestHash = hash(request);
+    while (true) {
+      Optional<IdempotencyKey> stored = findCompleted(key);
+      if (stored.isPresent()) {
+        return replay(stored.get(), requestHash);
+      }
+
+      CompletableFuture<Void> current = new CompletableFuture<>();
+      CompletableFuture<Void> running = inFlight.putIfAbsent(key, current);
+      if (running != null) {
+        // 先行リクエストが失敗した場合はキーが確保されていないため、改めて自分で処理する
+        running.join();
+        continue;
+      }
+      try {
+        return transactionTemplate.execute(status -> createOnce(key, requestHash, request));
+      } finally {
+        inFlight.remove(key, current);
+        current.complete(null);
+      }
+    }
+  }
+
+  // 期限切れのキーを削除する
+  @Scheduled(
+      fixedDelayString = "${app.idempotency.cleanup-interval:PT10M}",
+      initialDelayString = "${app.idempotency.cleanup-interval:PT10M}")
+  public void deleteExpiredKeys() {
+    int deleted = idempotencyKeyRepository.deleteExpired(LocalDateTime.now());
+    if (deleted > 0) {
+      log.info("期限切れの冪等キーを{}件削除しました", deleted);
+    }
+  }
+
+  private OrderCreationResultDto createOnce(
+      String key, String requestHash, CreateOrderRequest request) {
+    IdempotencyKey claimed = IdempotencyKey.create(key, requestHash, ttl);
+    if (!idempotencyKeyRepository.claim(claimed)) {
+      // 他のインスタンスが同じキーで処理済み（処理中だった場合は確保時にコミットを待っている）
+      IdempotencyKey stored =
+          findCompleted(key)
+              .orElseThrow(() -> new IllegalStateException("冪等キーの状態が不正です: " + key));
+      return replay(stored, requestHash);
+    }
+
+    OrderDto order = orderService.createOrder(request);
+    claimed.setResponseBody(write(order));
+    idempotencyKeyRepository.complete(claimed);
+    return new OrderCreationResultDto(order, false);
+  }
+
+  private Optional<IdempotencyKey> findCompleted(String key) {
+    LocalDateTime now = LocalDateTime.now();
+    return idempotencyKeyRepository
+        .findById(key)
+        .filter(IdempotencyKey::isCompleted)
+        .filter(k -> !k.isExpired(now));
+  }
+
+  private OrderCreationResultDto replay(IdempotencyKey stored, String requestHash) {
+    if (!stored.getRequestHash().equals(requestHash)) {
+      throw new IdempotencyKeyMismatchException(
+          "この Idempotency-Key は異なる内容のリクエストで使用済みです: " + stored.getId());
+    }
+    try {
+      return new OrderCreationResultDto(
+          objectMapper.readValue(stored.getResponseBody(), OrderDto.class), true);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private String write(OrderDto order) {
+    try {
+      return objectMapper.writeValueAsString(order);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private String hash(CreateOrderRequest request) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.application.service.order;
+
+import java.util.UUID;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// 注文の作成・キャンセル全体の JFR イベント。内訳は OrderStageEvent で記録する
+@Name("com.example.demo.OrderOperation")
+@Label("Order Operation")
+@Category({"Demo", "Order"})
+@Description("注文の作成・キャンセル全体の処理時間と結果")
+final class OrderOperationEvent extends Event {
+
+  @Label("Operation")
+  @Description("placement（作成）または cancellation（キャンセル）")
+  String operation;
+
+  @Label("Order ID")
+  String orderId;
+
+  @Label("Customer ID")
+  String customerId;
+
+  @Label("Lines")
+  @Description("注文アイテムの件数")
+  int lines;
+
+  @Label("Succeeded")
+  boolean succeeded;
+
+  @Label("Failure")
+  @Description("失敗した場合の例外クラス")
+  String failure;
+
+  static OrderOperationEvent start(String operation) {
+    OrderOperationEvent event = new OrderOperationEvent();
+    event.begin();
+    event.operation = operation;
+    return event;
+  }
+
+  void finish(UUID orderId, UUID customerId, int lines, Throwable failure) {
+    end();
+    if (shouldCommit()) {
+      this.orderId = orderId == null ? null : orderId.toString();
+      this.customerId = customerId == null ? null : customerId.toString();
+      this.lines = lines;
+      this.succeeded = failure == null;
+      this.failure = failure == null ? null : failure.getClass().getName();
+      commit();
+    }
+  }
+}
@@ -0,0 +1,162 @@
+package com.example.demo.application.service.order;
+
+import com.example.demo.domain.exception.BookNotFoundException;
+import com.example.demo.domain.exception.InsufficientStockException;
+import com.example.demo.domain.model.order.Order;
+import com.example.demo.domain.repository.order.OrderRepository;
+import com.example.demo.domain.service.BookDomainService;
+import com.example.demo.infrastructure.thread.WorkerThreads;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 非同期で受け付けた注文をキューから取り出して在庫を確保し、PENDING または REJECTED にする。
+// 複数のワーカー（複数インスタンスを含む）が FOR UPDATE SKIP LOCKED で同じキューを分担する。
+// 書籍の行ロックを長く保持して同期の注文やほかのワーカーを待たせないよう、注文は1件ずつ別のトランザクションで処理する
+@Slf4j
+@Component
+public class OrderQueueWorker implements SmartLifecycle {
+
+  static final String UNEXPECTED_ERROR_REASON = "注文の処理中にエラーが発生しました";
+
+  private final OrderRepository orderRepository;
+  private final BookDomainService bookDomainService;
+  private final WorkerThreads workerThreads;
+  private final TransactionTemplate orderTransaction;
+  private final TransactionTemplate orderSavepoint;
+  private final boolean enabled;
+  private final int workers;
+  private final int batchSize;
+  private final Duration pollInterval;
+
+  private volatile boolean running;
+  private ScheduledExecutorService executor;
+
+  public OrderQueueWorker(
+      OrderRepository orderRepository,
+      BookDomainService bookDomainService,
+      PlatformTransactionManager transactionManager,
+      WorkerThreads workerThreads,
+      @Value("${app.order.async.enabled:false}") boolean enabled,
+      @Value("${app.order.async.workers:4}") int workers,
+      @Value("${app.order.async.batch-size:100}") int batchSize,
+      @Value("${app.order.async.poll-interval:100ms}") Duration pollInterval) {
+    this.orderRepository = orderRepository;
+    this.bookDomainService = bookDomainService;
+    this.workerThreads = workerThreads;
+    this.orderTransaction = new TransactionTemplate(transactionManager);
+    this.orderSavepoint = new TransactionTemplate(transactionManager);
+    this.orderSavepoint.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    this.enabled = enabled;
+    this.workers = workers;
+    this.batchSize = batchSize;
+    this.pollInterval = pollInterval;
+  }
+
+  // 非同期での受け付けが有効か
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  // キューから最大1バッチ分の注文を1件ずつコミットしながら処理し、処理した件数を返す
+  public int processBatch() {
+    int processed = 0;
+    while (processed < batchSize && processNext()) {
+      processed++;
+    }
+    return processed;
+  }
+
+  @Override
+  public void start() {
+    if (!enabled) {
+      return;
+    }
+    running = true;
+    executor =
+        Executors.newScheduledThreadPool(workers, workerThreads.factory("order-queue-worker"));
+    for (int i = 0; i < workers; i++) {
+      executor.scheduleWithFixedDelay(
+          this::drain, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (executor != null) {
+      executor.shutdown();
+      try {
+        executor.awaitTermination(pollInterval.toMillis() * 10, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  // キューが空になるまで続けて処理し、空であれば次のポーリングまで待つ
+  private void drain() {
+    try {
+      int processed;
+      do {
+        processed = processBatch();
+      } while (running && processed == batchSize);
+    } catch (TransientDataAccessException e) {
+      // デッドロックなどで注文のトランザクションがロールバックされた場合は、キューに残った注文を次回に再処理する
+      log.warn("注文キューの処理に失敗しました。次回のポーリングで再試行します", e);
+    } catch (RuntimeException e) {
+      log.error("注文キューの処理で予期しないエラーが発生しました", e);
+    }
+  }
+
+  // キューの先頭の注文を1件取り出して処理する。キューが空であれば false を返す
+  private boolean processNext() {
+    Boolean processed =
+        orderTransaction.execute(
+            status -> {
+              List<Order> orders = orderRepository.findQueuedForUpdate(1);
+              if (orders.isEmpty()) {
+                return false;
+              }
+              Order order = orders.get(0);
+              process(order);
+              orderRepository.dequeue(List.of(order.getId()));
+              return true;
+            });
+    return Boolean.TRUE.equals(processed);
+  }
+
+  private void process(Order order) {
+    try {
+      // 在庫の確保に失敗した場合は、確保済みの分をセーブポイントまで取り消す
+      orderSavepoint.executeWithoutResult(
+          status -> bookDomainService.reserveStock(order.quantitiesByIsbn()));
+      order.confirm();
+    } catch (InsufficientStockException | BookNotFoundException e) {
+      order.reject(e.getMessage());
+    } catch (TransientDataAccessException e) {
+      // デッドロックなどは注文のトランザクションをロールバックし、次回のポーリングで再処理する
+      throw e;
+    } catch (RuntimeException e) {
+      // 想定外のエラーで処理できない注文がキューに残り続けないよう、却下してキューから取り除く
+      log.error("注文の在庫確保で予期しないエラーが発生したため却下します: orderId={}", order.getId(), e);
+      order.reject(UNEXPECTED_ERROR_REASON);
+    }
+    orderRepository.update(order);
+  }
+}
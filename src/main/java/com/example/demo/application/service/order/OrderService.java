@@ -1,16 +1,18 @@
 package com.example.demo.application.service.order;
 
 import com.example.demo.application.dto.order.OrderDto;
+import com.example.demo.application.dto.page.PageCursor;
+import com.example.demo.application.dto.page.PageDto;
 import com.example.demo.domain.exception.OrderNotFoundException;
-import com.example.demo.domain.model.book.Book;
 import com.example.demo.domain.model.order.Order;
 import com.example.demo.domain.repository.order.OrderItemRepository;
 import com.example.demo.domain.repository.order.OrderRepository;
 import com.example.demo.domain.service.BookDomainService;
 import com.example.demo.presentation.request.order.CreateOrderRequest;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,15 +25,27 @@ public class OrderService {
   private final OrderItemRepository orderItemRepository;
   private final BookDomainService bookDomainService;
 
-  public List<OrderDto> findAllOrders() {
-    List<Order> orders = orderRepository.findAll();
-    return orders.stream()
-        .map(
-            order -> {
-              order.setOrderItems(orderItemRepository.findByOrderId(order.getId()));
-              return OrderDto.from(order);
-            })
-        .collect(Collectors.toList());
+  public PageDto<OrderDto> findOrderPage(String cursor, Integer limit) {
+    int pageSize = PageCursor.normalizeLimit(limit);
+    List<Order> rows = orderRepository.findPage(PageCursor.decodeUuid(cursor), pageSize + 1);
+    return PageDto.of(rows, pageSize, o -> o.getId().toString(), OrderDto::from);
+  }
+
+  // カーソルはトランザクション内でのみ有効なため、読み取り専用トランザクションで走査する
+  @Transactional(readOnly = true)
+  public void exportOrders(Consumer<OrderDto> consumer) {
+    orderRepository.forEach(order -> consumer.accept(OrderDto.from(order)));
+  }
+
+  public String findOrderPageVersion(String cursor, Integer limit) {
+    return orderRepository.findPageVersion(
+        PageCursor.decodeUuid(cursor), PageCursor.normalizeLimit(limit) + 1);
+  }
+
+  public LocalDateTime findOrderLastModified(UUID id) {
+    return orderRepository
+        .findUpdatedAtById(id)
+        .orElseThrow(() -> new OrderNotFoundException("注文が見つかりません。ID: " + id));
   }
 
   public OrderDto findOrderById(UUID id) {
@@ -39,49 +53,111 @@ public class OrderService {
         orderRepository
             .findById(id)
             .orElseThrow(() -> new OrderNotFoundException("注文が見つかりません。ID: " + id));
-    order.setOrderItems(orderItemRepository.findByOrderId(order.getId()));
     return OrderDto.from(order);
   }
 
   @Transactional
   public OrderDto createOrder(CreateOrderRequest request) {
-    Order order = Order.create(request.getCustomerId());
-    orderRepository.insert(order);
+    OrderOperationEvent operation = OrderOperationEvent.start(OrderStageEvent.PLACEMENT);
+    Order order = null;
+    Throwable failure = null;
+    try {
+      // 顧客の存在は注文の登録時に外部キーで確認する
+      OrderStageEvent stage = OrderStageEvent.start(OrderStageEvent.PLACEMENT, "validation");
+      order = Order.create(request.getCustomerId());
+      Order newOrder = order;
+      request
+          .getOrderItems()
+          .forEach(
+              itemRequest ->
+                  newOrder.addOrderItem(itemRequest.getBookIsbn(), itemRequest.getQuantity()));
+      stage.finish(order.getId(), order.getOrderItems().size());
+
+      // 同じISBNをまとめた数量で、全書籍の在庫を1回で確保する
+      stage = OrderStageEvent.start(OrderStageEvent.PLACEMENT, "stock-reservation");
+      bookDomainService.reserveStock(order.quantitiesByIsbn());
+      stage.finish(order.getId(), order.getOrderItems().size());
+
+      stage = OrderStageEvent.start(OrderStageEvent.PLACEMENT, "order-insert");
+      orderRepository.insert(order);
+      stage.finish(order.getId(), order.getOrderItems().size());
+
+      stage = OrderStageEvent.start(OrderStageEvent.PLACEMENT, "item-insert");
+      orderItemRepository.saveAll(order.getOrderItems());
+      stage.finish(order.getId(), order.getOrderItems().size());
 
+      return OrderDto.from(order);
+    } catch (RuntimeException e) {
+      failure = e;
+      throw e;
+    } finally {
+      operation.finish(
+          order == null ? null : order.getId(),
+          request.getCustomerId(),
+          order == null ? 0 : order.getOrderItems().size(),
+          failure);
+    }
+  }
+
+  // 在庫を確保せずに注文を受け付け、キューに追加する。在庫の確保は OrderQueueWorker が行う
+  @Transactional
+  public OrderDto acceptOrder(CreateOrderRequest request) {
+    Order order = Order.create(request.getCustomerId());
     request
         .getOrderItems()
         .forEach(
-            itemRequest -> {
-              Book book =
-                  bookDomainService.validateAndDecreaseStock(
-                      itemRequest.getBookIsbn(), itemRequest.getQuantity());
+            itemRequest ->
+                order.addOrderItem(itemRequest.getBookIsbn(), itemRequest.getQuantity()));
+    order.accept();
 
-              order.addOrderItem(book.getIsbn(), itemRequest.getQuantity());
-              orderItemRepository.save(order.getOrderItems().get(order.getOrderItems().size() - 1));
-            });
+    orderRepository.insert(order);
+    orderItemRepository.saveAll(order.getOrderItems());
+    orderRepository.enqueue(order.getId());
 
     return OrderDto.from(order);
   }
 
   @Transactional
   public void deleteOrder(UUID id) {
-    Order order =
-        orderRepository
-            .findById(id)
-            .orElseThrow(() -> new OrderNotFoundException("注文が見つかりません。ID: " + id));
-    order.setOrderItems(orderItemRepository.findByOrderId(order.getId()));
+    OrderOperationEvent operation = OrderOperationEvent.start(OrderStageEvent.CANCELLATION);
+    Order order = null;
+    Throwable failure = null;
+    try {
+      OrderStageEvent stage = OrderStageEvent.start(OrderStageEvent.CANCELLATION, "lookup");
+      order =
+          orderRepository
+              .findById(id)
+              .orElseThrow(() -> new OrderNotFoundException("注文が見つかりません。ID: " + id));
+      order.validateCancellation();
+      stage.finish(id, order.getOrderItems().size());
 
-    order.validateCancellation();
+      // 在庫を元に戻す
+      stage = OrderStageEvent.start(OrderStageEvent.CANCELLATION, "stock-restore");
+      order
+          .getOrderItems()
+          .forEach(
+              item -> {
+                bookDomainService.validateAndIncreaseStock(
+                    item.getBookIsbn(), item.getQuantity());
+              });
+      stage.finish(id, order.getOrderItems().size());
 
-    // 在庫を元に戻す
-    order
-        .getOrderItems()
-        .forEach(
-            item -> {
-              bookDomainService.validateAndIncreaseStock(item.getBookIsbn(), item.getQuantity());
-            });
+      stage = OrderStageEvent.start(OrderStageEvent.CANCELLATION, "item-delete");
+      orderItemRepository.deleteByOrderId(id);
+      stage.finish(id, order.getOrderItems().size());
 
-    orderItemRepository.deleteByOrderId(id);
-    orderRepository.deleteById(id);
+      stage = OrderStageEvent.start(OrderStageEvent.CANCELLATION, "order-delete");
+      orderRepository.deleteById(id);
+      stage.finish(id, order.getOrderItems().size());
+    } catch (RuntimeException e) {
+      failure = e;
+      throw e;
+    } finally {
+      operation.finish(
+          id,
+          order == null ? null : order.getCustomerId(),
+          order == null ? 0 : order.getOrderItems().size(),
+          failure);
+    }
   }
 }
@@ -0,0 +1,51 @@
+package com.example.demo.application.service.order;
+
+import java.util.UUID;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// 注文の作成・キャンセルの各段階にかかった時間を記録する JFR イベント。
+// 記録中でなければ begin/end はほぼ何もしないため、常に計測してよい
+@Name("com.example.demo.OrderStage")
+@Label("Order Stage")
+@Category({"Demo", "Order"})
+@Description("注文の作成・キャンセルの段階ごとの処理時間")
+final class OrderStageEvent extends Event {
+
+  static final String PLACEMENT = "placement";
+  static final String CANCELLATION = "cancellation";
+
+  @Label("Operation")
+  @Description("placement（作成）または cancellation（キャンセル）")
+  String operation;
+
+  @Label("Stage")
+  String stage;
+
+  @Label("Order ID")
+  String orderId;
+
+  @Label("Lines")
+  @Description("注文アイテムの件数")
+  int lines;
+
+  static OrderStageEvent start(String operation, String stage) {
+    OrderStageEvent event = new OrderStageEvent();
+    event.begin();
+    event.operation = operation;
+    event.stage = stage;
+    return event;
+  }
+
+  void finish(UUID orderId, int lines) {
+    end();
+    if (shouldCommit()) {
+      this.orderId = orderId == null ? null : orderId.toString();
+      this.lines = lines;
+      commit();
+    }
+  }
+}
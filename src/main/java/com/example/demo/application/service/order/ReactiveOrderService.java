@@ -0,0 +1,26 @@
+package com.example.demo.application.service.order;
+
+import com.example.demo.application.dto.order.OrderDto;
+import com.example.demo.domain.exception.OrderNotFoundException;
+import com.example.demo.domain.repository.order.ReactiveOrderRepository;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReactiveOrderService {
+
+  private final ReactiveOrderRepository reactiveOrderRepository;
+
+  public Mono<OrderDto> findOrderById(UUID id) {
+    return reactiveOrderRepository
+        .findById(id)
+        .map(OrderDto::from)
+        .switchIfEmpty(
+            Mono.error(() -> new OrderNotFoundException("注文が見つかりません。ID: " + id)));
+  }
+}
@@ -1,7 +1,22 @@
 package com.example.demo.domain.exception;
 
+import java.util.Collections;
+import java.util.Map;
+
 public class InsufficientStockException extends RuntimeException {
+  // ISBNごとの在庫不足メッセージ（複数の書籍をまとめて確保した場合のみ）
+  private final Map<String, String> shortages;
+
   public InsufficientStockException(String message) {
+    this(message, Collections.emptyMap());
+  }
+
+  public InsufficientStockException(String message, Map<String, String> shortages) {
     super(message);
+    this.shortages = Collections.unmodifiableMap(shortages);
+  }
+
+  public Map<String, String> getShortages() {
+    return shortages;
   }
 }
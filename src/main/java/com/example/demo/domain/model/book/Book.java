@@ -46,14 +46,21 @@ public class Book {
     if (requestedQuantity <= 0) {
       throw new IllegalArgumentException("注文数量は1以上である必要があります");
     }
-    if (this.stock < requestedQuantity) {
-      throw new InsufficientStockException(
-          String.format(
-              "在庫が不足しています（要求数: %d, 在庫数: %d, 書籍: %s [%s]）",
-              requestedQuantity, this.stock, this.title, this.isbn));
+    if (!hasStock(requestedQuantity)) {
+      throw new InsufficientStockException(insufficientStockMessage(requestedQuantity));
     }
   }
 
+  public boolean hasStock(int requestedQuantity) {
+    return this.stock >= requestedQuantity;
+  }
+
+  public String insufficientStockMessage(int requestedQuantity) {
+    return String.format(
+        "在庫が不足しています（要求数: %d, 在庫数: %d, 書籍: %s [%s]）",
+        requestedQuantity, this.stock, this.title, this.isbn);
+  }
+
   public void decreaseStock(int quantity) {
     validateStock(quantity);
     this.stock -= quantity;
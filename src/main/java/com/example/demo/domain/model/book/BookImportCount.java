@@ -0,0 +1,12 @@
+package com.example.demo.domain.model.book;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// 一括登録で新規登録・更新された書籍の件数
+@Getter
+@Setter
+public class BookImportCount {
+  private long inserted;
+  private long updated;
+}
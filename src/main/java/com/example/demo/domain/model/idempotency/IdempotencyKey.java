@@ -0,0 +1,33 @@
+package com.example.demo.domain.model.idempotency;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKey {
+  private String id;
+  // 同じキーで異なる内容のリクエストが送られたことを検出するための、リクエスト本文のハッシュ
+  private String requestHash;
+  // 処理が完了するまでは null
+  private String responseBody;
+  private LocalDateTime createdAt;
+  private LocalDateTime expiresAt;
+
+  public static IdempotencyKey create(String id, String requestHash, Duration ttl) {
+    LocalDateTime now = LocalDateTime.now();
+    return new IdempotencyKey(id, requestHash, null, now, now.plus(ttl));
+  }
+
+  public boolean isCompleted() {
+    return responseBody != null;
+  }
+
+  public boolean isExpired(LocalDateTime now) {
+    return !expiresAt.isAfter(now);
+  }
+}
@@ -5,7 +5,9 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -16,6 +18,7 @@ public class Order {
   private UUID customerId;
   private LocalDateTime orderDatetime;
   private String status;
+  private String rejectionReason;
   private LocalDateTime createdAt;
   private LocalDateTime updatedAt;
   private List<OrderItem> orderItems;
@@ -38,22 +41,58 @@ public class Order {
   public void addOrderItem(String bookIsbn, int quantity) {
     validateOrderStatus(OrderStatus.PENDING);
 
+    LocalDateTime now = LocalDateTime.now();
+    if (this.orderItems == null) {
+      this.orderItems = new ArrayList<>();
+    }
+
+    // 1回の注文で同じISBNはまとめる
+    for (OrderItem existing : this.orderItems) {
+      if (existing.getBookIsbn().equals(bookIsbn)) {
+        existing.setQuantity(existing.getQuantity() + quantity);
+        existing.setUpdatedAt(now);
+        this.setUpdatedAt(now);
+        return;
+      }
+    }
+
     OrderItem orderItem = new OrderItem();
     orderItem.setOrderId(this.id);
     orderItem.setBookIsbn(bookIsbn);
     orderItem.setQuantity(quantity);
-
-    LocalDateTime now = LocalDateTime.now();
     orderItem.setCreatedAt(now);
     orderItem.setUpdatedAt(now);
 
-    if (this.orderItems == null) {
-      this.orderItems = new ArrayList<>();
-    }
     this.orderItems.add(orderItem);
     this.setUpdatedAt(now);
   }
 
+  public Map<String, Integer> quantitiesByIsbn() {
+    return getOrderItems().stream()
+        .collect(Collectors.toMap(OrderItem::getBookIsbn, OrderItem::getQuantity));
+  }
+
+  // 非同期での処理待ちにする。在庫の確保は処理時に行う
+  public void accept() {
+    validateOrderStatus(OrderStatus.PENDING);
+    this.status = OrderStatus.ACCEPTED.name();
+    this.setUpdatedAt(LocalDateTime.now());
+  }
+
+  // 処理待ちの注文の在庫を確保できたため、通常の未発送の注文にする
+  public void confirm() {
+    validateOrderStatus(OrderStatus.ACCEPTED);
+    this.status = OrderStatus.PENDING.name();
+    this.setUpdatedAt(LocalDateTime.now());
+  }
+
+  public void reject(String reason) {
+    validateOrderStatus(OrderStatus.ACCEPTED);
+    this.status = OrderStatus.REJECTED.name();
+    this.rejectionReason = reason;
+    this.setUpdatedAt(LocalDateTime.now());
+  }
+
   public void cancel() {
     validateOrderStatus(OrderStatus.PENDING);
     this.status = OrderStatus.CANCELLED.name();
@@ -83,7 +122,9 @@ public class Order {
   }
 
   public enum OrderStatus {
+    ACCEPTED,
     PENDING,
+    REJECTED,
     SHIPPED,
     CANCELLED
   }
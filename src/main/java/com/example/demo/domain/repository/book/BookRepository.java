@@ -1,15 +1,47 @@
 package com.example.demo.domain.repository.book;
 
 import com.example.demo.domain.model.book.Book;
+import com.example.demo.domain.model.book.BookImportCount;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public interface BookRepository {
-  List<Book> findAll();
+  List<Book> findPage(String afterIsbn, int limit);
+
+  String findPageVersion(String afterIsbn, int limit);
+
+  Optional<LocalDateTime> findUpdatedAtById(String isbn);
 
   Optional<Book> findById(String isbn);
 
-  void save(Book book);
+  // トランザクション内で行をロックして最新の書籍を取得する。読み込んだ内容をもとに更新・削除する場合に使う
+  Optional<Book> findByIdForUpdate(String isbn);
+
+  List<Book> findByIsbns(Collection<String> isbns);
+
+  // トランザクション内で複数の書籍の行をISBN順にロックし、ロックしたISBNを返す。
+  // 複数の書籍を順に更新する処理で、ロックの取得順を揃えてデッドロックを防ぐために使う
+  List<String> lockByIsbns(Collection<String> isbns);
+
+  // 新規登録した場合はtrue、既存の書籍を更新した場合はfalseを返す
+  boolean save(Book book);
+
+  // 新規登録した件数を返す
+  int saveAll(List<Book> books);
+
+  // 大量の書籍を逐次読み込みながら一括で登録または更新する。同じISBNは後の要素を優先する
+  BookImportCount importAll(Iterator<Book> books);
+
+  boolean decreaseStock(String isbn, int quantity);
+
+  Set<String> decreaseStocks(Map<String, Integer> quantitiesByIsbn);
+
+  boolean increaseStock(String isbn, int quantity);
 
   void deleteById(String isbn);
 }
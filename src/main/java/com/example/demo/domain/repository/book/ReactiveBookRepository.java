@@ -0,0 +1,13 @@
+package com.example.demo.domain.repository.book;
+
+import com.example.demo.domain.model.book.Book;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// 参照系のノンブロッキングAPI用の書籍リポジトリ
+public interface ReactiveBookRepository {
+  // ISBN順に afterIsbn より後の書籍を返す。limit が null の場合は最後まで返す
+  Flux<Book> findAll(String afterIsbn, Integer limit);
+
+  Mono<Book> findById(String isbn);
+}
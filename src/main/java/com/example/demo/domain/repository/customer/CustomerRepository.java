@@ -1,16 +1,28 @@
 package com.example.demo.domain.repository.customer;
 
 import com.example.demo.domain.model.customer.Customer;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface CustomerRepository {
-  List<Customer> findAll();
+  List<Customer> findPage(UUID afterId, int limit);
+
+  String findPageVersion(UUID afterId, int limit);
+
+  Optional<LocalDateTime> findUpdatedAtById(UUID id);
 
   Optional<Customer> findById(UUID id);
 
+  // 小文字に正規化したメールアドレスをキーに、既存の顧客IDを返す
+  Map<String, UUID> findIdsByNormalizedEmails(Collection<String> normalizedEmails);
+
   void save(Customer customer);
 
+  void saveAll(List<Customer> customers);
+
   void deleteById(UUID id);
 }
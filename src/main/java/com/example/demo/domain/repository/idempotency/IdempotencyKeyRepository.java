@@ -0,0 +1,17 @@
+package com.example.demo.domain.repository.idempotency;
+
+import com.example.demo.domain.model.idempotency.IdempotencyKey;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyKeyRepository {
+  Optional<IdempotencyKey> findById(String id);
+
+  // キーを確保する。有効なキーが既に存在する場合は false を返す（他のトランザクションが確保中の場合はその完了を待つ）
+  boolean claim(IdempotencyKey key);
+
+  // 確保したキーにレスポンスを保存する
+  void complete(IdempotencyKey key);
+
+  int deleteExpired(LocalDateTime now);
+}
@@ -9,5 +9,7 @@ public interface OrderItemRepository {
 
   void save(OrderItem orderItem);
 
+  void saveAll(List<OrderItem> orderItems);
+
   void deleteByOrderId(UUID orderId);
 }
@@ -1,17 +1,33 @@
 package com.example.demo.domain.repository.order;
 
 import com.example.demo.domain.model.order.Order;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface OrderRepository {
-  List<Order> findAll();
+  List<Order> findPage(UUID afterId, int limit);
+
+  String findPageVersion(UUID afterId, int limit);
+
+  Optional<LocalDateTime> findUpdatedAtById(UUID id);
+
+  void forEach(Consumer<Order> action);
 
   Optional<Order> findById(UUID id);
 
   void insert(Order order);
 
+  // 非同期で処理する注文をキューに追加する
+  void enqueue(UUID orderId);
+
+  // キューから処理待ちの注文を注文アイテムと共に取り出し、トランザクション終了まで行ロックを保持する
+  List<Order> findQueuedForUpdate(int limit);
+
+  void dequeue(List<UUID> orderIds);
+
   void update(Order order);
 
   void deleteById(UUID id);
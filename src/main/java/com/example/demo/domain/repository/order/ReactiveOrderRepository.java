@@ -0,0 +1,10 @@
+package com.example.demo.domain.repository.order;
+
+import com.example.demo.domain.model.order.Order;
+import java.util.UUID;
+import reactor.core.publisher.Mono;
+
+// 参照系のノンブロッキングAPI用の注文リポジトリ
+public interface ReactiveOrderRepository {
+  Mono<Order> findById(UUID id);
+}
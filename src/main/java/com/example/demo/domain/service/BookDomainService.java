@@ -1,8 +1,15 @@
 package com.example.demo.domain.service;
 
 import com.example.demo.domain.exception.BookNotFoundException;
+import com.example.demo.domain.exception.InsufficientStockException;
 import com.example.demo.domain.model.book.Book;
 import com.example.demo.domain.repository.book.BookRepository;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -11,23 +18,102 @@ import org.springframework.stereotype.Service;
 public class BookDomainService {
   private final BookRepository bookRepository;
 
-  public Book validateAndDecreaseStock(String isbn, int quantity) {
-    Book book =
-        bookRepository
-            .findById(isbn)
-            .orElseThrow(() -> new BookNotFoundException("書籍が見つかりません。ISBN: " + isbn));
+  public void validateAndDecreaseStock(String isbn, int quantity) {
+    if (quantity <= 0) {
+      throw new IllegalArgumentException("注文数量は1以上である必要があります");
+    }
 
-    book.decreaseStock(quantity);
-    return book;
+    StockChangeEvent event = StockChangeEvent.start(StockChangeEvent.RESERVE);
+    try {
+      // 在庫の確認と減算を1つのUPDATE文で行い、失敗した場合のみ書籍を読み込んで原因を特定する
+      while (!bookRepository.decreaseStock(isbn, quantity)) {
+        event.shortageLookup = true;
+        Book book =
+            bookRepository
+                .findById(isbn)
+                .orElseThrow(() -> new BookNotFoundException("書籍が見つかりません。ISBN: " + isbn));
+
+        // 在庫不足なら例外。確認の間に在庫が補充されていた場合は減算を再試行する
+        book.validateStock(quantity);
+        event.retries++;
+      }
+    } finally {
+      event.finish(1, quantity);
+    }
+  }
+
+  // 複数ISBNの在庫をまとめて確保する。1件でも不足すれば例外をスローし、呼び出し元のトランザクションで全体を取り消す
+  public void reserveStock(Map<String, Integer> quantitiesByIsbn) {
+    if (quantitiesByIsbn.size() == 1) {
+      Map.Entry<String, Integer> entry = quantitiesByIsbn.entrySet().iterator().next();
+      validateAndDecreaseStock(entry.getKey(), entry.getValue());
+      return;
+    }
+    StockChangeEvent event = StockChangeEvent.start(StockChangeEvent.RESERVE);
+    try {
+      quantitiesByIsbn.values().forEach(
+          quantity -> {
+            if (quantity <= 0) {
+              throw new IllegalArgumentException("注文数量は1以上である必要があります");
+            }
+          });
+
+      Map<String, Integer> remaining = quantitiesByIsbn;
+      while (true) {
+        Set<String> reserved = bookRepository.decreaseStocks(remaining);
+        if (reserved.size() == remaining.size()) {
+          return;
+        }
+
+        event.shortageLookup = true;
+        // 確保できなかったISBNについてのみ書籍を読み込み、ISBNごとに原因を報告する
+        List<String> failedIsbns =
+            remaining.keySet().stream()
+                .filter(isbn -> !reserved.contains(isbn))
+                .sorted()
+                .collect(Collectors.toList());
+        Map<String, Book> books =
+            bookRepository.findByIsbns(failedIsbns).stream()
+                .collect(Collectors.toMap(Book::getIsbn, Function.identity()));
+
+        Map<String, String> shortages = new LinkedHashMap<>();
+        for (String isbn : failedIsbns) {
+          Book book = books.get(isbn);
+          if (book == null) {
+            throw new BookNotFoundException("書籍が見つかりません。ISBN: " + isbn);
+          }
+          if (!book.hasStock(quantitiesByIsbn.get(isbn))) {
+            shortages.put(isbn, book.insufficientStockMessage(quantitiesByIsbn.get(isbn)));
+          }
+        }
+        if (!shortages.isEmpty()) {
+          throw new InsufficientStockException(String.join("、", shortages.values()), shortages);
+        }
+
+        // 確認の間に在庫が補充されていた場合は、確保できなかったISBNだけ減算を再試行する（確保済みの分は減算済み）
+        remaining = new LinkedHashMap<>();
+        for (String isbn : failedIsbns) {
+          remaining.put(isbn, quantitiesByIsbn.get(isbn));
+        }
+        event.retries++;
+      }
+    } finally {
+      event.finish(quantitiesByIsbn);
+    }
   }
 
-  public Book validateAndIncreaseStock(String isbn, int quantity) {
-    Book book =
-        bookRepository
-            .findById(isbn)
-            .orElseThrow(() -> new BookNotFoundException("書籍が見つかりません。ISBN: " + isbn));
+  public void validateAndIncreaseStock(String isbn, int quantity) {
+    if (quantity <= 0) {
+      throw new IllegalArgumentException("在庫増加数は1以上である必要があります");
+    }
 
-    book.increaseStock(quantity);
-    return book;
+    StockChangeEvent event = StockChangeEvent.start(StockChangeEvent.RESTORE);
+    try {
+      if (!bookRepository.increaseStock(isbn, quantity)) {
+        throw new BookNotFoundException("書籍が見つかりません。ISBN: " + isbn);
+      }
+    } finally {
+      event.finish(1, quantity);
+    }
   }
 }
@@ -0,0 +1,65 @@
+package com.example.demo.domain.service;
+
+import java.util.Map;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// 在庫の確保・戻しの JFR イベント。不足時に原因を調べるための読み込みや再試行の回数も記録する
+@Name("com.example.demo.StockChange")
+@Label("Stock Change")
+@Category({"Demo", "Book"})
+@Description("在庫の確保（reserve）・戻し（restore）の処理時間")
+final class StockChangeEvent extends Event {
+
+  static final String RESERVE = "reserve";
+  static final String RESTORE = "restore";
+
+  @Label("Operation")
+  @Description("reserve（確保）または restore（戻し）")
+  String operation;
+
+  @Label("Books")
+  @Description("対象の書籍（ISBN）の件数")
+  int books;
+
+  @Label("Quantity")
+  @Description("対象の数量の合計")
+  int quantity;
+
+  @Label("Retries")
+  @Description("在庫を確認した後に減算を再試行した回数")
+  int retries;
+
+  @Label("Shortage Lookup")
+  @Description("確保できなかった書籍を読み込んで原因を調べたか")
+  boolean shortageLookup;
+
+  static StockChangeEvent start(String operation) {
+    StockChangeEvent event = new StockChangeEvent();
+    event.begin();
+    event.operation = operation;
+    return event;
+  }
+
+  void finish(int books, int quantity) {
+    end();
+    if (shouldCommit()) {
+      this.books = books;
+      this.quantity = quantity;
+      commit();
+    }
+  }
+
+  // 数量の合計は記録する場合のみ計算する
+  void finish(Map<String, Integer> quantitiesByIsbn) {
+    end();
+    if (shouldCommit()) {
+      this.books = quantitiesByIsbn.size();
+      this.quantity = quantitiesByIsbn.values().stream().mapToInt(Integer::intValue).sum();
+      commit();
+    }
+  }
+}
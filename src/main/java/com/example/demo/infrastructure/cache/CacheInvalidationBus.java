@@ -0,0 +1,293 @@
+package com.example.demo.infrastructure.cache;
+
+import com.example.demo.infrastructure.thread.WorkerThreads;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// PostgreSQL の LISTEN/NOTIFY を使って、インスタンス間でキャッシュの破棄を通知する
+@Slf4j
+@Component
+public class CacheInvalidationBus implements SmartLifecycle {
+  public static final String BOOK = "book";
+
+  static final String CHANNEL = "cache_invalidation";
+  // NOTIFY のペイロード上限（8000バイト）に収まるようにキーを分割する
+  private static final int MAX_PAYLOAD_LENGTH = 7000;
+  private static final int POLL_TIMEOUT_MILLIS = 1000;
+  private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+  private static final long INITIAL_BACKOFF_MILLIS = 200;
+  private static final long MAX_BACKOFF_MILLIS = 5000;
+
+  private final String nodeId = UUID.randomUUID().toString();
+  private final Map<String, List<CacheInvalidationHandler>> handlers = new ConcurrentHashMap<>();
+  private final JdbcTemplate jdbcTemplate;
+  private final DataSourceProperties dataSourceProperties;
+  private final WorkerThreads workerThreads;
+  private final boolean enabled;
+
+  private volatile boolean running;
+  private volatile boolean listening;
+  private volatile Connection connection;
+  private Thread listenerThread;
+
+  public CacheInvalidationBus(
+      JdbcTemplate jdbcTemplate,
+      DataSourceProperties dataSourceProperties,
+      WorkerThreads workerThreads,
+      @Value("${app.cache.invalidation.enabled:true}") boolean enabled) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.dataSourceProperties = dataSourceProperties;
+    this.workerThreads = workerThreads;
+    this.enabled = enabled;
+  }
+
+  public void register(String entity, CacheInvalidationHandler handler) {
+    handlers.computeIfAbsent(entity, key -> new CopyOnWriteArrayList<>()).add(handler);
+  }
+
+  // トランザクション内ではキーをためておき、コミット直前にエンティティごとにまとめて1回 NOTIFY を発行する。
+  // NOTIFY はコミット時に配信され、ロールバック時には発行しない。トランザクション外ではすぐに発行する
+  public void publish(String entity, Collection<String> keys) {
+    if (!enabled || keys.isEmpty()) {
+      return;
+    }
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      pendingInvalidations().add(entity, keys);
+      return;
+    }
+    notifyKeys(entity, keys);
+  }
+
+  // 一括更新などキーを列挙できない場合に、エンティティのすべてのキャッシュの破棄を通知する（キーを空で送る）
+  public void publishAll(String entity) {
+    if (!enabled) {
+      return;
+    }
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      pendingInvalidations().addAll(entity);
+      return;
+    }
+    notifyAllKeys(entity);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public boolean isListening() {
+    return listening;
+  }
+
+  @Override
+  public void start() {
+    if (!enabled) {
+      return;
+    }
+    running = true;
+    listenerThread = workerThreads.start("cache-invalidation-listener", this::listenLoop);
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    Connection current = connection;
+    if (current != null) {
+      try {
+        current.close();
+      } catch (SQLException e) {
+        log.debug("キャッシュ破棄通知の接続を閉じられませんでした", e);
+      }
+    }
+    if (listenerThread != null) {
+      listenerThread.interrupt();
+      try {
+        listenerThread.join(POLL_TIMEOUT_MILLIS * 2L);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  // 現在のトランザクションに登録済みの通知があれば再利用し、なければ登録する
+  private PendingInvalidations pendingInvalidations() {
+    for (TransactionSynchronization synchronization :
+        TransactionSynchronizationManager.getSynchronizations()) {
+      if (synchronization instanceof PendingInvalidations pending && pending.isOwnedBy(this)) {
+        return pending;
+      }
+    }
+    PendingInvalidations pending = new PendingInvalidations();
+    TransactionSynchronizationManager.registerSynchronization(pending);
+    return pending;
+  }
+
+  private void notifyKeys(String entity, Collection<String> keys) {
+    String prefix = nodeId + ";" + entity + ";";
+    StringBuilder payload = new StringBuilder(prefix);
+    for (String key : keys) {
+      if (payload.length() > prefix.length()
+          && payload.length() + key.length() + 1 > MAX_PAYLOAD_LENGTH) {
+        notify(payload.toString());
+        payload.setLength(prefix.length());
+      }
+      if (payload.length() > prefix.length()) {
+        payload.append(',');
+      }
+      payload.append(key);
+    }
+    notify(payload.toString());
+  }
+
+  private void notifyAllKeys(String entity) {
+    notify(nodeId + ";" + entity + ";");
+  }
+
+  private void notify(String payload) {
+    jdbcTemplate.query(
+        "SELECT pg_notify(?, ?)", (ResultSetExtractor<Void>) rs -> null, CHANNEL, payload);
+  }
+
+  private void listenLoop() {
+    long backoff = INITIAL_BACKOFF_MILLIS;
+    while (running) {
+      try (Connection conn =
+          DriverManager.getConnection(
+              dataSourceProperties.determineUrl(),
+              dataSourceProperties.determineUsername(),
+              dataSourceProperties.determinePassword())) {
+        connection = conn;
+        try (Statement statement = conn.createStatement()) {
+          statement.execute("LISTEN " + CHANNEL);
+        }
+        // 接続が切れていた間の通知は失われているため、購読の開始時にすべて破棄する
+        invalidateAllLocal();
+        listening = true;
+        backoff = INITIAL_BACKOFF_MILLIS;
+
+        PGConnection pgConnection = conn.unwrap(PGConnection.class);
+        while (running) {
+          PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+          if (notifications != null && notifications.length > 0) {
+            Arrays.stream(notifications)
+                .map(PGNotification::getParameter)
+                .forEach(this::dispatchSafely);
+          } else if (!conn.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+            throw new SQLException("キャッシュ破棄通知の接続が切断されました");
+          }
+        }
+      } catch (SQLException | RuntimeException e) {
+        // 想定外の例外でも購読スレッドを終了させず、再接続してキャッシュを破棄し直す
+        if (!running) {
+          break;
+        }
+        log.warn("キャッシュ破棄通知の購読に失敗しました。{}ms後に再接続します", backoff, e);
+      } finally {
+        listening = false;
+        connection = null;
+      }
+      if (!running) {
+        break;
+      }
+
+      // 切断中は他インスタンスの更新を受け取れないため、再接続を試みるたびにキャッシュを破棄して古いデータの提供を防ぐ
+      invalidateAllLocal();
+      try {
+        Thread.sleep(backoff);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+      backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+    }
+  }
+
+  // 1件の通知の処理に失敗しても後続の通知を受け取れるよう、例外を記録して全件破棄で代替する
+  private void dispatchSafely(String payload) {
+    try {
+      dispatch(payload);
+    } catch (RuntimeException e) {
+      log.error("キャッシュ破棄通知の処理に失敗したため、すべてのキャッシュを破棄します: {}", payload, e);
+      invalidateAllLocal();
+    }
+  }
+
+  private void dispatch(String payload) {
+    String[] parts = payload.split(";", 3);
+    if (parts.length != 3) {
+      log.warn("不正なキャッシュ破棄通知を無視しました: {}", payload);
+      return;
+    }
+    // 自インスタンスの更新は書き込み時に破棄済み
+    if (parts[0].equals(nodeId)) {
+      return;
+    }
+    List<CacheInvalidationHandler> entityHandlers = handlers.getOrDefault(parts[1], List.of());
+    if (parts[2].isEmpty()) {
+      entityHandlers.forEach(CacheInvalidationHandler::invalidateAll);
+      return;
+    }
+    List<String> keys = new ArrayList<>(Arrays.asList(parts[2].split(",")));
+    entityHandlers.forEach(handler -> handler.invalidate(keys));
+  }
+
+  private void invalidateAllLocal() {
+    handlers.values().forEach(list -> list.forEach(CacheInvalidationHandler::invalidateAll));
+  }
+
+  // 1つのトランザクションで破棄したキー。同じキーは1回だけ通知し、全件破棄を通知するエンティティのキーは送らない
+  private final class PendingInvalidations implements TransactionSynchronization {
+    private final Map<String, Set<String>> keysByEntity = new LinkedHashMap<>();
+    private final Set<String> allEntities = new HashSet<>();
+
+    boolean isOwnedBy(CacheInvalidationBus bus) {
+      return CacheInvalidationBus.this == bus;
+    }
+
+    void add(String entity, Collection<String> keys) {
+      if (!allEntities.contains(entity)) {
+        keysByEntity.computeIfAbsent(entity, key -> new LinkedHashSet<>()).addAll(keys);
+      }
+    }
+
+    void addAll(String entity) {
+      allEntities.add(entity);
+      keysByEntity.remove(entity);
+    }
+
+    @Override
+    public void beforeCommit(boolean readOnly) {
+      allEntities.forEach(CacheInvalidationBus.this::notifyAllKeys);
+      keysByEntity.forEach(CacheInvalidationBus.this::notifyKeys);
+    }
+  }
+}
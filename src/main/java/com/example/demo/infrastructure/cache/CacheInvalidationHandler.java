@@ -0,0 +1,9 @@
+package com.example.demo.infrastructure.cache;
+
+import java.util.Collection;
+
+public interface CacheInvalidationHandler {
+  void invalidate(Collection<String> keys);
+
+  void invalidateAll();
+}
@@ -0,0 +1,315 @@
+package com.example.demo.infrastructure.dataset;
+
+import com.example.demo.domain.model.order.Order.OrderStatus;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+// 規模試験用のデータを COPY で PostgreSQL に直接流し込む。
+// 注文の顧客と書籍は Zipf 分布で選び、一部の顧客・書籍に注文が集中するようにする。
+// 行の値は「表ごとの系列 + 番号」から決まるため、件数に関係なく一定のメモリで動作し、同じ seed なら同じデータになる
+@Slf4j
+public class DatasetGenerator {
+
+  private static final int COPY_BUFFER_SIZE = 64 * 1024;
+  private static final String TRUNCATE_SQL =
+      "TRUNCATE order_queue, order_item, \"order\", customer, book, idempotency_key";
+  private static final String ANALYZE_SQL = "ANALYZE book, customer, \"order\", order_item";
+  private static final DateTimeFormatter TIMESTAMP =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+  // 表ごとに乱数の系列を分け、ある表の件数を変えても他の表の値が変わらないようにする
+  private static final long BOOK_STREAM = 0x6A09E667F3BCC908L;
+  private static final long CUSTOMER_STREAM = 0xBB67AE8584CAA73BL;
+  private static final long ORDER_STREAM = 0x3C6EF372FE94F82BL;
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+  // 人気の順位を番号に散らすための係数。番号の順（ISBN順など）と人気の順を一致させない
+  private static final long SCATTER = 1_000_000_007L;
+
+  private static final String[] TITLE_PREFIXES = {
+    "はじめての", "実践", "詳解", "入門", "やさしい", "プロのための", "現場で使える", "徹底攻略"
+  };
+  private static final String[] TITLE_SUBJECTS = {
+    "Java", "Spring Boot", "SQL", "PostgreSQL", "ドメイン駆動設計",
+    "アルゴリズム", "Webアプリケーション", "テスト駆動開発", "クラウド設計", "データ分析"
+  };
+  private static final String[] FAMILY_NAMES = {
+    "佐藤", "鈴木", "高橋", "田中", "伊藤", "渡辺", "山本", "中村", "小林", "加藤"
+  };
+  private static final String[] GIVEN_NAMES = {
+    "太郎", "花子", "一郎", "美咲", "翔太", "陽菜", "大輔", "さくら", "健太", "結衣"
+  };
+
+  private final DataSource dataSource;
+  private final DatasetProperties properties;
+  private final ZipfSampler bookPopularity;
+  private final ZipfSampler customerActivity;
+  private final ZipfSampler itemsPerOrder;
+  private final long periodSeconds;
+
+  public DatasetGenerator(DataSource dataSource, DatasetProperties properties) {
+    this.dataSource = dataSource;
+    this.properties = properties;
+    this.bookPopularity = new ZipfSampler(properties.books(), properties.popularityExponent());
+    this.customerActivity =
+        new ZipfSampler(properties.customers(), properties.popularityExponent());
+    this.itemsPerOrder =
+        new ZipfSampler(
+            Math.min(properties.maxItemsPerOrder(), properties.books()),
+            properties.popularityExponent());
+    this.periodSeconds = Math.max(properties.period().toSeconds(), 1);
+  }
+
+  // 1つのトランザクションで投入し、失敗した場合は何も残さない
+  public void generate() {
+    long started = System.nanoTime();
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      try (Statement statement = connection.createStatement()) {
+        if (properties.truncate()) {
+          statement.execute(TRUNCATE_SQL);
+        }
+        copy(
+            connection,
+            "book (isbn, title, price, stock, created_at, updated_at)",
+            properties.books(),
+            this::appendBook);
+        copy(
+            connection,
+            "customer (id, name, email, created_at, updated_at)",
+            properties.customers(),
+            this::appendCustomer);
+        copy(
+            connection,
+            "\"order\" (id, customer_id, order_datetime, status, rejection_reason,"
+                + " created_at, updated_at)",
+            properties.orders(),
+            this::appendOrder);
+        copy(
+            connection,
+            "order_item (order_id, book_isbn, quantity, created_at, updated_at)",
+            properties.orders(),
+            this::appendOrderItems);
+        statement.execute(ANALYZE_SQL);
+        connection.commit();
+      } catch (SQLException | IOException | RuntimeException e) {
+        connection.rollback();
+        throw e;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (SQLException e) {
+      throw new DataAccessResourceFailureException("規模試験用のデータの投入に失敗しました", e);
+    }
+    log.info("規模試験用のデータを投入しました（{} 秒）", seconds(started));
+  }
+
+  // COPY で流し込む。行はバッファ単位で送信するため、件数に関係なく一定のメモリで動作する
+  private void copy(Connection connection, String target, int count, RowAppender rows)
+      throws SQLException, IOException {
+    long started = System.nanoTime();
+    PGCopyOutputStream out =
+        new PGCopyOutputStream(
+            connection.unwrap(PGConnection.class),
+            "COPY " + target + " FROM STDIN (FORMAT csv)",
+            COPY_BUFFER_SIZE);
+    long copied;
+    try {
+      Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+      StringBuilder row = new StringBuilder();
+      for (int i = 1; i <= count; i++) {
+        row.setLength(0);
+        rows.append(row, i);
+        writer.append(row);
+      }
+      writer.flush();
+      copied = out.endCopy();
+    } catch (IOException | RuntimeException e) {
+      if (out.isActive()) {
+        out.cancelCopy();
+      }
+      throw e;
+    }
+    double seconds = seconds(started);
+    log.info(
+        "{} に {} 行を投入しました（{} 秒、{} 行/秒）",
+        target.substring(0, target.indexOf(' ')),
+        copied,
+        seconds,
+        Math.round(copied / Math.max(seconds, 0.001)));
+  }
+
+  private void appendBook(StringBuilder row, int index) {
+    SplittableRandom random = random(BOOK_STREAM, index);
+    LocalDateTime createdAt = randomTime(random);
+    row.append(isbn(index)).append(',');
+    appendCsvText(
+            row,
+            pick(random, TITLE_PREFIXES)
+                + pick(random, TITLE_SUBJECTS)
+                + " 第"
+                + (1 + random.nextInt(5))
+                + "版")
+        .append(',');
+    row.append(500 + random.nextInt(500) * 10).append(',');
+    row.append(random.nextInt(200)).append(',');
+    appendTimestamp(row, createdAt).append(',');
+    appendTimestamp(row, createdAt).append('\n');
+  }
+
+  private void appendCustomer(StringBuilder row, int index) {
+    SplittableRandom random = random(CUSTOMER_STREAM, index);
+    LocalDateTime createdAt = randomTime(random);
+    row.append(customerId(index)).append(',');
+    appendCsvText(row, pick(random, FAMILY_NAMES) + " " + pick(random, GIVEN_NAMES)).append(',');
+    row.append("customer").append(index).append("@example.com,");
+    appendTimestamp(row, createdAt).append(',');
+    appendTimestamp(row, createdAt).append('\n');
+  }
+
+  private void appendOrder(StringBuilder row, int index) {
+    OrderDraft order = draftOrder(index);
+    row.append(order.id()).append(',');
+    row.append(customerId(order.customer())).append(',');
+    appendTimestamp(row, order.orderedAt()).append(',');
+    row.append(order.status()).append(',');
+    if (order.status().equals(OrderStatus.REJECTED.name())) {
+      appendCsvText(row, "在庫が不足しています");
+    }
+    row.append(',');
+    appendTimestamp(row, order.orderedAt()).append(',');
+    appendTimestamp(row, order.orderedAt()).append('\n');
+  }
+
+  // 注文と同じ乱数の系列を続けて使い、1注文に同じ書籍が重複しないように明細を作る
+  private void appendOrderItems(StringBuilder row, int index) {
+    OrderDraft order = draftOrder(index);
+    SplittableRandom random = order.random();
+    int lines = itemsPerOrder.sample(random);
+    long[] books = new long[lines];
+    for (int line = 0; line < lines; line++) {
+      long book;
+      do {
+        book = scatter(bookPopularity.sample(random), properties.books());
+      } while (contains(books, line, book));
+      books[line] = book;
+
+      row.append(order.id()).append(',');
+      row.append(isbn(book)).append(',');
+      row.append(random.nextInt(10) < 8 ? 1 : 2 + random.nextInt(3)).append(',');
+      appendTimestamp(row, order.orderedAt()).append(',');
+      appendTimestamp(row, order.orderedAt()).append('\n');
+    }
+  }
+
+  private OrderDraft draftOrder(int index) {
+    SplittableRandom random = random(ORDER_STREAM, index);
+    long customer = scatter(customerActivity.sample(random), properties.customers());
+    LocalDateTime orderedAt = randomTime(random);
+    int roll = random.nextInt(100);
+    OrderStatus status =
+        roll < 70
+            ? OrderStatus.SHIPPED
+            : roll < 90
+                ? OrderStatus.ACCEPTED
+                : roll < 97 ? OrderStatus.CANCELLED : OrderStatus.REJECTED;
+    return new OrderDraft(uuid(ORDER_STREAM, index), customer, orderedAt, status.name(), random);
+  }
+
+  private UUID customerId(long index) {
+    return uuid(CUSTOMER_STREAM, index);
+  }
+
+  // 書籍の番号を ISBN の形式（13桁）にする。チェックディジットは計算しない
+  static String isbn(long index) {
+    String digits = Long.toString(index);
+    return "978" + "0".repeat(10 - digits.length()) + digits;
+  }
+
+  // 1 から始まる人気の順位を 1..n の番号に1対1で対応させる
+  static long scatter(int rank, int n) {
+    return n % SCATTER == 0 ? rank : (rank - 1) * SCATTER % n + 1;
+  }
+
+  private LocalDateTime randomTime(SplittableRandom random) {
+    return properties.until().minusSeconds(random.nextLong(periodSeconds));
+  }
+
+  private SplittableRandom random(long stream, long index) {
+    return new SplittableRandom(mix64(properties.seed() ^ stream) + mix64(index * GOLDEN_GAMMA));
+  }
+
+  // バージョン4の形式にした UUID
+  private UUID uuid(long stream, long index) {
+    long base = properties.seed() ^ stream;
+    long mostSigBits = mix64(base + 2 * index * GOLDEN_GAMMA);
+    long leastSigBits = mix64(base + (2 * index + 1) * GOLDEN_GAMMA);
+    return new UUID(
+        (mostSigBits & ~0xF000L) | 0x4000L,
+        (leastSigBits & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L);
+  }
+
+  // SplitMix64 の出力関数。近い入力からも偏りのない値を作る
+  private static long mix64(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  private static boolean contains(long[] values, int length, long value) {
+    for (int i = 0; i < length; i++) {
+      if (values[i] == value) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String pick(SplittableRandom random, String[] values) {
+    return values[random.nextInt(values.length)];
+  }
+
+  private static StringBuilder appendTimestamp(StringBuilder row, LocalDateTime value) {
+    TIMESTAMP.formatTo(value, row);
+    return row;
+  }
+
+  private static StringBuilder appendCsvText(StringBuilder row, String value) {
+    row.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"') {
+        row.append('"');
+      }
+      row.append(c);
+    }
+    return row.append('"');
+  }
+
+  private static double seconds(long startedNanos) {
+    return Math.round((System.nanoTime() - startedNanos) / 1e7) / 100.0;
+  }
+
+  private record OrderDraft(
+      UUID id, long customer, LocalDateTime orderedAt, String status, SplittableRandom random) {}
+
+  @FunctionalInterface
+  private interface RowAppender {
+    void append(StringBuilder row, int index);
+  }
+}
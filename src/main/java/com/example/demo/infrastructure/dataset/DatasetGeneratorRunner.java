@@ -0,0 +1,38 @@
+package com.example.demo.infrastructure.dataset;
+
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+// dataset プロファイルで起動すると、マイグレーションの後に規模試験用のデータを投入して終了する。
+// 誤って共有のデータベースに向けて実行しないよう、--app.dataset.confirm=true を必須にする
+@Component
+@Profile("dataset")
+@RequiredArgsConstructor
+@EnableConfigurationProperties(DatasetProperties.class)
+public class DatasetGeneratorRunner implements ApplicationRunner {
+
+  private final DataSource dataSource;
+  private final DatasetProperties properties;
+  private final ConfigurableApplicationContext context;
+  private final Environment environment;
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (!properties.confirm()) {
+      throw new IllegalStateException(
+          "投入先のデータベース（"
+              + environment.getProperty("spring.datasource.url")
+              + "）のデータを置き換えます。実行する場合は --app.dataset.confirm=true を指定してください");
+    }
+    new DatasetGenerator(dataSource, properties).generate();
+    System.exit(SpringApplication.exit(context));
+  }
+}
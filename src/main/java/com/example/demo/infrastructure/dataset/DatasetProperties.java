@@ -0,0 +1,24 @@
+package com.example.demo.infrastructure.dataset;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.format.annotation.DateTimeFormat;
+
+// 規模試験用のデータの件数と偏り。seed が同じなら同じデータを生成する。
+// 既存のデータを消して投入するため、confirm=true を明示しないと実行しない。
+// 注文日時は until から period だけ遡った範囲に散らす（現在時刻に依存させないため固定の日時を基準にする）
+@ConfigurationProperties("app.dataset")
+public record DatasetProperties(
+    @DefaultValue("42") long seed,
+    @DefaultValue("1000000") int books,
+    @DefaultValue("1000000") int customers,
+    @DefaultValue("5000000") int orders,
+    @DefaultValue("5") int maxItemsPerOrder,
+    @DefaultValue("1.0") double popularityExponent,
+    @DefaultValue("2025-01-01T00:00:00") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        LocalDateTime until,
+    @DefaultValue("365d") Duration period,
+    @DefaultValue("false") boolean truncate,
+    @DefaultValue("false") boolean confirm) {}
@@ -0,0 +1,70 @@
+package com.example.demo.infrastructure.dataset;
+
+import java.util.random.RandomGenerator;
+
+// 1..n の順位を Zipf 分布（順位 k の確率が 1/k^exponent に比例）で選ぶ。
+// 棄却逆変換法（Hörmann & Derflinger）を使い、n に関係なく一定のメモリで動作する
+final class ZipfSampler {
+
+  private final int numberOfElements;
+  private final double exponent;
+  private final double hIntegralX1;
+  private final double hIntegralNumberOfElements;
+  private final double s;
+
+  ZipfSampler(int numberOfElements, double exponent) {
+    if (numberOfElements < 1) {
+      throw new IllegalArgumentException("要素数は1以上を指定してください: " + numberOfElements);
+    }
+    if (exponent <= 0) {
+      throw new IllegalArgumentException("指数は正の値を指定してください: " + exponent);
+    }
+    this.numberOfElements = numberOfElements;
+    this.exponent = exponent;
+    this.hIntegralX1 = hIntegral(1.5) - 1;
+    this.hIntegralNumberOfElements = hIntegral(numberOfElements + 0.5);
+    this.s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+  }
+
+  int sample(RandomGenerator random) {
+    while (true) {
+      double u =
+          hIntegralNumberOfElements
+              + random.nextDouble() * (hIntegralX1 - hIntegralNumberOfElements);
+      double x = hIntegralInverse(u);
+      int k = (int) Math.min(Math.max(x + 0.5, 1), numberOfElements);
+      if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+        return k;
+      }
+    }
+  }
+
+  private double hIntegral(double x) {
+    double logX = Math.log(x);
+    return expm1OverX((1 - exponent) * logX) * logX;
+  }
+
+  private double h(double x) {
+    return Math.exp(-exponent * Math.log(x));
+  }
+
+  private double hIntegralInverse(double x) {
+    double t = Math.max(x * (1 - exponent), -1);
+    return Math.exp(log1pOverX(t) * x);
+  }
+
+  // exponent が 1 に近いときの桁落ちを避けるため、0 付近はテイラー展開で計算する
+  private static double log1pOverX(double x) {
+    if (Math.abs(x) > 1e-8) {
+      return Math.log1p(x) / x;
+    }
+    return 1 - x * (1.0 / 2 - x * (1.0 / 3 - x * (1.0 / 4)));
+  }
+
+  private static double expm1OverX(double x) {
+    if (Math.abs(x) > 1e-8) {
+      return Math.expm1(x) / x;
+    }
+    return 1 + x * (1.0 / 2) * (1 + x * (1.0 / 3) * (1 + x * (1.0 / 4)));
+  }
+}
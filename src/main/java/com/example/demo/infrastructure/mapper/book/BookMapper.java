@@ -1,22 +1,52 @@
 package com.example.demo.infrastructure.mapper.book;
 
 import com.example.demo.domain.model.book.Book;
+import com.example.demo.domain.model.book.BookImportCount;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.SortedMap;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
 @Mapper
 public interface BookMapper {
+  List<Book> findPage(@Param("after") String after, @Param("limit") int limit);
 
-  List<Book> findAll();
+  String findPageVersion(@Param("after") String after, @Param("limit") int limit);
+
+  Optional<LocalDateTime> findUpdatedAtById(String isbn);
 
   Optional<Book> findById(String isbn);
 
-  void insert(Book book);
+  Optional<Book> findByIdForUpdate(String isbn);
 
-  void update(Book book);
+  List<Book> findByIsbns(@Param("isbns") Collection<String> isbns);
 
-  void deleteById(String isbn);
+  List<String> lockByIsbns(@Param("isbns") Collection<String> isbns);
+
+  boolean save(Book book);
+
+  int saveAll(@Param("books") List<Book> books);
+
+  void createImportTable();
 
-  int countByIsbn(String isbn);
+  BookImportCount mergeImportTable(@Param("importedAt") LocalDateTime importedAt);
+
+  int decreaseStock(
+      @Param("isbn") String isbn,
+      @Param("quantity") int quantity,
+      @Param("updatedAt") LocalDateTime updatedAt);
+
+  List<String> decreaseStocks(
+      @Param("quantities") SortedMap<String, Integer> quantities,
+      @Param("updatedAt") LocalDateTime updatedAt);
+
+  int increaseStock(
+      @Param("isbn") String isbn,
+      @Param("quantity") int quantity,
+      @Param("updatedAt") LocalDateTime updatedAt);
+
+  void deleteById(String isbn);
 }
@@ -1,18 +1,29 @@
 package com.example.demo.infrastructure.mapper.customer;
 
 import com.example.demo.domain.model.customer.Customer;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
 @Mapper
 public interface CustomerMapper {
-  List<Customer> findAll();
+  List<Customer> findPage(@Param("after") UUID after, @Param("limit") int limit);
+
+  String findPageVersion(@Param("after") UUID after, @Param("limit") int limit);
+
+  Optional<LocalDateTime> findUpdatedAtById(UUID id);
 
   Optional<Customer> findById(UUID id);
 
+  List<Customer> findByLowerEmails(@Param("emails") Collection<String> emails);
+
   void save(Customer customer);
 
+  void saveAll(@Param("customers") List<Customer> customers);
+
   void deleteById(UUID id);
 }
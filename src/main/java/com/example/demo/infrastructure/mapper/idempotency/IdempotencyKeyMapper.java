@@ -0,0 +1,17 @@
+package com.example.demo.infrastructure.mapper.idempotency;
+
+import com.example.demo.domain.model.idempotency.IdempotencyKey;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.apache.ibatis.annotations.Mapper;
+
+@Mapper
+public interface IdempotencyKeyMapper {
+  Optional<IdempotencyKey> findById(String id);
+
+  int claim(IdempotencyKey key);
+
+  void complete(IdempotencyKey key);
+
+  int deleteExpired(LocalDateTime now);
+}
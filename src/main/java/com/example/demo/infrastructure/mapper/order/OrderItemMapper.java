@@ -4,12 +4,17 @@ import com.example.demo.domain.model.order.OrderItem;
 import java.util.List;
 import java.util.UUID;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
 @Mapper
 public interface OrderItemMapper {
   List<OrderItem> findByOrderId(UUID orderId);
 
+  List<OrderItem> findByOrderIds(@Param("orderIds") List<UUID> orderIds);
+
   void save(OrderItem orderItem);
 
+  void saveAll(@Param("orderItems") List<OrderItem> orderItems);
+
   void deleteByOrderId(UUID orderId);
 }
@@ -1,19 +1,34 @@
 package com.example.demo.infrastructure.mapper.order;
 
 import com.example.demo.domain.model.order.Order;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 @Mapper
 public interface OrderMapper {
-  List<Order> findAll();
+  List<Order> findPage(@Param("after") UUID after, @Param("limit") int limit);
+
+  String findPageVersion(@Param("after") UUID after, @Param("limit") int limit);
+
+  Optional<LocalDateTime> findUpdatedAtById(UUID id);
+
+  Cursor<Order> streamAll();
 
   Optional<Order> findById(UUID id);
 
   void insert(Order order);
 
+  void enqueue(UUID orderId);
+
+  List<Order> findQueuedForUpdate(@Param("limit") int limit);
+
+  void dequeue(@Param("orderIds") List<UUID> orderIds);
+
   void update(Order order);
 
   void deleteById(UUID id);
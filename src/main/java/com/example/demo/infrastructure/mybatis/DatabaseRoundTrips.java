@@ -0,0 +1,95 @@
+package com.example.demo.infrastructure.mybatis;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// 1リクエストの中で発行したステートメントと開始したトランザクションを数える。
+// リクエストを処理するスレッドに紐づくため、OrderGroupCommitWriter などの別スレッドでの処理は含まない
+public final class DatabaseRoundTrips {
+
+  private static final ThreadLocal<DatabaseRoundTrips> CURRENT = new ThreadLocal<>();
+
+  private final int nPlusOneThreshold;
+  private int statements;
+  private int transactions;
+  private final Map<String, Executions> executions = new LinkedHashMap<>();
+
+  private DatabaseRoundTrips(int nPlusOneThreshold) {
+    this.nPlusOneThreshold = nPlusOneThreshold;
+  }
+
+  // 同じステートメントを異なるパラメータで nPlusOneThreshold 回以上実行したものを N+1 の疑いとする
+  public static DatabaseRoundTrips begin(int nPlusOneThreshold) {
+    DatabaseRoundTrips roundTrips = new DatabaseRoundTrips(nPlusOneThreshold);
+    CURRENT.set(roundTrips);
+    return roundTrips;
+  }
+
+  public static DatabaseRoundTrips current() {
+    return CURRENT.get();
+  }
+
+  public static void end() {
+    CURRENT.remove();
+  }
+
+  void recordStatement(String statement, Object parameter) {
+    statements++;
+    executions
+        .computeIfAbsent(statement, key -> new Executions())
+        .record(parameter, nPlusOneThreshold);
+  }
+
+  void recordTransaction() {
+    transactions++;
+  }
+
+  public int statements() {
+    return statements;
+  }
+
+  public int transactions() {
+    return transactions;
+  }
+
+  // N+1 の疑いがあるステートメントと、その実行回数
+  public Map<String, Integer> nPlusOneSuspects() {
+    Map<String, Integer> suspects = new LinkedHashMap<>();
+    executions.forEach(
+        (statement, execution) -> {
+          if (execution.parameterHashes.size() >= nPlusOneThreshold) {
+            suspects.put(statement, execution.count);
+          }
+        });
+    return suspects;
+  }
+
+  // ステートメントごとの実行回数（多い順）
+  public List<Map.Entry<String, Integer>> statementCounts() {
+    Map<String, Integer> counts = new HashMap<>();
+    executions.forEach((statement, execution) -> counts.put(statement, execution.count));
+    List<Map.Entry<String, Integer>> sorted = new ArrayList<>(counts.entrySet());
+    sorted.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+    return sorted;
+  }
+
+  // パラメータそのものは保持せず、ハッシュ値を threshold 個まで記録する。
+  // チャンクごとに実行するストリーミング処理でも、リクエスト中に保持するメモリが件数に比例しないようにする
+  private static final class Executions {
+    private int count;
+    private final Set<Integer> parameterHashes = new HashSet<>();
+
+    private void record(Object parameter, int threshold) {
+      count++;
+      if (parameterHashes.size() < threshold) {
+        parameterHashes.add(Objects.hashCode(parameter));
+      }
+    }
+  }
+}
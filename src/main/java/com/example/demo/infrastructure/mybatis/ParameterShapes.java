@@ -0,0 +1,66 @@
+package com.example.demo.infrastructure.mybatis;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+// ログ用にバインドパラメータの形（名前・型・件数）を表す。個人情報を含みうるため値は出力しない
+final class ParameterShapes {
+
+  // MyBatis が名前付きパラメータと共に追加する param1, param2 ... は重複するため除く
+  private static final Pattern GENERIC_PARAM_NAME = Pattern.compile("param\\d+");
+
+  private ParameterShapes() {}
+
+  static String describe(Object parameter) {
+    if (parameter instanceof Map<?, ?> map) {
+      Map<String, String> shapes = new TreeMap<>();
+      map.forEach(
+          (name, value) -> {
+            if (!GENERIC_PARAM_NAME.matcher(String.valueOf(name)).matches()) {
+              shapes.put(String.valueOf(name), shapeOf(value));
+            }
+          });
+      StringJoiner joiner = new StringJoiner(", ", "{", "}");
+      shapes.forEach((name, shape) -> joiner.add(name + "=" + shape));
+      return joiner.toString();
+    }
+    return shapeOf(parameter);
+  }
+
+  private static String shapeOf(Object value) {
+    if (value == null) {
+      return "null";
+    }
+    if (value instanceof Collection<?> collection) {
+      String elementType =
+          collection.isEmpty() ? "" : "<" + typeOf(collection.iterator().next()) + ">";
+      return collectionType(collection) + elementType + "[" + collection.size() + "]";
+    }
+    if (value.getClass().isArray()) {
+      String componentType = value.getClass().getComponentType().getSimpleName();
+      return componentType + "[" + Array.getLength(value) + "]";
+    }
+    return typeOf(value);
+  }
+
+  // List.of などの実装クラス名ではなくインターフェース名で表す
+  private static String collectionType(Collection<?> collection) {
+    if (collection instanceof List<?>) {
+      return "List";
+    }
+    if (collection instanceof Set<?>) {
+      return "Set";
+    }
+    return "Collection";
+  }
+
+  private static String typeOf(Object value) {
+    return value == null ? "null" : value.getClass().getSimpleName();
+  }
+}
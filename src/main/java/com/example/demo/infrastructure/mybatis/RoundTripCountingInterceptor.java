@@ -0,0 +1,60 @@
+package com.example.demo.infrastructure.mybatis;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// リクエストの処理中に実行したマッパーのステートメントを DatabaseRoundTrips に記録する
+@Component
+@ConditionalOnProperty(
+    name = "app.db-budget.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+@Intercepts({
+  @Signature(
+      type = Executor.class,
+      method = "query",
+      args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+  @Signature(
+      type = Executor.class,
+      method = "query",
+      args = {
+        MappedStatement.class,
+        Object.class,
+        RowBounds.class,
+        ResultHandler.class,
+        CacheKey.class,
+        BoundSql.class
+      }),
+  @Signature(
+      type = Executor.class,
+      method = "queryCursor",
+      args = {MappedStatement.class, Object.class, RowBounds.class}),
+  @Signature(
+      type = Executor.class,
+      method = "update",
+      args = {MappedStatement.class, Object.class})
+})
+public class RoundTripCountingInterceptor implements Interceptor {
+
+  @Override
+  public Object intercept(Invocation invocation) throws Throwable {
+    DatabaseRoundTrips roundTrips = DatabaseRoundTrips.current();
+    if (roundTrips != null) {
+      MappedStatement mappedStatement = (MappedStatement) invocation.getArgs()[0];
+      roundTrips.recordStatement(
+          StatementMetricsInterceptor.statementName(mappedStatement.getId()),
+          invocation.getArgs()[1]);
+    }
+    return invocation.proceed();
+  }
+}
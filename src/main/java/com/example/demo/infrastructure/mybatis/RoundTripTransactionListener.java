@@ -0,0 +1,24 @@
+package com.example.demo.infrastructure.mybatis;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+// リクエストの処理中に開始したトランザクションを DatabaseRoundTrips に記録する。
+// 自動構成のトランザクションマネージャーに登録され、参加するだけのトランザクションやセーブポイントは数えない
+@Component
+@ConditionalOnProperty(
+    name = "app.db-budget.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class RoundTripTransactionListener implements TransactionExecutionListener {
+
+  @Override
+  public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+    DatabaseRoundTrips roundTrips = DatabaseRoundTrips.current();
+    if (roundTrips != null && beginFailure == null) {
+      roundTrips.recordTransaction();
+    }
+  }
+}
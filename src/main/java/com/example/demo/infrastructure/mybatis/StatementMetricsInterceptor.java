@@ -0,0 +1,186 @@
+package com.example.demo.infrastructure.mybatis;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// マッパーのステートメント（BookMapper.findById など）ごとに実行時間と件数を Micrometer に記録する。
+// /actuator/metrics/mybatis.statement?tag=statement:BookMapper.findById で参照できる。
+// しきい値を超えたステートメントはパラメータの型と件数（値は出さない）と共にログに出力する
+@Slf4j
+@Component
+@ConditionalOnProperty(
+    name = "app.mybatis.metrics.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+@Intercepts({
+  @Signature(
+      type = Executor.class,
+      method = "query",
+      args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+  @Signature(
+      type = Executor.class,
+      method = "query",
+      args = {
+        MappedStatement.class,
+        Object.class,
+        RowBounds.class,
+        ResultHandler.class,
+        CacheKey.class,
+        BoundSql.class
+      }),
+  @Signature(
+      type = Executor.class,
+      method = "queryCursor",
+      args = {MappedStatement.class, Object.class, RowBounds.class}),
+  @Signature(
+      type = Executor.class,
+      method = "update",
+      args = {MappedStatement.class, Object.class})
+})
+public class StatementMetricsInterceptor implements Interceptor {
+
+  static final String TIMER_NAME = "mybatis.statement";
+  static final String ROWS_NAME = "mybatis.statement.rows";
+
+  private static final int UNKNOWN_ROWS = -1;
+
+  private final MeterRegistry meterRegistry;
+  private final long slowQueryThresholdNanos;
+
+  // MappedStatement の ID ごとのメーター。毎回レジストリを検索しないよう保持する
+  private final ConcurrentMap<String, StatementMeters> meters = new ConcurrentHashMap<>();
+
+  public StatementMetricsInterceptor(
+      MeterRegistry meterRegistry,
+      @Value("${app.mybatis.slow-query-threshold:200ms}") Duration slowQueryThreshold) {
+    this.meterRegistry = meterRegistry;
+    this.slowQueryThresholdNanos = slowQueryThreshold.toNanos();
+  }
+
+  @Override
+  public Object intercept(Invocation invocation) throws Throwable {
+    Object[] args = invocation.getArgs();
+    MappedStatement mappedStatement = (MappedStatement) args[0];
+    // ResultHandler で1件ずつ処理する場合は戻り値が空のため、処理した件数を数える
+    RowCountingResultHandler<?> countingHandler = null;
+    if (args.length > 3 && args[3] instanceof ResultHandler<?> resultHandler) {
+      countingHandler = new RowCountingResultHandler<>(resultHandler);
+      args[3] = countingHandler;
+    }
+
+    long start = System.nanoTime();
+    Object result = null;
+    try {
+      result = invocation.proceed();
+      return result;
+    } finally {
+      long elapsed = System.nanoTime() - start;
+      int rows = countingHandler != null ? countingHandler.rows : rows(result);
+      record(mappedStatement, args[1], elapsed, rows);
+    }
+  }
+
+  private void record(MappedStatement mappedStatement, Object parameter, long elapsed, int rows) {
+    StatementMeters statementMeters = meters.get(mappedStatement.getId());
+    if (statementMeters == null) {
+      statementMeters = meters.computeIfAbsent(mappedStatement.getId(), this::register);
+    }
+    statementMeters.timer.record(elapsed, TimeUnit.NANOSECONDS);
+    if (rows != UNKNOWN_ROWS) {
+      statementMeters.rows.record(rows);
+    }
+    if (elapsed >= slowQueryThresholdNanos) {
+      logSlowQuery(statementMeters.name, parameter, elapsed, rows);
+    }
+  }
+
+  private StatementMeters register(String id) {
+    String name = statementName(id);
+    return new StatementMeters(
+        name,
+        Timer.builder(TIMER_NAME)
+            .description("マッパーのステートメントの実行時間")
+            .tag("statement", name)
+            .register(meterRegistry),
+        DistributionSummary.builder(ROWS_NAME)
+            .description("マッパーのステートメントが返した件数または更新した件数")
+            .baseUnit("rows")
+            .tag("statement", name)
+            .register(meterRegistry));
+  }
+
+  private static void logSlowQuery(String statement, Object parameter, long elapsed, int rows) {
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+    String parameters = ParameterShapes.describe(parameter);
+    log.atWarn()
+        .addKeyValue("statement", statement)
+        .addKeyValue("elapsedMs", elapsedMillis)
+        .addKeyValue("rows", rows)
+        .addKeyValue("parameters", parameters)
+        .log(
+            "遅いSQLを検出しました statement={} elapsedMs={} rows={} parameters={}",
+            statement,
+            elapsedMillis,
+            rows,
+            parameters);
+  }
+
+  // com.example.demo.infrastructure.mapper.book.BookMapper.findById -> BookMapper.findById
+  static String statementName(String id) {
+    int methodSeparator = id.lastIndexOf('.');
+    if (methodSeparator <= 0) {
+      return id;
+    }
+    return id.substring(id.lastIndexOf('.', methodSeparator - 1) + 1);
+  }
+
+  private static int rows(Object result) {
+    if (result instanceof List<?> list) {
+      return list.size();
+    }
+    if (result instanceof Integer count) {
+      return count;
+    }
+    // カーソルは開いた時点では件数が分からない
+    return UNKNOWN_ROWS;
+  }
+
+  private record StatementMeters(String name, Timer timer, DistributionSummary rows) {}
+
+  private static final class RowCountingResultHandler<T> implements ResultHandler<T> {
+    private final ResultHandler<T> delegate;
+    private int rows;
+
+    @SuppressWarnings("unchecked")
+    private RowCountingResultHandler(ResultHandler<?> delegate) {
+      this.delegate = (ResultHandler<T>) delegate;
+    }
+
+    @Override
+    public void handleResult(ResultContext<? extends T> resultContext) {
+      rows++;
+      delegate.handleResult(resultContext);
+    }
+  }
+}
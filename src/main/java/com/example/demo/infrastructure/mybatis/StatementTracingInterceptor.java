@@ -0,0 +1,81 @@
+package com.example.demo.infrastructure.mybatis;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// マッパーのステートメントごとにスパンを作る。トレースが始まっている場合のみ子スパンとして記録する
+@Component
+@ConditionalOnProperty(
+    name = "app.tracing.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+@Intercepts({
+  @Signature(
+      type = Executor.class,
+      method = "query",
+      args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+  @Signature(
+      type = Executor.class,
+      method = "query",
+      args = {
+        MappedStatement.class,
+        Object.class,
+        RowBounds.class,
+        ResultHandler.class,
+        CacheKey.class,
+        BoundSql.class
+      }),
+  @Signature(
+      type = Executor.class,
+      method = "queryCursor",
+      args = {MappedStatement.class, Object.class, RowBounds.class}),
+  @Signature(
+      type = Executor.class,
+      method = "update",
+      args = {MappedStatement.class, Object.class})
+})
+public class StatementTracingInterceptor implements Interceptor {
+
+  private final Tracer tracer;
+
+  public StatementTracingInterceptor(Tracer tracer) {
+    this.tracer = tracer;
+  }
+
+  @Override
+  public Object intercept(Invocation invocation) throws Throwable {
+    if (tracer.currentSpan() == null) {
+      return invocation.proceed();
+    }
+    MappedStatement mappedStatement = (MappedStatement) invocation.getArgs()[0];
+    // 種別（CLIENT）は Span.Builder でしか指定できない。親は現在のスパンになる
+    Span span =
+        tracer
+            .spanBuilder()
+            .name(StatementMetricsInterceptor.statementName(mappedStatement.getId()))
+            .kind(Span.Kind.CLIENT)
+            .tag("db.system", "postgresql")
+            .tag("db.operation", mappedStatement.getSqlCommandType().name())
+            .start();
+    try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+      return invocation.proceed();
+    } catch (Throwable e) {
+      span.error(e);
+      throw e;
+    } finally {
+      span.end();
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package com.example.demo.infrastructure.reactive;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import java.time.Duration;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+// 参照系のノンブロッキングAPIが使う R2DBC の接続プール。
+// ConnectionFactory を Bean にすると JDBC の DataSource が自動構成されなくなるため、ここで保持する
+@Component
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveDatabase implements DisposableBean {
+
+  private final ConnectionPool connectionPool;
+  private final DatabaseClient databaseClient;
+
+  public ReactiveDatabase(
+      DataSourceProperties dataSourceProperties,
+      @Value("${app.reactive.r2dbc.url}") String url,
+      @Value("${app.reactive.r2dbc.pool.max-size:20}") int maxSize,
+      @Value("${app.reactive.r2dbc.pool.max-idle-time:30m}") Duration maxIdleTime) {
+    // 認証情報は JDBC と共通の spring.datasource.* を使う
+    ConnectionFactoryOptions options =
+        ConnectionFactoryOptions.parse(url)
+            .mutate()
+            .option(ConnectionFactoryOptions.USER, dataSourceProperties.determineUsername())
+            .option(ConnectionFactoryOptions.PASSWORD, dataSourceProperties.determinePassword())
+            .build();
+    this.connectionPool =
+        new ConnectionPool(
+            ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(maxSize)
+                .maxIdleTime(maxIdleTime)
+                .build());
+    this.databaseClient = DatabaseClient.create(connectionPool);
+  }
+
+  public DatabaseClient client() {
+    return databaseClient;
+  }
+
+  @Override
+  public void destroy() {
+    connectionPool.dispose();
+  }
+}
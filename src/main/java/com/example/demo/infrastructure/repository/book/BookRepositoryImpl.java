@@ -1,22 +1,62 @@
 package com.example.demo.infrastructure.repository.book;
 
 import com.example.demo.domain.model.book.Book;
+import com.example.demo.domain.model.book.BookImportCount;
 import com.example.demo.domain.repository.book.BookRepository;
 import com.example.demo.infrastructure.mapper.book.BookMapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import javax.sql.DataSource;
 import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Repository
 @RequiredArgsConstructor
 public class BookRepositoryImpl implements BookRepository {
 
+  private static final int SAVE_CHUNK_SIZE = 1000;
+  private static final int COPY_BUFFER_SIZE = 64 * 1024;
+  private static final String COPY_IMPORT_SQL =
+      "COPY book_import (seq, isbn, title, price, stock) FROM STDIN (FORMAT csv)";
+
   private final BookMapper bookMapper;
+  private final DataSource dataSource;
+
+  @Override
+  public List<Book> findPage(String afterIsbn, int limit) {
+    return bookMapper.findPage(afterIsbn, limit);
+  }
+
+  @Override
+  public String findPageVersion(String afterIsbn, int limit) {
+    return bookMapper.findPageVersion(afterIsbn, limit);
+  }
 
   @Override
-  public List<Book> findAll() {
-    return bookMapper.findAll();
+  public Optional<LocalDateTime> findUpdatedAtById(String isbn) {
+    return bookMapper.findUpdatedAtById(isbn);
   }
 
   @Override
@@ -25,16 +65,122 @@ public class BookRepositoryImpl implements BookRepository {
   }
 
   @Override
-  public void save(Book book) {
-    if (bookMapper.countByIsbn(book.getIsbn()) > 0) {
-      bookMapper.update(book);
-    } else {
-      bookMapper.insert(book);
+  public Optional<Book> findByIdForUpdate(String isbn) {
+    return bookMapper.findByIdForUpdate(isbn);
+  }
+
+  @Override
+  public List<Book> findByIsbns(Collection<String> isbns) {
+    return bookMapper.findByIsbns(isbns);
+  }
+
+  @Override
+  public List<String> lockByIsbns(Collection<String> isbns) {
+    if (isbns.isEmpty()) {
+      return List.of();
+    }
+    return bookMapper.lockByIsbns(new TreeSet<>(isbns));
+  }
+
+  @Override
+  public boolean save(Book book) {
+    return bookMapper.save(book);
+  }
+
+  @Override
+  public int saveAll(List<Book> books) {
+    // 1文の中で同じ行を2回更新できないため、同じISBNは後の要素を優先して1件にまとめる
+    Map<String, Book> booksByIsbn = new LinkedHashMap<>();
+    books.forEach(book -> booksByIsbn.put(book.getIsbn(), book));
+    List<Book> distinct = new ArrayList<>(booksByIsbn.values());
+
+    int inserted = 0;
+    for (int from = 0; from < distinct.size(); from += SAVE_CHUNK_SIZE) {
+      int to = Math.min(from + SAVE_CHUNK_SIZE, distinct.size());
+      inserted += bookMapper.saveAll(distinct.subList(from, to));
+    }
+    return inserted;
+  }
+
+  @Override
+  public BookImportCount importAll(Iterator<Book> books) {
+    // 一時テーブルはトランザクション終了時に破棄されるため、同じ接続を使うトランザクション内でのみ実行できる
+    if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+      throw new IllegalStateException("書籍の一括登録はトランザクション内で実行する必要があります");
     }
+    bookMapper.createImportTable();
+    copyToImportTable(books);
+    return bookMapper.mergeImportTable(LocalDateTime.now());
+  }
+
+  @Override
+  public boolean decreaseStock(String isbn, int quantity) {
+    return bookMapper.decreaseStock(isbn, quantity, LocalDateTime.now()) > 0;
+  }
+
+  @Override
+  public Set<String> decreaseStocks(Map<String, Integer> quantitiesByIsbn) {
+    // ISBN順に並べて渡し、ロック取得順を一定にする
+    return new HashSet<>(
+        bookMapper.decreaseStocks(new TreeMap<>(quantitiesByIsbn), LocalDateTime.now()));
+  }
+
+  @Override
+  public boolean increaseStock(String isbn, int quantity) {
+    return bookMapper.increaseStock(isbn, quantity, LocalDateTime.now()) > 0;
   }
 
   @Override
   public void deleteById(String isbn) {
     bookMapper.deleteById(isbn);
   }
+
+  // COPY で一時テーブルへ流し込む。行はバッファ単位で送信するため、件数に関係なく一定のメモリで動作する
+  private void copyToImportTable(Iterator<Book> books) {
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try {
+      PGCopyOutputStream out =
+          new PGCopyOutputStream(
+              connection.unwrap(PGConnection.class), COPY_IMPORT_SQL, COPY_BUFFER_SIZE);
+      try {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        StringBuilder row = new StringBuilder();
+        long seq = 0;
+        while (books.hasNext()) {
+          Book book = books.next();
+          row.setLength(0);
+          row.append(++seq).append(',');
+          appendCsvText(row, book.getIsbn()).append(',');
+          appendCsvText(row, book.getTitle()).append(',');
+          row.append(book.getPrice()).append(',').append(book.getStock()).append('\n');
+          writer.append(row);
+        }
+        writer.flush();
+        out.endCopy();
+      } catch (IOException | RuntimeException e) {
+        if (out.isActive()) {
+          out.cancelCopy();
+        }
+        throw e;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (SQLException e) {
+      throw new DataAccessResourceFailureException("書籍の一括登録に失敗しました", e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  private static StringBuilder appendCsvText(StringBuilder row, String value) {
+    row.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"') {
+        row.append('"');
+      }
+      row.append(c);
+    }
+    return row.append('"');
+  }
 }
@@ -0,0 +1,250 @@
+package com.example.demo.infrastructure.repository.book;
+
+import com.example.demo.domain.model.book.Book;
+import com.example.demo.domain.model.book.BookImportCount;
+import com.example.demo.domain.repository.book.BookRepository;
+import com.example.demo.infrastructure.cache.CacheInvalidationBus;
+import com.example.demo.infrastructure.cache.CacheInvalidationHandler;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// ISBNをキーに書籍をキャッシュする BookRepository。書き込み時には該当キーを破棄し、他インスタンスにも通知する。
+// キャッシュを無効にした場合はこのクラスが登録されないため、破棄の通知も発行しない
+@Repository
+@Primary
+@ConditionalOnProperty(
+    name = "app.cache.book.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class CachingBookRepository implements BookRepository {
+
+  private final BookRepository delegate;
+  private final CacheInvalidationBus cacheInvalidationBus;
+  private final Cache<String, Book> cache;
+
+  // 破棄のたびに増やす世代。読み込み中に破棄された場合に、読み込んだ古い値をキャッシュに入れないために使う
+  private final AtomicLong generation = new AtomicLong();
+
+  public CachingBookRepository(
+      BookRepositoryImpl delegate,
+      CacheInvalidationBus cacheInvalidationBus,
+      MeterRegistry meterRegistry,
+      @Value("${app.cache.book.maximum-size:10000}") long maximumSize,
+      @Value("${app.cache.book.expire-after-write:10m}") Duration expireAfterWrite) {
+    this.delegate = delegate;
+    this.cacheInvalidationBus = cacheInvalidationBus;
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "book");
+
+    // 他インスタンスでの更新通知を受けて破棄する
+    cacheInvalidationBus.register(
+        CacheInvalidationBus.BOOK,
+        new CacheInvalidationHandler() {
+          @Override
+          public void invalidate(Collection<String> keys) {
+            evict(keys);
+          }
+
+          @Override
+          public void invalidateAll() {
+            evictAll();
+          }
+        });
+  }
+
+  @Override
+  public List<Book> findPage(String afterIsbn, int limit) {
+    return delegate.findPage(afterIsbn, limit);
+  }
+
+  @Override
+  public String findPageVersion(String afterIsbn, int limit) {
+    return delegate.findPageVersion(afterIsbn, limit);
+  }
+
+  @Override
+  public Optional<LocalDateTime> findUpdatedAtById(String isbn) {
+    // キャッシュ済みであればデータベースに問い合わせずに更新日時を返す
+    Book cached = cache.getIfPresent(isbn);
+    if (cached != null) {
+      return Optional.of(cached.getUpdatedAt());
+    }
+    return delegate.findUpdatedAtById(isbn);
+  }
+
+  @Override
+  public Optional<Book> findById(String isbn) {
+    // 呼び出し側で変更されてもキャッシュに影響しないよう、コピーを返す
+    Book cached = cache.getIfPresent(isbn);
+    if (cached != null) {
+      return Optional.of(copy(cached));
+    }
+
+    // cache.get(key, loader) はローダーを ConcurrentHashMap のロック（synchronized）の中で実行し、
+    // 仮想スレッドではデータベースの応答を待つ間キャリアスレッドを固定するため、ロックの外で読み込む
+    long loadedGeneration = generation.get();
+    Optional<Book> loaded = delegate.findById(isbn);
+    loaded.ifPresent(
+        book ->
+            cache
+                .asMap()
+                .compute(
+                    isbn,
+                    (key, current) -> generation.get() == loadedGeneration ? book : current));
+    return loaded.map(CachingBookRepository::copy);
+  }
+
+  @Override
+  public Optional<Book> findByIdForUpdate(String isbn) {
+    // 書き込みの判定に使うため、キャッシュを経由せずにデータベースから読み込む
+    return delegate.findByIdForUpdate(isbn);
+  }
+
+  @Override
+  public List<Book> findByIsbns(Collection<String> isbns) {
+    return delegate.findByIsbns(isbns);
+  }
+
+  @Override
+  public List<String> lockByIsbns(Collection<String> isbns) {
+    return delegate.lockByIsbns(isbns);
+  }
+
+  @Override
+  public boolean save(Book book) {
+    boolean inserted = delegate.save(book);
+    invalidate(List.of(book.getIsbn()));
+    publish(List.of(book.getIsbn()));
+    return inserted;
+  }
+
+  @Override
+  public int saveAll(List<Book> books) {
+    int inserted = delegate.saveAll(books);
+    Set<String> isbns = books.stream().map(Book::getIsbn).collect(Collectors.toSet());
+    invalidate(isbns);
+    publish(isbns);
+    return inserted;
+  }
+
+  @Override
+  public BookImportCount importAll(Iterator<Book> books) {
+    BookImportCount count = delegate.importAll(books);
+    invalidateAll();
+    cacheInvalidationBus.publishAll(CacheInvalidationBus.BOOK);
+    return count;
+  }
+
+  @Override
+  public boolean decreaseStock(String isbn, int quantity) {
+    boolean decreased = delegate.decreaseStock(isbn, quantity);
+    invalidate(List.of(isbn));
+    if (decreased) {
+      publish(List.of(isbn));
+    }
+    return decreased;
+  }
+
+  @Override
+  public Set<String> decreaseStocks(Map<String, Integer> quantitiesByIsbn) {
+    Set<String> reserved = delegate.decreaseStocks(quantitiesByIsbn);
+    invalidate(quantitiesByIsbn.keySet());
+    publish(reserved);
+    return reserved;
+  }
+
+  @Override
+  public boolean increaseStock(String isbn, int quantity) {
+    boolean increased = delegate.increaseStock(isbn, quantity);
+    invalidate(List.of(isbn));
+    if (increased) {
+      publish(List.of(isbn));
+    }
+    return increased;
+  }
+
+  @Override
+  public void deleteById(String isbn) {
+    delegate.deleteById(isbn);
+    invalidate(List.of(isbn));
+    publish(List.of(isbn));
+  }
+
+  private void invalidate(Collection<String> isbns) {
+    evict(isbns);
+
+    // コミット前に他スレッドが古い値を読み込んでキャッシュする可能性があるため、トランザクション完了後にも破棄する
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      List<String> keys = List.copyOf(isbns);
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              evict(keys);
+            }
+          });
+    }
+  }
+
+  // 変更した行だけを通知する。トランザクション内の通知はコミット時に1回にまとめて発行される
+  private void publish(Collection<String> isbns) {
+    cacheInvalidationBus.publish(CacheInvalidationBus.BOOK, isbns);
+  }
+
+  private void invalidateAll() {
+    evictAll();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              evictAll();
+            }
+          });
+    }
+  }
+
+  private void evict(Collection<String> isbns) {
+    generation.incrementAndGet();
+    cache.invalidateAll(isbns);
+  }
+
+  private void evictAll() {
+    generation.incrementAndGet();
+    cache.invalidateAll();
+  }
+
+  private static Book copy(Book book) {
+    Book copy = new Book();
+    copy.setIsbn(book.getIsbn());
+    copy.setTitle(book.getTitle());
+    copy.setPrice(book.getPrice());
+    copy.setStock(book.getStock());
+    copy.setCreatedAt(book.getCreatedAt());
+    copy.setUpdatedAt(book.getUpdatedAt());
+    return copy;
+  }
+}
@@ -0,0 +1,69 @@
+package com.example.demo.infrastructure.repository.book;
+
+import com.example.demo.domain.model.book.Book;
+import com.example.demo.domain.repository.book.ReactiveBookRepository;
+import com.example.demo.infrastructure.reactive.ReactiveDatabase;
+import io.r2dbc.spi.Readable;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReactiveBookRepositoryImpl implements ReactiveBookRepository {
+
+  private static final String COLUMNS = "isbn, title, price, stock, created_at, updated_at";
+  // 購読側の要求に合わせて一定件数ずつ読み込む（サーバーサイドのポータルで取得する）
+  private static final int FETCH_SIZE = 500;
+
+  private final ReactiveDatabase reactiveDatabase;
+
+  @Override
+  public Flux<Book> findAll(String afterIsbn, Integer limit) {
+    StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM book");
+    if (afterIsbn != null) {
+      sql.append(" WHERE isbn > :after");
+    }
+    sql.append(" ORDER BY isbn");
+    if (limit != null) {
+      sql.append(" LIMIT :limit");
+    }
+
+    GenericExecuteSpec spec = reactiveDatabase.client().sql(sql.toString());
+    if (afterIsbn != null) {
+      spec = spec.bind("after", afterIsbn);
+    }
+    if (limit != null) {
+      spec = spec.bind("limit", limit);
+    }
+    return spec.filter(statement -> statement.fetchSize(FETCH_SIZE))
+        .map(ReactiveBookRepositoryImpl::toBook)
+        .all();
+  }
+
+  @Override
+  public Mono<Book> findById(String isbn) {
+    return reactiveDatabase
+        .client()
+        .sql("SELECT " + COLUMNS + " FROM book WHERE isbn = :isbn")
+        .bind("isbn", isbn)
+        .map(ReactiveBookRepositoryImpl::toBook)
+        .one();
+  }
+
+  private static Book toBook(Readable row) {
+    Book book = new Book();
+    book.setIsbn(row.get("isbn", String.class));
+    book.setTitle(row.get("title", String.class));
+    book.setPrice(row.get("price", Integer.class));
+    book.setStock(row.get("stock", Integer.class));
+    book.setCreatedAt(row.get("created_at", LocalDateTime.class));
+    book.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+    return book;
+  }
+}
@@ -3,9 +3,13 @@ package com.example.demo.infrastructure.repository.customer;
 import com.example.demo.domain.model.customer.Customer;
 import com.example.demo.domain.repository.customer.CustomerRepository;
 import com.example.demo.infrastructure.mapper.customer.CustomerMapper;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
@@ -13,11 +17,23 @@ import org.springframework.stereotype.Repository;
 @RequiredArgsConstructor
 public class CustomerRepositoryImpl implements CustomerRepository {
 
+  private static final int SAVE_CHUNK_SIZE = 1000;
+
   private final CustomerMapper customerMapper;
 
   @Override
-  public List<Customer> findAll() {
-    return customerMapper.findAll();
+  public List<Customer> findPage(UUID afterId, int limit) {
+    return customerMapper.findPage(afterId, limit);
+  }
+
+  @Override
+  public String findPageVersion(UUID afterId, int limit) {
+    return customerMapper.findPageVersion(afterId, limit);
+  }
+
+  @Override
+  public Optional<LocalDateTime> findUpdatedAtById(UUID id) {
+    return customerMapper.findUpdatedAtById(id);
   }
 
   @Override
@@ -25,11 +41,30 @@ public class CustomerRepositoryImpl implements CustomerRepository {
     return customerMapper.findById(id);
   }
 
+  @Override
+  public Map<String, UUID> findIdsByNormalizedEmails(Collection<String> normalizedEmails) {
+    if (normalizedEmails.isEmpty()) {
+      return Map.of();
+    }
+    // 大文字・小文字違いで重複登録された既存データがある場合は、先に見つかった顧客を使う
+    return customerMapper.findByLowerEmails(normalizedEmails).stream()
+        .collect(Collectors.toMap(Customer::getEmail, Customer::getId, (first, second) -> first));
+  }
+
   @Override
   public void save(Customer customer) {
     customerMapper.save(customer);
   }
 
+  @Override
+  public void saveAll(List<Customer> customers) {
+    // 1文あたりのバインド変数の上限を超えないよう、一定件数ごとに複数行INSERTを発行する
+    for (int from = 0; from < customers.size(); from += SAVE_CHUNK_SIZE) {
+      int to = Math.min(from + SAVE_CHUNK_SIZE, customers.size());
+      customerMapper.saveAll(customers.subList(from, to));
+    }
+  }
+
   @Override
   public void deleteById(UUID id) {
     customerMapper.deleteById(id);
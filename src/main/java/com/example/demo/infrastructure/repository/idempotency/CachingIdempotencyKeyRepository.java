@@ -0,0 +1,84 @@
+package com.example.demo.infrastructure.repository.idempotency;
+
+import com.example.demo.domain.model.idempotency.IdempotencyKey;
+import com.example.demo.domain.repository.idempotency.IdempotencyKeyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// 処理済みの冪等キーを保持する IdempotencyKeyRepository。処理済みのキーは期限まで変更されないため、破棄の通知は不要
+@Repository
+@Primary
+@ConditionalOnProperty(
+    name = "app.cache.idempotency.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class CachingIdempotencyKeyRepository implements IdempotencyKeyRepository {
+
+  private final IdempotencyKeyRepository delegate;
+  private final Cache<String, IdempotencyKey> cache;
+
+  public CachingIdempotencyKeyRepository(
+      IdempotencyKeyRepositoryImpl delegate,
+      MeterRegistry meterRegistry,
+      @Value("${app.cache.idempotency.maximum-size:10000}") long maximumSize,
+      @Value("${app.idempotency.ttl:24h}") Duration ttl) {
+    this.delegate = delegate;
+    this.cache =
+        Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).recordStats().build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "idempotency");
+  }
+
+  @Override
+  public Optional<IdempotencyKey> findById(String id) {
+    IdempotencyKey cached = cache.getIfPresent(id);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+    Optional<IdempotencyKey> key = delegate.findById(id);
+    // 処理中のキーはロールバックされる可能性があるため、処理済みのキーのみキャッシュする
+    key.filter(IdempotencyKey::isCompleted)
+        .filter(k -> !k.isExpired(LocalDateTime.now()))
+        .ifPresent(k -> cache.put(id, k));
+    return key;
+  }
+
+  @Override
+  public boolean claim(IdempotencyKey key) {
+    return delegate.claim(key);
+  }
+
+  @Override
+  public void complete(IdempotencyKey key) {
+    delegate.complete(key);
+
+    // ロールバックされたキーを返さないよう、コミット後にキャッシュする
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              cache.put(key.getId(), key);
+            }
+          });
+    } else {
+      cache.put(key.getId(), key);
+    }
+  }
+
+  @Override
+  public int deleteExpired(LocalDateTime now) {
+    cache.cleanUp();
+    return delegate.deleteExpired(now);
+  }
+}
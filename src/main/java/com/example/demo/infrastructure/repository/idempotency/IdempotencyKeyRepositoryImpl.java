@@ -0,0 +1,36 @@
+package com.example.demo.infrastructure.repository.idempotency;
+
+import com.example.demo.domain.model.idempotency.IdempotencyKey;
+import com.example.demo.domain.repository.idempotency.IdempotencyKeyRepository;
+import com.example.demo.infrastructure.mapper.idempotency.IdempotencyKeyMapper;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyKeyRepositoryImpl implements IdempotencyKeyRepository {
+
+  private final IdempotencyKeyMapper idempotencyKeyMapper;
+
+  @Override
+  public Optional<IdempotencyKey> findById(String id) {
+    return idempotencyKeyMapper.findById(id);
+  }
+
+  @Override
+  public boolean claim(IdempotencyKey key) {
+    return idempotencyKeyMapper.claim(key) > 0;
+  }
+
+  @Override
+  public void complete(IdempotencyKey key) {
+    idempotencyKeyMapper.complete(key);
+  }
+
+  @Override
+  public int deleteExpired(LocalDateTime now) {
+    return idempotencyKeyMapper.deleteExpired(now);
+  }
+}
@@ -12,6 +12,8 @@ import org.springframework.stereotype.Repository;
 @RequiredArgsConstructor
 public class OrderItemRepositoryImpl implements OrderItemRepository {
 
+  private static final int INSERT_CHUNK_SIZE = 1000;
+
   private final OrderItemMapper orderItemMapper;
 
   @Override
@@ -24,6 +26,15 @@ public class OrderItemRepositoryImpl implements OrderItemRepository {
     orderItemMapper.save(orderItem);
   }
 
+  @Override
+  public void saveAll(List<OrderItem> orderItems) {
+    // 1文あたりのバインド変数の上限を超えないよう、一定件数ごとに複数行INSERTを発行する
+    for (int from = 0; from < orderItems.size(); from += INSERT_CHUNK_SIZE) {
+      int to = Math.min(from + INSERT_CHUNK_SIZE, orderItems.size());
+      orderItemMapper.saveAll(orderItems.subList(from, to));
+    }
+  }
+
   @Override
   public void deleteByOrderId(UUID orderId) {
     orderItemMapper.deleteByOrderId(orderId);
@@ -1,28 +1,75 @@
 package com.example.demo.infrastructure.repository.order;
 
 import com.example.demo.domain.model.order.Order;
+import com.example.demo.domain.model.order.OrderItem;
 import com.example.demo.domain.repository.order.OrderRepository;
+import com.example.demo.infrastructure.mapper.order.OrderItemMapper;
 import com.example.demo.infrastructure.mapper.order.OrderMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.stereotype.Repository;
 
 @Repository
 @RequiredArgsConstructor
 public class OrderRepositoryImpl implements OrderRepository {
+  private static final int STREAM_CHUNK_SIZE = 500;
 
   private final OrderMapper orderMapper;
+  private final OrderItemMapper orderItemMapper;
 
   @Override
-  public List<Order> findAll() {
-    return orderMapper.findAll();
+  public List<Order> findPage(UUID afterId, int limit) {
+    List<Order> orders = orderMapper.findPage(afterId, limit);
+    if (orders.isEmpty()) {
+      return orders;
+    }
+    List<UUID> orderIds = orders.stream().map(Order::getId).collect(Collectors.toList());
+    attachOrderItems(orders, orderItemMapper.findByOrderIds(orderIds));
+    return orders;
+  }
+
+  @Override
+  public String findPageVersion(UUID afterId, int limit) {
+    return orderMapper.findPageVersion(afterId, limit);
+  }
+
+  @Override
+  public Optional<LocalDateTime> findUpdatedAtById(UUID id) {
+    return orderMapper.findUpdatedAtById(id);
+  }
+
+  @Override
+  public void forEach(Consumer<Order> action) {
+    // 注文はカーソルで逐次読み込み、注文アイテムは一定件数ごとにまとめて取得する
+    try (Cursor<Order> cursor = orderMapper.streamAll()) {
+      List<Order> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+      for (Order order : cursor) {
+        chunk.add(order);
+        if (chunk.size() == STREAM_CHUNK_SIZE) {
+          flushChunk(chunk, action);
+        }
+      }
+      flushChunk(chunk, action);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
   }
 
   @Override
   public Optional<Order> findById(UUID id) {
-    return orderMapper.findById(id);
+    Optional<Order> order = orderMapper.findById(id);
+    order.ifPresent(o -> o.setOrderItems(orderItemMapper.findByOrderId(o.getId())));
+    return order;
   }
 
   @Override
@@ -30,6 +77,30 @@ public class OrderRepositoryImpl implements OrderRepository {
     orderMapper.insert(order);
   }
 
+  @Override
+  public void enqueue(UUID orderId) {
+    orderMapper.enqueue(orderId);
+  }
+
+  @Override
+  public List<Order> findQueuedForUpdate(int limit) {
+    List<Order> orders = orderMapper.findQueuedForUpdate(limit);
+    if (orders.isEmpty()) {
+      return orders;
+    }
+    List<UUID> orderIds = orders.stream().map(Order::getId).collect(Collectors.toList());
+    attachOrderItems(orders, orderItemMapper.findByOrderIds(orderIds));
+    return orders;
+  }
+
+  @Override
+  public void dequeue(List<UUID> orderIds) {
+    if (orderIds.isEmpty()) {
+      return;
+    }
+    orderMapper.dequeue(orderIds);
+  }
+
   @Override
   public void update(Order order) {
     orderMapper.update(order);
@@ -39,4 +110,22 @@ public class OrderRepositoryImpl implements OrderRepository {
   public void deleteById(UUID id) {
     orderMapper.deleteById(id);
   }
+
+  private void flushChunk(List<Order> chunk, Consumer<Order> action) {
+    if (chunk.isEmpty()) {
+      return;
+    }
+    List<UUID> orderIds = chunk.stream().map(Order::getId).collect(Collectors.toList());
+    attachOrderItems(chunk, orderItemMapper.findByOrderIds(orderIds));
+    chunk.forEach(action);
+    chunk.clear();
+  }
+
+  private void attachOrderItems(List<Order> orders, List<OrderItem> orderItems) {
+    Map<UUID, List<OrderItem>> itemsByOrderId =
+        orderItems.stream().collect(Collectors.groupingBy(OrderItem::getOrderId));
+    orders.forEach(
+        order ->
+            order.setOrderItems(itemsByOrderId.getOrDefault(order.getId(), new ArrayList<>())));
+  }
 }
@@ -0,0 +1,74 @@
+package com.example.demo.infrastructure.repository.order;
+
+import com.example.demo.domain.model.order.Order;
+import com.example.demo.domain.model.order.OrderItem;
+import com.example.demo.domain.repository.order.ReactiveOrderRepository;
+import com.example.demo.infrastructure.reactive.ReactiveDatabase;
+import io.r2dbc.spi.Readable;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReactiveOrderRepositoryImpl implements ReactiveOrderRepository {
+
+  private final ReactiveDatabase reactiveDatabase;
+
+  @Override
+  public Mono<Order> findById(UUID id) {
+    // 注文と注文アイテムをそれぞれ1回のクエリで取得する
+    Mono<Order> order =
+        reactiveDatabase
+            .client()
+            .sql(
+                "SELECT id, customer_id, order_datetime, status, rejection_reason, created_at,"
+                    + " updated_at FROM \"order\" WHERE id = :id")
+            .bind("id", id)
+            .map(ReactiveOrderRepositoryImpl::toOrder)
+            .one();
+    Mono<List<OrderItem>> items =
+        reactiveDatabase
+            .client()
+            .sql(
+                "SELECT id, order_id, book_isbn, quantity, created_at, updated_at FROM order_item"
+                    + " WHERE order_id = :orderId ORDER BY id")
+            .bind("orderId", id)
+            .map(ReactiveOrderRepositoryImpl::toOrderItem)
+            .all()
+            .collectList();
+    return order.zipWith(
+        items,
+        (o, orderItems) -> {
+          o.setOrderItems(orderItems);
+          return o;
+        });
+  }
+
+  private static Order toOrder(Readable row) {
+    Order order = new Order();
+    order.setId(row.get("id", UUID.class));
+    order.setCustomerId(row.get("customer_id", UUID.class));
+    order.setOrderDatetime(row.get("order_datetime", LocalDateTime.class));
+    order.setStatus(row.get("status", String.class));
+    order.setRejectionReason(row.get("rejection_reason", String.class));
+    order.setCreatedAt(row.get("created_at", LocalDateTime.class));
+    order.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+    return order;
+  }
+
+  private static OrderItem toOrderItem(Readable row) {
+    return new OrderItem(
+        row.get("id", Long.class),
+        row.get("order_id", UUID.class),
+        row.get("book_isbn", String.class),
+        row.get("quantity", Integer.class),
+        row.get("created_at", LocalDateTime.class),
+        row.get("updated_at", LocalDateTime.class));
+  }
+}
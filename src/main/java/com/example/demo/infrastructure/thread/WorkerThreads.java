@@ -0,0 +1,37 @@
+package com.example.demo.infrastructure.thread;
+
+import java.util.concurrent.ThreadFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// アプリケーション内部のバックグラウンドスレッドを生成する。
+// spring.threads.virtual.enabled=true の場合は Tomcat やスケジューラと同じく仮想スレッドを使う
+@Component
+public class WorkerThreads {
+
+  private final boolean virtual;
+
+  public WorkerThreads(@Value("${spring.threads.virtual.enabled:false}") boolean virtual) {
+    this.virtual = virtual;
+  }
+
+  public boolean isVirtual() {
+    return virtual;
+  }
+
+  // 名前を付けたスレッドを起動する。プラットフォームスレッドの場合もデーモンスレッドとし、終了を妨げない
+  public Thread start(String name, Runnable task) {
+    if (virtual) {
+      return Thread.ofVirtual().name(name).start(task);
+    }
+    return Thread.ofPlatform().name(name).daemon(true).start(task);
+  }
+
+  // 「接頭辞-連番」の名前でスレッドを生成するファクトリを返す
+  public ThreadFactory factory(String namePrefix) {
+    if (virtual) {
+      return Thread.ofVirtual().name(namePrefix + "-", 1).factory();
+    }
+    return Thread.ofPlatform().name(namePrefix + "-", 1).daemon(true).factory();
+  }
+}
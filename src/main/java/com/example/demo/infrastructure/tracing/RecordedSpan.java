@@ -0,0 +1,43 @@
+package com.example.demo.infrastructure.tracing;
+
+import io.opentelemetry.sdk.trace.data.SpanData;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 保存・参照用のスパン。OpenTelemetry の SpanData から必要な項目だけを取り出したもの
+public record RecordedSpan(
+    String traceId,
+    String spanId,
+    String parentSpanId,
+    String name,
+    String kind,
+    Instant start,
+    long durationMicros,
+    String status,
+    Map<String, String> attributes) {
+
+  static RecordedSpan from(SpanData span) {
+    Map<String, String> attributes = new LinkedHashMap<>();
+    span.getAttributes()
+        .forEach((key, value) -> attributes.put(key.getKey(), String.valueOf(value)));
+    return new RecordedSpan(
+        span.getTraceId(),
+        span.getSpanId(),
+        // 呼び出し元のサービスから引き継いだ親（リモート）はこのアプリのトレースのルートとして扱う
+        span.getParentSpanContext().isValid() && !span.getParentSpanContext().isRemote()
+            ? span.getParentSpanId()
+            : null,
+        span.getName(),
+        span.getKind().name(),
+        Instant.ofEpochSecond(0, span.getStartEpochNanos()),
+        TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()),
+        span.getStatus().getStatusCode().name(),
+        attributes);
+  }
+
+  boolean isRoot() {
+    return parentSpanId == null;
+  }
+}
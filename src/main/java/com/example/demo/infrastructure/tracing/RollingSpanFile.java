@@ -0,0 +1,122 @@
+package com.example.demo.infrastructure.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+// 保持すると決めたトレースのスパンを1行1件の JSON でファイルに追記する。
+// 上限サイズを超えたら spans.ndjson.1, spans.ndjson.2 ... に順にずらし、max-files を超えた古いファイルは削除する
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.tracing.file.enabled", havingValue = "true")
+public class RollingSpanFile implements DisposableBean {
+
+  private final Path path;
+  private final long maxSize;
+  private final int maxFiles;
+  private final ObjectMapper objectMapper;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private BufferedWriter writer;
+  private long size;
+
+  public RollingSpanFile(
+      @Value("${app.tracing.file.path:logs/spans.ndjson}") Path path,
+      @Value("${app.tracing.file.max-size:10MB}") DataSize maxSize,
+      @Value("${app.tracing.file.max-files:5}") int maxFiles,
+      ObjectMapper objectMapper) {
+    this.path = path;
+    this.maxSize = maxSize.toBytes();
+    this.maxFiles = maxFiles;
+    this.objectMapper = objectMapper;
+  }
+
+  void write(List<RecordedSpan> trace) {
+    lock.lock();
+    try {
+      if (writer == null) {
+        open();
+      }
+      for (RecordedSpan span : trace) {
+        byte[] line = objectMapper.writeValueAsBytes(span);
+        writer.write(new String(line, StandardCharsets.UTF_8));
+        writer.newLine();
+        size += line.length + 1;
+      }
+      writer.flush();
+      if (size >= maxSize) {
+        roll();
+      }
+    } catch (IOException e) {
+      // ファイルに書けなくてもリクエストの処理やメモリ上のスパンには影響させない
+      log.warn("スパンをファイルに書き出せませんでした: {}", path, e);
+      closeQuietly();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void destroy() {
+    lock.lock();
+    try {
+      closeQuietly();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void open() throws IOException {
+    Path parent = path.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    writer =
+        Files.newBufferedWriter(
+            path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    size = Files.size(path);
+  }
+
+  private void roll() throws IOException {
+    writer.close();
+    writer = null;
+    Files.deleteIfExists(rolled(maxFiles));
+    for (int i = maxFiles - 1; i >= 1; i--) {
+      if (Files.exists(rolled(i))) {
+        Files.move(rolled(i), rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+      }
+    }
+    Files.move(path, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  private Path rolled(int index) {
+    return path.resolveSibling(path.getFileName() + "." + index);
+  }
+
+  private void closeQuietly() {
+    if (writer == null) {
+      return;
+    }
+    try {
+      writer.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      writer = null;
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package com.example.demo.infrastructure.tracing;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// application.service の @Service の public メソッドごとにスパンを作る。
+// HTTPリクエストなど既にトレースが始まっている場合のみ子スパンとして記録し、
+// バックグラウンドのポーリングなどで単独のトレースが大量にできないようにする
+@Aspect
+@Component
+@ConditionalOnProperty(
+    name = "app.tracing.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class ServiceTracingAspect {
+
+  private final Tracer tracer;
+
+  public ServiceTracingAspect(Tracer tracer) {
+    this.tracer = tracer;
+  }
+
+  @Around(
+      "within(com.example.demo.application.service..*)"
+          + " && @within(org.springframework.stereotype.Service)"
+          + " && execution(public * *(..))")
+  public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+    if (tracer.currentSpan() == null) {
+      return joinPoint.proceed();
+    }
+    String type = joinPoint.getSignature().getDeclaringType().getSimpleName();
+    String method = joinPoint.getSignature().getName();
+    Span span =
+        tracer
+            .nextSpan()
+            .name(type + "." + method)
+            .tag("code.namespace", joinPoint.getSignature().getDeclaringTypeName())
+            .tag("code.function", method)
+            .start();
+    try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+      return joinPoint.proceed();
+    } catch (Throwable e) {
+      span.error(e);
+      throw e;
+    } finally {
+      span.end();
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.example.demo.infrastructure.tracing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// 保持すると決めたトレースのスパンを、件数の上限付きで新しい順に保持する。上限を超えると古いスパンから捨てる
+@Component
+@ConditionalOnProperty(
+    name = "app.tracing.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class SpanRingBuffer {
+
+  private final int capacity;
+  private final ArrayDeque<RecordedSpan> spans;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  public SpanRingBuffer(@Value("${app.tracing.buffer-size:10000}") int capacity) {
+    this.capacity = capacity;
+    this.spans = new ArrayDeque<>(capacity);
+  }
+
+  void addAll(List<RecordedSpan> trace) {
+    lock.lock();
+    try {
+      for (RecordedSpan span : trace) {
+        if (spans.size() == capacity) {
+          spans.pollFirst();
+        }
+        spans.addLast(span);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // 処理時間が minDurationMicros 以上のトレースの概要を、新しい順に最大 limit 件返す
+  public List<TraceSummary> traces(long minDurationMicros, int limit) {
+    Map<String, List<RecordedSpan>> byTrace = snapshotByTrace();
+    List<TraceSummary> summaries = new ArrayList<>();
+    byTrace.forEach(
+        (traceId, traceSpans) -> {
+          TraceSummary summary = TraceSummary.of(traceId, traceSpans);
+          if (summary.durationMicros() >= minDurationMicros) {
+            summaries.add(summary);
+          }
+        });
+    summaries.sort(Comparator.comparing(TraceSummary::start).reversed());
+    return summaries.size() > limit ? summaries.subList(0, limit) : summaries;
+  }
+
+  public List<RecordedSpan> trace(String traceId) {
+    return snapshotByTrace().getOrDefault(traceId, List.of());
+  }
+
+  private Map<String, List<RecordedSpan>> snapshotByTrace() {
+    Map<String, List<RecordedSpan>> byTrace = new LinkedHashMap<>();
+    lock.lock();
+    try {
+      for (RecordedSpan span : spans) {
+        byTrace.computeIfAbsent(span.traceId(), key -> new ArrayList<>()).add(span);
+      }
+    } finally {
+      lock.unlock();
+    }
+    return byTrace;
+  }
+}
@@ -0,0 +1,124 @@
+package com.example.demo.infrastructure.tracing;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// トレースが終わってから（ルートのスパンが終了した時点で）保持するかを決める SpanExporter。
+// トレースIDから決まる割合（sample-rate）で保持するほか、ルートが slow-threshold 以上かかったトレースと
+// エラーになったトレースは割合に関係なくすべてのスパンを保持する。
+// 判定のために SDK 側では全スパンを記録する（management.tracing.sampling.probability=1.0）。
+// 保持したトレースはメモリ上のリングバッファと、有効ならローカルのファイルに出力する（外部のコレクターは不要）
+@Component
+@ConditionalOnProperty(
+    name = "app.tracing.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class TailSamplingSpanExporter implements SpanExporter {
+
+  // ルートの終了を待っているトレースと、判定済みのトレースの保持数の上限
+  private static final int MAX_TRACKED_TRACES = 10_000;
+
+  private final SpanRingBuffer ringBuffer;
+  private final RollingSpanFile file;
+  private final long sampleThreshold;
+  private final long slowThresholdMicros;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final Map<String, List<RecordedSpan>> pending = lruMap();
+  private final Map<String, Boolean> decided = lruMap();
+
+  public TailSamplingSpanExporter(
+      SpanRingBuffer ringBuffer,
+      ObjectProvider<RollingSpanFile> file,
+      @Value("${app.tracing.sample-rate:0.1}") double sampleRate,
+      @Value("${app.tracing.slow-threshold:500ms}") Duration slowThreshold) {
+    this.ringBuffer = ringBuffer;
+    this.file = file.getIfAvailable();
+    this.sampleThreshold = (long) (Math.min(Math.max(sampleRate, 0), 1) * Long.MAX_VALUE);
+    this.slowThresholdMicros = TimeUnit.NANOSECONDS.toMicros(slowThreshold.toNanos());
+  }
+
+  @Override
+  public CompletableResultCode export(Collection<SpanData> spans) {
+    List<List<RecordedSpan>> kept = new ArrayList<>();
+    lock.lock();
+    try {
+      for (SpanData spanData : spans) {
+        RecordedSpan span = RecordedSpan.from(spanData);
+        Boolean keep = decided.get(span.traceId());
+        if (keep != null) {
+          // ルートより後に終了したスパン（非同期の処理など）は判定に従う
+          if (keep) {
+            kept.add(List.of(span));
+          }
+          continue;
+        }
+        List<RecordedSpan> trace =
+            pending.computeIfAbsent(span.traceId(), key -> new ArrayList<>());
+        trace.add(span);
+        if (span.isRoot()) {
+          pending.remove(span.traceId());
+          boolean keepTrace = shouldKeep(span);
+          decided.put(span.traceId(), keepTrace);
+          if (keepTrace) {
+            kept.add(trace);
+          }
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    for (List<RecordedSpan> trace : kept) {
+      ringBuffer.addAll(trace);
+      if (file != null) {
+        file.write(trace);
+      }
+    }
+    return CompletableResultCode.ofSuccess();
+  }
+
+  @Override
+  public CompletableResultCode flush() {
+    return CompletableResultCode.ofSuccess();
+  }
+
+  @Override
+  public CompletableResultCode shutdown() {
+    return CompletableResultCode.ofSuccess();
+  }
+
+  boolean shouldKeep(RecordedSpan root) {
+    return root.durationMicros() >= slowThresholdMicros
+        || "ERROR".equals(root.status())
+        || sampledByTraceId(root.traceId());
+  }
+
+  // トレースIDの下位64ビットで決める（OpenTelemetry の TraceIdRatioBased と同じ考え方）。
+  // 同じトレースIDなら常に同じ結果になる
+  private boolean sampledByTraceId(String traceId) {
+    long lowerBits = Long.parseUnsignedLong(traceId.substring(traceId.length() - 16), 16);
+    return Math.abs(lowerBits == Long.MIN_VALUE ? 0 : lowerBits) < sampleThreshold;
+  }
+
+  private static <V> Map<String, V> lruMap() {
+    return new LinkedHashMap<>(16, 0.75f, false) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+        return size() > MAX_TRACKED_TRACES;
+      }
+    };
+  }
+}
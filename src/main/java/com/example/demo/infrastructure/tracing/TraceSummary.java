@@ -0,0 +1,21 @@
+package com.example.demo.infrastructure.tracing;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+// トレースの一覧用の概要。ルートのスパン（捨てられている場合は最初に始まったスパン）で代表する
+public record TraceSummary(
+    String traceId, String name, Instant start, long durationMicros, String status, int spans) {
+
+  static TraceSummary of(String traceId, List<RecordedSpan> spans) {
+    RecordedSpan root =
+        spans.stream()
+            .filter(RecordedSpan::isRoot)
+            .findFirst()
+            .orElseGet(
+                () -> spans.stream().min(Comparator.comparing(RecordedSpan::start)).orElseThrow());
+    return new TraceSummary(
+        traceId, root.name(), root.start(), root.durationMicros(), root.status(), spans.size());
+  }
+}
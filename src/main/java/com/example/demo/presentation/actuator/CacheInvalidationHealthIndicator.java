@@ -0,0 +1,30 @@
+package com.example.demo.presentation.actuator;
+
+import com.example.demo.infrastructure.cache.CacheInvalidationBus;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+// キャッシュ破棄通知を購読できているかを /actuator/health に含める。
+// 購読できていない間は他インスタンスの更新を受け取れず、古いキャッシュを返すおそれがあるため DOWN とする
+@Component
+public class CacheInvalidationHealthIndicator implements HealthIndicator {
+
+  private final CacheInvalidationBus cacheInvalidationBus;
+
+  public CacheInvalidationHealthIndicator(CacheInvalidationBus cacheInvalidationBus) {
+    this.cacheInvalidationBus = cacheInvalidationBus;
+  }
+
+  @Override
+  public Health health() {
+    if (!cacheInvalidationBus.isEnabled()) {
+      return Health.up().withDetail("enabled", false).build();
+    }
+    boolean listening = cacheInvalidationBus.isListening();
+    return (listening ? Health.up() : Health.down())
+        .withDetail("enabled", true)
+        .withDetail("listening", listening)
+        .build();
+  }
+}
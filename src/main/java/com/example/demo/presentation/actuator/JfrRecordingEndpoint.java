@@ -0,0 +1,191 @@
+package com.example.demo.presentation.actuator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+// 必要なときだけ JFR の記録を開始・停止し、.jfr ファイルをダウンロードする actuator エンドポイント。
+//   POST   /actuator/jfr {"settings": "profile", "duration": "PT2M"}  記録を開始する
+//   GET    /actuator/jfr                                             状態を返す
+//   DELETE /actuator/jfr                                             記録を停止し、ファイルに書き出す
+//   GET    /actuator/jfr/{file}                                      書き出したファイルをダウンロードする
+// 注文の作成・キャンセルの段階ごとの処理時間は com.example.demo.* のイベントとして記録される
+// 認証なしで公開されるため、Web への公開は ops プロファイルでのみ行う（application-ops.properties）
+@Component
+@Endpoint(id = "jfr")
+public class JfrRecordingEndpoint implements DisposableBean {
+
+  private static final List<String> EVENTS =
+      List.of(
+          "com.example.demo.OrderOperation",
+          "com.example.demo.OrderStage",
+          "com.example.demo.StockChange");
+  private static final DateTimeFormatter FILE_TIMESTAMP =
+      DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+  private final Path directory;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private Recording recording;
+  private Path file;
+
+  public JfrRecordingEndpoint(
+      @Value("${app.jfr.directory:${java.io.tmpdir}}") Path directory) {
+    this.directory = directory;
+  }
+
+  @ReadOperation
+  public Map<String, Object> status() {
+    lock.lock();
+    try {
+      return statusLocked();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // settings は JDK 付属の設定（default: 低負荷, profile: 詳細）。duration を指定するとその時間で自動的に停止する
+  @WriteOperation
+  public WebEndpointResponse<Map<String, Object>> start(
+      @Nullable String settings, @Nullable Duration duration) {
+    lock.lock();
+    try {
+      if (recording != null && recording.getState() == RecordingState.RUNNING) {
+        return new WebEndpointResponse<>(
+            error("記録中です。停止してから開始してください"), WebEndpointResponse.STATUS_BAD_REQUEST);
+      }
+      Configuration configuration;
+      try {
+        configuration = Configuration.getConfiguration(settings == null ? "default" : settings);
+      } catch (IOException | ParseException e) {
+        return new WebEndpointResponse<>(
+            error("JFR の設定を読み込めません: " + settings), WebEndpointResponse.STATUS_BAD_REQUEST);
+      }
+      closeRecording();
+      recording = new Recording(configuration);
+      recording.setName("demo-" + FILE_TIMESTAMP.format(LocalDateTime.now()));
+      recording.setToDisk(true);
+      // 独自イベントは設定ファイルに含まれないため明示的に有効にする
+      EVENTS.forEach(recording::enable);
+      if (duration != null) {
+        recording.setDuration(duration);
+      }
+      recording.start();
+      return new WebEndpointResponse<>(statusLocked());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @DeleteOperation
+  public WebEndpointResponse<Map<String, Object>> stop() {
+    lock.lock();
+    try {
+      if (recording == null) {
+        return new WebEndpointResponse<>(
+            error("記録が開始されていません"), WebEndpointResponse.STATUS_NOT_FOUND);
+      }
+      if (recording.getState() == RecordingState.RUNNING) {
+        recording.stop();
+      }
+      Path output = directory.resolve(recording.getName() + ".jfr");
+      recording.dump(output);
+      deleteFile();
+      file = output;
+      closeRecording();
+      return new WebEndpointResponse<>(statusLocked());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @ReadOperation(produces = "application/octet-stream")
+  public WebEndpointResponse<Resource> download(@Selector String name) {
+    lock.lock();
+    try {
+      if (file == null || !file.getFileName().toString().equals(name)) {
+        return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+      }
+      return new WebEndpointResponse<>(new FileSystemResource(file));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void destroy() {
+    lock.lock();
+    try {
+      closeRecording();
+      deleteFile();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Map<String, Object> statusLocked() {
+    Map<String, Object> status = new LinkedHashMap<>();
+    if (recording != null) {
+      status.put("name", recording.getName());
+      status.put("state", recording.getState().name());
+      status.put("startTime", recording.getStartTime());
+      status.put("duration", recording.getDuration());
+      status.put("size", recording.getSize());
+    } else {
+      status.put("state", "NONE");
+    }
+    if (file != null) {
+      status.put("file", file.getFileName().toString());
+    }
+    return status;
+  }
+
+  private void closeRecording() {
+    if (recording != null) {
+      recording.close();
+      recording = null;
+    }
+  }
+
+  private void deleteFile() {
+    if (file == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    file = null;
+  }
+
+  private static Map<String, Object> error(String message) {
+    return Map.of("error", message);
+  }
+}
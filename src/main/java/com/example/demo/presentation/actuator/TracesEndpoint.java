@@ -0,0 +1,49 @@
+package com.example.demo.presentation.actuator;
+
+import com.example.demo.infrastructure.tracing.RecordedSpan;
+import com.example.demo.infrastructure.tracing.SpanRingBuffer;
+import com.example.demo.infrastructure.tracing.TraceSummary;
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+// メモリ上に保持しているトレースを参照する actuator エンドポイント。
+//   GET /actuator/traces?minDurationMs=200&limit=20  トレースの一覧（新しい順）
+//   GET /actuator/traces/{traceId}                    トレースのスパン
+// 認証なしで公開されるため、Web への公開は ops プロファイルでのみ行う（application-ops.properties）
+@Component
+@Endpoint(id = "traces")
+@ConditionalOnProperty(
+    name = "app.tracing.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class TracesEndpoint {
+
+  private static final int DEFAULT_LIMIT = 100;
+
+  private final SpanRingBuffer spanRingBuffer;
+
+  public TracesEndpoint(SpanRingBuffer spanRingBuffer) {
+    this.spanRingBuffer = spanRingBuffer;
+  }
+
+  @ReadOperation
+  public List<TraceSummary> traces(@Nullable Long minDurationMs, @Nullable Integer limit) {
+    long minDurationMicros = minDurationMs == null ? 0 : minDurationMs * 1000;
+    return spanRingBuffer.traces(minDurationMicros, limit == null ? DEFAULT_LIMIT : limit);
+  }
+
+  @ReadOperation
+  public WebEndpointResponse<List<RecordedSpan>> trace(@Selector String traceId) {
+    List<RecordedSpan> spans = spanRingBuffer.trace(traceId);
+    if (spans.isEmpty()) {
+      return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+    return new WebEndpointResponse<>(spans);
+  }
+}
@@ -1,14 +1,23 @@
 package com.example.demo.presentation.controller.book;
 
 import com.example.demo.application.dto.book.BookDto;
+import com.example.demo.application.dto.book.BookImportResultDto;
+import com.example.demo.application.service.book.BookImportService;
 import com.example.demo.application.service.book.BookService;
+import com.example.demo.application.service.imports.ImportFormat;
 import com.example.demo.presentation.request.book.CreateBookRequest;
 import com.example.demo.presentation.request.book.UpdateBookRequest;
+import com.example.demo.presentation.request.imports.ImportRequests;
+import com.example.demo.presentation.response.EntityTags;
+import com.example.demo.presentation.response.PageResponses;
 import jakarta.validation.Valid;
+import java.io.InputStream;
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,8 +25,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @RestController
@@ -26,14 +38,28 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 public class BookController {
 
   private final BookService bookService;
+  private final BookImportService bookImportService;
 
   @GetMapping
-  public ResponseEntity<List<BookDto>> getAllBooks() {
-    return ResponseEntity.ok(bookService.findAllBooks());
+  public ResponseEntity<List<BookDto>> getAllBooks(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit,
+      WebRequest webRequest) {
+    // 変更がなければ一覧を読み込まずに304を返す
+    String etag = EntityTags.ofVersion(bookService.findBookPageVersion(cursor, limit));
+    if (webRequest.checkNotModified(etag)) {
+      return null;
+    }
+    return PageResponses.ok(bookService.findBookPage(cursor, limit));
   }
 
   @GetMapping("/{isbn}")
-  public ResponseEntity<BookDto> getBookByIsbn(@PathVariable String isbn) {
+  public ResponseEntity<BookDto> getBookByIsbn(@PathVariable String isbn, WebRequest webRequest) {
+    LocalDateTime lastModified = bookService.findBookLastModified(isbn);
+    if (webRequest.checkNotModified(
+        EntityTags.of(lastModified), EntityTags.lastModified(lastModified))) {
+      return null;
+    }
     return ResponseEntity.ok(bookService.findBookById(isbn));
   }
 
@@ -48,6 +74,17 @@ public class BookController {
     return ResponseEntity.created(location).body(createdBook);
   }
 
+  // 出版社のカタログファイルを一括で取り込む。本文は逐次読み込むため、件数に関係なく一定のメモリで処理する
+  @PostMapping(
+      value = "/import",
+      consumes = {ImportFormat.CSV_MEDIA_TYPE, ImportFormat.NDJSON_MEDIA_TYPE})
+  public ResponseEntity<BookImportResultDto> importBooks(
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body) {
+    return ResponseEntity.ok(
+        bookImportService.importBooks(
+            ImportRequests.reader(contentType, body), ImportRequests.format(contentType)));
+  }
+
   @PutMapping("/{isbn}")
   public ResponseEntity<BookDto> updateBook(
       @PathVariable String isbn, @RequestBody @Valid UpdateBookRequest request) {
@@ -55,11 +92,8 @@ public class BookController {
   }
 
   @DeleteMapping("/{isbn}")
-  public ResponseEntity<?> deleteBook(@PathVariable String isbn) {
-    BookDto book = bookService.findBookById(isbn);
-    if (book.getStock() > 0) {
-      return ResponseEntity.badRequest().body(Map.of("error", "在庫のある書籍は削除できません"));
-    }
+  public ResponseEntity<Void> deleteBook(@PathVariable String isbn) {
+    // 存在と在庫の確認は BookService で行う（書籍を二重に読み込まない）
     bookService.deleteBook(isbn);
     return ResponseEntity.noContent().build();
   }
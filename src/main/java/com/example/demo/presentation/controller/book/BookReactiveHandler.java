@@ -0,0 +1,52 @@
+package com.example.demo.presentation.controller.book;
+
+import com.example.demo.application.dto.book.BookDto;
+import com.example.demo.application.service.book.ReactiveBookService;
+import com.example.demo.presentation.response.EntityTags;
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// GET /api/books と GET /api/books/{isbn} のノンブロッキング版（ReactiveServer で提供する）
+@Component
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class BookReactiveHandler {
+
+  private final ReactiveBookService reactiveBookService;
+
+  // 一覧はページに区切らず、クライアントの読み取り速度に合わせて流す（Accept が application/x-ndjson なら1行1件）
+  public Mono<ServerResponse> getAllBooks(ServerRequest request) {
+    return Mono.defer(
+        () -> {
+          Flux<BookDto> books =
+              reactiveBookService.streamBooks(
+                  request.queryParam("cursor").orElse(null),
+                  request.queryParam("limit").map(Integer::valueOf).orElse(null));
+          MediaType contentType =
+              request.headers().accept().stream()
+                      .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype)
+                  ? MediaType.APPLICATION_NDJSON
+                  : MediaType.APPLICATION_JSON;
+          return ServerResponse.ok().contentType(contentType).body(books, BookDto.class);
+        });
+  }
+
+  public Mono<ServerResponse> getBookByIsbn(ServerRequest request) {
+    return reactiveBookService
+        .findBookById(request.pathVariable("isbn"))
+        .flatMap(
+            book ->
+                request
+                    .checkNotModified(
+                        Instant.ofEpochMilli(EntityTags.lastModified(book.getUpdatedAt())),
+                        EntityTags.of(book.getUpdatedAt()))
+                    .switchIfEmpty(Mono.defer(() -> ServerResponse.ok().bodyValue(book))));
+  }
+}
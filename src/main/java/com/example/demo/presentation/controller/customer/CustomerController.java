@@ -1,14 +1,24 @@
 package com.example.demo.presentation.controller.customer;
 
 import com.example.demo.application.dto.customer.CustomerDto;
+import com.example.demo.application.dto.customer.CustomerImportResultDto;
+import com.example.demo.application.service.customer.CustomerImportService;
 import com.example.demo.application.service.customer.CustomerService;
+import com.example.demo.application.service.imports.ImportFormat;
 import com.example.demo.presentation.request.customer.CreateCustomerRequest;
 import com.example.demo.presentation.request.customer.UpdateCustomerRequest;
+import com.example.demo.presentation.request.imports.ImportRequests;
+import com.example.demo.presentation.response.EntityTags;
+import com.example.demo.presentation.response.PageResponses;
 import jakarta.validation.Valid;
+import java.io.InputStream;
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,8 +26,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @RestController
@@ -26,14 +39,28 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 public class CustomerController {
 
   private final CustomerService customerService;
+  private final CustomerImportService customerImportService;
 
   @GetMapping
-  public List<CustomerDto> getAllCustomers() {
-    return customerService.findAllCustomers();
+  public ResponseEntity<List<CustomerDto>> getAllCustomers(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit,
+      WebRequest webRequest) {
+    String etag = EntityTags.ofVersion(customerService.findCustomerPageVersion(cursor, limit));
+    if (webRequest.checkNotModified(etag)) {
+      return null;
+    }
+    return PageResponses.ok(customerService.findCustomerPage(cursor, limit));
   }
 
   @GetMapping("/{id}")
-  public ResponseEntity<CustomerDto> getCustomerById(@PathVariable UUID id) {
+  public ResponseEntity<CustomerDto> getCustomerById(
+      @PathVariable UUID id, WebRequest webRequest) {
+    LocalDateTime lastModified = customerService.findCustomerLastModified(id);
+    if (webRequest.checkNotModified(
+        EntityTags.of(lastModified), EntityTags.lastModified(lastModified))) {
+      return null;
+    }
     CustomerDto customerDto = customerService.findCustomerById(id);
     return ResponseEntity.ok(customerDto);
   }
@@ -50,6 +77,17 @@ public class CustomerController {
     return ResponseEntity.created(location).body(createdCustomer);
   }
 
+  // 提携ショップからの顧客移行用。メールアドレスが同じ顧客は更新する
+  @PostMapping(
+      value = "/import",
+      consumes = {ImportFormat.CSV_MEDIA_TYPE, ImportFormat.NDJSON_MEDIA_TYPE})
+  public ResponseEntity<CustomerImportResultDto> importCustomers(
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body) {
+    return ResponseEntity.ok(
+        customerImportService.importCustomers(
+            ImportRequests.reader(contentType, body), ImportRequests.format(contentType)));
+  }
+
   @PutMapping("/{id}")
   public ResponseEntity<CustomerDto> updateCustomer(
       @PathVariable UUID id, @Valid @RequestBody UpdateCustomerRequest request) {
@@ -1,10 +1,23 @@
 package com.example.demo.presentation.controller.order;
 
+import com.example.demo.application.dto.order.OrderCreationResultDto;
 import com.example.demo.application.dto.order.OrderDto;
+import com.example.demo.application.service.order.OrderGroupCommitWriter;
+import com.example.demo.application.service.order.OrderIdempotencyService;
+import com.example.demo.application.service.order.OrderQueueWorker;
 import com.example.demo.application.service.order.OrderService;
 import com.example.demo.presentation.request.order.CreateOrderRequest;
+import com.example.demo.presentation.response.EntityTags;
+import com.example.demo.presentation.response.PageResponses;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -15,8 +28,11 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @RestController
@@ -24,42 +40,135 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 @RequiredArgsConstructor
 public class OrderController {
 
+  private static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+  private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+  private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+  private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+  private static final String PREFER_HEADER = "Prefer";
+  private static final String PREFERENCE_APPLIED_HEADER = "Preference-Applied";
+  private static final String RESPOND_ASYNC = "respond-async";
+
   private final OrderService orderService;
+  private final OrderIdempotencyService orderIdempotencyService;
+  private final OrderGroupCommitWriter orderGroupCommitWriter;
+  private final OrderQueueWorker orderQueueWorker;
+  private final ObjectMapper objectMapper;
 
   @GetMapping
-  public List<OrderDto> getAllOrders() {
-    return orderService.findAllOrders();
+  public ResponseEntity<List<OrderDto>> getAllOrders(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit,
+      WebRequest webRequest) {
+    String etag = EntityTags.ofVersion(orderService.findOrderPageVersion(cursor, limit));
+    if (webRequest.checkNotModified(etag)) {
+      return null;
+    }
+    return PageResponses.ok(orderService.findOrderPage(cursor, limit));
+  }
+
+  @GetMapping(value = "/export", produces = NDJSON_CONTENT_TYPE)
+  public void exportOrders(HttpServletResponse response) throws IOException {
+    response.setContentType(NDJSON_CONTENT_TYPE);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    OutputStream out = response.getOutputStream();
+    orderService.exportOrders(
+        order -> {
+          try {
+            out.write(objectMapper.writeValueAsBytes(order));
+            out.write('\n');
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+    out.flush();
   }
 
   @GetMapping("/{id}")
-  public ResponseEntity<OrderDto> getOrderById(@PathVariable UUID id) {
+  public ResponseEntity<OrderDto> getOrderById(@PathVariable UUID id, WebRequest webRequest) {
+    LocalDateTime lastModified = orderService.findOrderLastModified(id);
+    if (webRequest.checkNotModified(
+        EntityTags.of(lastModified), EntityTags.lastModified(lastModified))) {
+      return null;
+    }
     OrderDto orderDto = orderService.findOrderById(id);
     return ResponseEntity.ok(orderDto);
   }
 
   @PostMapping
-  public ResponseEntity<?> createOrder(@Valid @RequestBody CreateOrderRequest request) {
+  public ResponseEntity<?> createOrder(
+      @Valid @RequestBody CreateOrderRequest request,
+      @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+      @RequestHeader(name = PREFER_HEADER, required = false) String prefer) {
+    if (idempotencyKey != null
+        && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+      return ResponseEntity.badRequest()
+          .body(
+              Map.of(
+                  "error",
+                  IDEMPOTENCY_KEY_HEADER
+                      + " は1文字以上"
+                      + MAX_IDEMPOTENCY_KEY_LENGTH
+                      + "文字以下で指定してください"));
+    }
+    // Prefer: respond-async の場合は在庫を確保せずに受け付け、状態は GET /api/orders/{id} で確認する
+    if (idempotencyKey == null && orderQueueWorker.isEnabled() && prefersAsync(prefer)) {
+      OrderDto acceptedOrder = orderService.acceptOrder(request);
+      return ResponseEntity.accepted()
+          .location(location(acceptedOrder))
+          .header(PREFERENCE_APPLIED_HEADER, RESPOND_ASYNC)
+          .body(acceptedOrder);
+    }
     try {
-      OrderDto createdOrder = orderService.createOrder(request);
-      URI location =
-          ServletUriComponentsBuilder.fromCurrentRequest()
-              .path("/{id}")
-              .buildAndExpand(createdOrder.getId())
-              .toUri();
-      return ResponseEntity.created(location).body(createdOrder);
+      OrderCreationResultDto result =
+          idempotencyKey == null
+              ? new OrderCreationResultDto(orderGroupCommitWriter.createOrder(request), false)
+              : orderIdempotencyService.createOrder(idempotencyKey, request);
+      OrderDto createdOrder = result.getOrder();
+      ResponseEntity.BodyBuilder response = ResponseEntity.created(location(createdOrder));
+      if (result.isReplayed()) {
+        response.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+      }
+      return response.body(createdOrder);
     } catch (com.example.demo.domain.exception.InsufficientStockException e) {
-      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+      if (e.getShortages().isEmpty()) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+      }
+      return ResponseEntity.badRequest()
+          .body(Map.of("error", e.getMessage(), "shortages", e.getShortages()));
     }
   }
 
   @DeleteMapping("/{id}")
   public ResponseEntity<?> deleteOrder(@PathVariable UUID id) {
     OrderDto order = orderService.findOrderById(id);
-    if ("SHIPPED".equals(order.getStatus())) {
+    // 出荷済みに加え、非同期で処理待ち・却下済みの注文もキャンセルできない
+    if (!"PENDING".equals(order.getStatus())) {
       return ResponseEntity.badRequest()
-          .body(Map.of("error", "この操作は注文のステータスが PENDING の場合のみ可能です。現在のステータス: SHIPPED"));
+          .body(
+              Map.of(
+                  "error",
+                  "この操作は注文のステータスが PENDING の場合のみ可能です。現在のステータス: " + order.getStatus()));
     }
     orderService.deleteOrder(id);
     return ResponseEntity.noContent().build();
   }
+
+  private static URI location(OrderDto order) {
+    return ServletUriComponentsBuilder.fromCurrentRequest()
+        .path("/{id}")
+        .buildAndExpand(order.getId())
+        .toUri();
+  }
+
+  private static boolean prefersAsync(String prefer) {
+    if (prefer == null) {
+      return false;
+    }
+    for (String preference : prefer.split(",")) {
+      if (preference.trim().equalsIgnoreCase(RESPOND_ASYNC)) {
+        return true;
+      }
+    }
+    return false;
+  }
 }
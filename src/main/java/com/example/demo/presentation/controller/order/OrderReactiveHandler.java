@@ -0,0 +1,33 @@
+package com.example.demo.presentation.controller.order;
+
+import com.example.demo.application.service.order.ReactiveOrderService;
+import com.example.demo.presentation.response.EntityTags;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+// GET /api/orders/{id} のノンブロッキング版（ReactiveServer で提供する）
+@Component
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class OrderReactiveHandler {
+
+  private final ReactiveOrderService reactiveOrderService;
+
+  public Mono<ServerResponse> getOrderById(ServerRequest request) {
+    return Mono.defer(
+            () -> reactiveOrderService.findOrderById(UUID.fromString(request.pathVariable("id"))))
+        .flatMap(
+            order ->
+                request
+                    .checkNotModified(
+                        Instant.ofEpochMilli(EntityTags.lastModified(order.getUpdatedAt())),
+                        EntityTags.of(order.getUpdatedAt()))
+                    .switchIfEmpty(Mono.defer(() -> ServerResponse.ok().bodyValue(order))));
+  }
+}
@@ -1,6 +1,8 @@
 package com.example.demo.presentation.exception;
 
+import com.example.demo.application.dto.page.InvalidCursorException;
 import com.example.demo.application.service.book.BookDeletionException;
+import com.example.demo.application.service.order.IdempotencyKeyMismatchException;
 import com.example.demo.application.service.order.InsufficientStockException;
 import com.example.demo.application.service.order.OrderCancellationException;
 import java.util.HashMap;
@@ -30,9 +32,12 @@ public class GlobalExceptionHandler {
     return errors;
   }
 
-  @ExceptionHandler(BookDeletionException.class)
+  @ExceptionHandler({
+    BookDeletionException.class,
+    com.example.demo.domain.exception.BookDeletionException.class
+  })
   @ResponseStatus(HttpStatus.BAD_REQUEST)
-  public Map<String, String> handleBookDeletionException(BookDeletionException ex) {
+  public Map<String, String> handleBookDeletionException(RuntimeException ex) {
     Map<String, String> error = new HashMap<>();
     error.put("error", ex.getMessage());
     return error;
@@ -54,6 +59,23 @@ public class GlobalExceptionHandler {
     return error;
   }
 
+  @ExceptionHandler(IdempotencyKeyMismatchException.class)
+  @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+  public Map<String, String> handleIdempotencyKeyMismatchException(
+      IdempotencyKeyMismatchException ex) {
+    Map<String, String> error = new HashMap<>();
+    error.put("error", ex.getMessage());
+    return error;
+  }
+
+  @ExceptionHandler(InvalidCursorException.class)
+  @ResponseStatus(HttpStatus.BAD_REQUEST)
+  public Map<String, String> handleInvalidCursorException(InvalidCursorException ex) {
+    Map<String, String> error = new HashMap<>();
+    error.put("error", ex.getMessage());
+    return error;
+  }
+
   @ExceptionHandler(RuntimeException.class)
   @ResponseStatus(HttpStatus.NOT_FOUND)
   public Map<String, String> handleRuntimeException(RuntimeException ex) {
@@ -0,0 +1,7 @@
+package com.example.demo.presentation.filter;
+
+public class DatabaseBudgetExceededException extends RuntimeException {
+  public DatabaseBudgetExceededException(String message) {
+    super(message);
+  }
+}
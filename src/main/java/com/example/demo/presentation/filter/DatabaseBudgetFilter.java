@@ -0,0 +1,185 @@
+package com.example.demo.presentation.filter;
+
+import com.example.demo.infrastructure.mybatis.DatabaseRoundTrips;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+// リクエストごとにデータベースへの往復（ステートメントとトランザクション）を数え、
+// レスポンスヘッダーとメトリクスに出力する。上限を超えた場合は警告を出力し、
+// app.db-budget.fail-on-exceed=true（テスト専用）の場合は例外にする。
+// 判定はチェーンの完了後、レスポンスがコミットされた後に行うため、例外はクライアントのステータスには反映されない。
+// 同じステートメントをパラメータを変えて繰り返し実行している場合は N+1 の疑いとして警告する
+@Slf4j
+@Component
+@ConditionalOnProperty(
+    name = "app.db-budget.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+@EnableConfigurationProperties(DatabaseBudgetProperties.class)
+public class DatabaseBudgetFilter extends OncePerRequestFilter {
+
+  static final String STATEMENTS_HEADER = "X-DB-Statements";
+  static final String TRANSACTIONS_HEADER = "X-DB-Transactions";
+
+  private static final String UNKNOWN_ENDPOINT = "UNKNOWN";
+
+  private final DatabaseBudgetProperties properties;
+  private final MeterRegistry meterRegistry;
+
+  public DatabaseBudgetFilter(DatabaseBudgetProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    DatabaseRoundTrips roundTrips = DatabaseRoundTrips.begin(properties.nPlusOneThreshold());
+    try {
+      RoundTripHeaderResponse wrappedResponse = new RoundTripHeaderResponse(response, roundTrips);
+      filterChain.doFilter(request, wrappedResponse);
+      // ボディのないレスポンス（204、304など）
+      wrappedResponse.writeHeaders();
+    } finally {
+      DatabaseRoundTrips.end();
+    }
+    check(endpoint(request), roundTrips);
+  }
+
+  private void check(String endpoint, DatabaseRoundTrips roundTrips) {
+    DistributionSummary.builder("db.request.statements")
+        .description("1リクエストで実行したステートメント数")
+        .tag("endpoint", endpoint)
+        .register(meterRegistry)
+        .record(roundTrips.statements());
+    DistributionSummary.builder("db.request.transactions")
+        .description("1リクエストで開始したトランザクション数")
+        .tag("endpoint", endpoint)
+        .register(meterRegistry)
+        .record(roundTrips.transactions());
+
+    // ストリーミングの出力や一括取り込みはデータ量に比例してステートメントを実行するため、判定から除外する
+    if (properties.isExempt(endpoint)) {
+      return;
+    }
+
+    Map<String, Integer> suspects = roundTrips.nPlusOneSuspects();
+    suspects.forEach(
+        (statement, executions) -> {
+          Counter.builder("db.request.n-plus-one")
+              .description("同じステートメントをパラメータを変えて繰り返し実行したリクエスト数")
+              .tag("endpoint", endpoint)
+              .tag("statement", statement)
+              .register(meterRegistry)
+              .increment();
+          log.warn(
+              "N+1 の疑いがあります endpoint={} statement={} executions={}",
+              endpoint,
+              statement,
+              executions);
+        });
+
+    List<String> violations = new ArrayList<>();
+    int maxStatements = properties.maxStatementsFor(endpoint);
+    if (roundTrips.statements() > maxStatements) {
+      violations.add("ステートメント " + roundTrips.statements() + " > " + maxStatements);
+    }
+    int maxTransactions = properties.maxTransactionsFor(endpoint);
+    if (roundTrips.transactions() > maxTransactions) {
+      violations.add("トランザクション " + roundTrips.transactions() + " > " + maxTransactions);
+    }
+    if (violations.isEmpty()) {
+      return;
+    }
+    String message =
+        String.format(
+            "データベースへの往復回数が上限を超えました endpoint=%s %s statements=%s",
+            endpoint, String.join(", ", violations), roundTrips.statementCounts());
+    if (properties.failOnExceed()) {
+      throw new DatabaseBudgetExceededException(message);
+    }
+    log.warn(message);
+  }
+
+  // GET /api/orders/{id} のように、パスパラメータを含まない形でエンドポイントを表す
+  private static String endpoint(HttpServletRequest request) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    return request.getMethod() + " " + (pattern != null ? pattern : UNKNOWN_ENDPOINT);
+  }
+
+  // ボディを書き始める前（コミット前）に往復回数のヘッダーを追加する。
+  // ストリーミングのレスポンスでは書き始めた時点までの回数になる
+  private static final class RoundTripHeaderResponse extends HttpServletResponseWrapper {
+    private final DatabaseRoundTrips roundTrips;
+    private boolean headersWritten;
+
+    private RoundTripHeaderResponse(HttpServletResponse response, DatabaseRoundTrips roundTrips) {
+      super(response);
+      this.roundTrips = roundTrips;
+    }
+
+    private void writeHeaders() {
+      if (headersWritten || isCommitted()) {
+        return;
+      }
+      headersWritten = true;
+      setHeader(STATEMENTS_HEADER, String.valueOf(roundTrips.statements()));
+      setHeader(TRANSACTIONS_HEADER, String.valueOf(roundTrips.transactions()));
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      writeHeaders();
+      return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      writeHeaders();
+      return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+      writeHeaders();
+      super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+      writeHeaders();
+      super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+      writeHeaders();
+      super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+      writeHeaders();
+      super.sendRedirect(location);
+    }
+  }
+}
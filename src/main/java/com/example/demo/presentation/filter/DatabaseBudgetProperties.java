@@ -0,0 +1,44 @@
+package com.example.demo.presentation.filter;
+
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// 1リクエストあたりのデータベースへの往復回数の上限。
+// エンドポイントごとの上限は app.db-budget.endpoints[GET /api/orders].statements=3 のように
+// 「HTTPメソッド + マッピングのパターン」をキーに指定する。
+// ストリーミングの出力や一括取り込みのように、データ量に比例してステートメントを実行するエンドポイントは
+// app.db-budget.endpoints[GET /api/orders/export].exempt=true で上限と N+1 の判定から除外する（メトリクスは記録する）。
+// failOnExceed はテスト専用。判定はレスポンスの送信後に行うため、クライアントには成功のレスポンスが返ったまま
+// 例外になる。MockMvc などで呼び出し元に例外を伝えるためのもので、本番では有効にしないこと
+@ConfigurationProperties("app.db-budget")
+public record DatabaseBudgetProperties(
+    @DefaultValue("false") boolean failOnExceed,
+    @DefaultValue("10") int maxStatements,
+    @DefaultValue("2") int maxTransactions,
+    @DefaultValue("3") int nPlusOneThreshold,
+    Map<String, Budget> endpoints) {
+
+  public record Budget(Integer statements, Integer transactions, boolean exempt) {}
+
+  int maxStatementsFor(String endpoint) {
+    Budget budget = budgetFor(endpoint);
+    return budget != null && budget.statements() != null ? budget.statements() : maxStatements;
+  }
+
+  int maxTransactionsFor(String endpoint) {
+    Budget budget = budgetFor(endpoint);
+    return budget != null && budget.transactions() != null
+        ? budget.transactions()
+        : maxTransactions;
+  }
+
+  boolean isExempt(String endpoint) {
+    Budget budget = budgetFor(endpoint);
+    return budget != null && budget.exempt();
+  }
+
+  private Budget budgetFor(String endpoint) {
+    return endpoints == null ? null : endpoints.get(endpoint);
+  }
+}
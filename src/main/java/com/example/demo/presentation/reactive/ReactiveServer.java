@@ -0,0 +1,108 @@
+package com.example.demo.presentation.reactive;
+
+import com.example.demo.application.dto.page.InvalidCursorException;
+import com.example.demo.domain.exception.BookNotFoundException;
+import com.example.demo.domain.exception.OrderNotFoundException;
+import com.example.demo.presentation.controller.book.BookReactiveHandler;
+import com.example.demo.presentation.controller.order.OrderReactiveHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+// 参照系のノンブロッキングAPIを、MVC（Tomcat）とは別ポートの Netty で提供する。
+// 少数のイベントループスレッドで多数のキープアライブ接続を扱う
+@Component
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveServer implements SmartLifecycle {
+
+  private final BookReactiveHandler bookReactiveHandler;
+  private final OrderReactiveHandler orderReactiveHandler;
+  private final ObjectMapper objectMapper;
+  private final int port;
+
+  private volatile DisposableServer server;
+
+  public ReactiveServer(
+      BookReactiveHandler bookReactiveHandler,
+      OrderReactiveHandler orderReactiveHandler,
+      ObjectMapper objectMapper,
+      @Value("${app.reactive.port:8081}") int port) {
+    this.bookReactiveHandler = bookReactiveHandler;
+    this.orderReactiveHandler = orderReactiveHandler;
+    this.objectMapper = objectMapper;
+    this.port = port;
+  }
+
+  // 実際に待ち受けているポート（app.reactive.port=0 の場合は空いているポートが割り当てられる）
+  public int getPort() {
+    return server.port();
+  }
+
+  @Override
+  public void start() {
+    // MVC と同じ日時の形式で返すため、アプリケーションの ObjectMapper を使う
+    HandlerStrategies strategies =
+        HandlerStrategies.builder()
+            .codecs(
+                configurer -> {
+                  configurer
+                      .defaultCodecs()
+                      .jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                  configurer
+                      .defaultCodecs()
+                      .jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+            .build();
+    HttpHandler httpHandler = RouterFunctions.toHttpHandler(routes(), strategies);
+    server =
+        HttpServer.create()
+            .port(port)
+            .handle(new ReactorHttpHandlerAdapter(httpHandler))
+            .bindNow();
+  }
+
+  @Override
+  public void stop() {
+    if (server != null) {
+      server.disposeNow();
+      server = null;
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return server != null;
+  }
+
+  RouterFunction<ServerResponse> routes() {
+    return RouterFunctions.route()
+        .GET("/api/books", bookReactiveHandler::getAllBooks)
+        .GET("/api/books/{isbn}", bookReactiveHandler::getBookByIsbn)
+        .GET("/api/orders/{id}", orderReactiveHandler::getOrderById)
+        .onError(BookNotFoundException.class, (e, request) -> error(HttpStatus.NOT_FOUND, e))
+        .onError(OrderNotFoundException.class, (e, request) -> error(HttpStatus.NOT_FOUND, e))
+        .onError(InvalidCursorException.class, (e, request) -> error(HttpStatus.BAD_REQUEST, e))
+        // 数値や UUID として解釈できないパラメータ
+        .onError(IllegalArgumentException.class, (e, request) -> error(HttpStatus.BAD_REQUEST, e))
+        .build();
+  }
+
+  private static Mono<ServerResponse> error(HttpStatus status, Throwable e) {
+    return ServerResponse.status(status).bodyValue(Map.of("error", e.getMessage()));
+  }
+}
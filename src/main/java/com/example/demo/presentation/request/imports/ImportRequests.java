@@ -0,0 +1,25 @@
+package com.example.demo.presentation.request.imports;
+
+import com.example.demo.application.service.imports.ImportFormat;
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import org.springframework.http.MediaType;
+
+// 一括取り込みAPIのリクエスト本文を、Content-Type に従って逐次読み込む
+public final class ImportRequests {
+
+  private ImportRequests() {}
+
+  public static ImportFormat format(MediaType contentType) {
+    return ImportFormat.fromMediaType(contentType.getType() + "/" + contentType.getSubtype());
+  }
+
+  public static BufferedReader reader(MediaType contentType, InputStream body) {
+    Charset charset =
+        contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+    return new BufferedReader(new InputStreamReader(body, charset));
+  }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.presentation.response;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// 条件付きGET（If-None-Match / If-Modified-Since）で使う検証子
+public final class EntityTags {
+
+  private EntityTags() {}
+
+  // 更新日時は書き込みのたびに更新されるため、そのまま強いETagとして使う
+  public static String of(LocalDateTime updatedAt) {
+    return "\"" + updatedAt + "\"";
+  }
+
+  // 一覧はページ内の行から計算したバージョンをETagにする
+  public static String ofVersion(String version) {
+    return "\"" + version + "\"";
+  }
+
+  public static long lastModified(LocalDateTime updatedAt) {
+    return updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.presentation.response;
+
+import com.example.demo.application.dto.page.PageDto;
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+
+public final class PageResponses {
+  // 次ページのカーソル。最終ページでは付与しない
+  public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+  private PageResponses() {}
+
+  public static <T> ResponseEntity<List<T>> ok(PageDto<T> page) {
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (page.getNextCursor() != null) {
+      response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+    }
+    return response.body(page.getItems());
+  }
+}
@@ -0,0 +1,2 @@
+-- 顧客の一括登録で、正規化したメールアドレスから既存の顧客を検索するためのインデックス
+CREATE INDEX customer_lower_email_idx ON customer (lower(email));
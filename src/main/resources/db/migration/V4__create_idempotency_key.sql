@@ -0,0 +1,10 @@
+-- 冪等キーテーブル。注文作成のレスポンスをキーごとに保存し、期限切れの行は定期的に削除する
+CREATE TABLE idempotency_key (
+    id VARCHAR(255) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    response_body TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idempotency_key_expires_at_idx ON idempotency_key (expires_at);
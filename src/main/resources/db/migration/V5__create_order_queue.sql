@@ -0,0 +1,11 @@
+-- 非同期で受け付けた注文の処理待ちキュー。ワーカーが FOR UPDATE SKIP LOCKED で取り出し、処理後に削除する
+CREATE TABLE order_queue (
+    order_id UUID PRIMARY KEY,
+    enqueued_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (order_id) REFERENCES "order"(id)
+);
+
+CREATE INDEX order_queue_enqueued_at_idx ON order_queue (enqueued_at);
+
+-- 非同期で受け付けた注文が在庫不足などで却下された理由
+ALTER TABLE "order" ADD COLUMN rejection_reason TEXT;
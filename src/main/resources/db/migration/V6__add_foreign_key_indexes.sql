@@ -0,0 +1,8 @@
+-- 注文IDで注文アイテムを取得・削除するためのインデックス。注文アイテムは id 順で返すため id も含める
+CREATE INDEX order_item_order_id_idx ON order_item (order_id, id);
+
+-- 書籍の削除時に、参照している注文アイテムがないかを外部キーで確認するためのインデックス
+CREATE INDEX order_item_book_isbn_idx ON order_item (book_isbn);
+
+-- 顧客の削除時に、参照している注文がないかを外部キーで確認するためのインデックス
+CREATE INDEX order_customer_id_idx ON "order" (customer_id);
@@ -0,0 +1,186 @@
+package com.example.demo.queryplan;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+// マッパーの全SQLを大量データに対して EXPLAIN し、インデックスの追加漏れや全件走査への退行を検出する。
+// 他のテストのデータと混ざらないよう、専用の query_plan スキーマを使う
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    properties = {
+      "spring.datasource.url=jdbc:postgresql://localhost:5432/postgres?currentSchema=query_plan",
+      "spring.flyway.schemas=query_plan",
+      "app.idempotency.cleanup-interval=PT24H"
+    })
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MapperQueryPlanTest {
+
+  private static final String MAPPER_PACKAGE = "com.example.demo.infrastructure.mapper.";
+
+  // 統計情報上の行数がこれ以上のテーブルは全件走査を許さない
+  private static final long LARGE_TABLE_ROWS = 10_000;
+
+  @Autowired private SqlSessionFactory sqlSessionFactory;
+
+  @Autowired private DataSource dataSource;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  private Map<String, MappedStatement> statements;
+  private Map<String, StatementCase> cases;
+  private Set<String> largeTables;
+  private Connection connection;
+
+  @BeforeAll
+  void setUp() throws SQLException {
+    QueryPlanDataset dataset = QueryPlanDataset.fromSystemProperties();
+    dataset.load(jdbcTemplate);
+    largeTables =
+        new TreeSet<>(
+            jdbcTemplate.queryForList(
+                """
+                SELECT c.relname FROM pg_class c
+                JOIN pg_namespace n ON n.oid = c.relnamespace
+                WHERE n.nspname = current_schema() AND c.relkind = 'r' AND c.reltuples >= ?
+                """,
+                String.class,
+                LARGE_TABLE_ROWS));
+
+    statements = mapperStatements(sqlSessionFactory.getConfiguration());
+    cases = StatementCases.of(dataset);
+
+    // 書き込み系の文も EXPLAIN だけで実行はしないが、一時テーブルの作成は必要なため
+    // 1つのトランザクションで行い、最後にロールバックする
+    connection = dataSource.getConnection();
+    connection.setAutoCommit(false);
+    for (Map.Entry<String, StatementCase> entry : cases.entrySet()) {
+      if (entry.getValue().setup() && statements.containsKey(entry.getKey())) {
+        execute(statements.get(entry.getKey()), entry.getValue().parameter());
+      }
+    }
+  }
+
+  @AfterAll
+  void tearDown() throws SQLException {
+    if (connection != null) {
+      connection.rollback();
+      connection.close();
+    }
+  }
+
+  @Test
+  @DisplayName("マッパーのすべての文に実行計画の確認条件が定義されている")
+  void testEveryStatementHasCase() {
+    assertEquals(new TreeSet<>(statements.keySet()), new TreeSet<>(cases.keySet()));
+  }
+
+  @Test
+  @DisplayName("データ量の多いテーブルがある")
+  void testLargeTablesLoaded() {
+    assertTrue(
+        largeTables.containsAll(Set.of("book", "customer", "order", "order_item")),
+        () -> "統計情報上の行数が少なすぎます: " + largeTables);
+  }
+
+  @TestFactory
+  @DisplayName("大量データでも全件走査せず、推定コストが上限以内に収まる")
+  Stream<DynamicTest> testQueryPlans() {
+    return cases.entrySet().stream()
+        .filter(entry -> !entry.getValue().setup() && statements.containsKey(entry.getKey()))
+        .map(
+            entry ->
+                dynamicTest(
+                    entry.getKey(),
+                    () -> {
+                      StatementCase statementCase = entry.getValue();
+                      QueryPlan plan =
+                          explain(statements.get(entry.getKey()), statementCase.parameter());
+
+                      if (!statementCase.allowSeqScan()) {
+                        Set<String> scanned = new TreeSet<>(plan.seqScannedRelations());
+                        scanned.retainAll(largeTables);
+                        assertTrue(
+                            scanned.isEmpty(),
+                            () -> "全件走査しています: " + scanned + "\n" + plan.json());
+                      }
+                      assertTrue(
+                          plan.totalCost() <= statementCase.maxCost(),
+                          () ->
+                              "推定コスト "
+                                  + plan.totalCost()
+                                  + " が上限 "
+                                  + statementCase.maxCost()
+                                  + " を超えています\n"
+                                  + plan.json());
+                    }));
+  }
+
+  // 失敗してもトランザクションが中断されたままにならないよう、セーブポイントまで戻す
+  private QueryPlan explain(MappedStatement statement, Object parameter) throws Exception {
+    BoundSql boundSql = statement.getBoundSql(parameter);
+    Savepoint savepoint = connection.setSavepoint();
+    try (PreparedStatement ps =
+        connection.prepareStatement("EXPLAIN (FORMAT JSON) " + boundSql.getSql())) {
+      new DefaultParameterHandler(statement, parameter, boundSql).setParameters(ps);
+      try (ResultSet rs = ps.executeQuery()) {
+        rs.next();
+        return QueryPlan.parse(objectMapper, rs.getString(1));
+      }
+    } finally {
+      connection.rollback(savepoint);
+    }
+  }
+
+  private void execute(MappedStatement statement, Object parameter) throws SQLException {
+    BoundSql boundSql = statement.getBoundSql(parameter);
+    try (PreparedStatement ps = connection.prepareStatement(boundSql.getSql())) {
+      new DefaultParameterHandler(statement, parameter, boundSql).setParameters(ps);
+      ps.execute();
+    }
+  }
+
+  // キーは「マッパー名.文のID」。<selectKey> などが生成する補助的な文は除く
+  private static Map<String, MappedStatement> mapperStatements(Configuration configuration) {
+    Map<String, MappedStatement> statements = new TreeMap<>();
+    for (String id : configuration.getMappedStatementNames()) {
+      if (!id.startsWith(MAPPER_PACKAGE) || id.contains("!")) {
+        continue;
+      }
+      String name = id.substring(id.lastIndexOf('.', id.lastIndexOf('.') - 1) + 1);
+      statements.put(name, configuration.getMappedStatement(id));
+    }
+    return statements;
+  }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.queryplan;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+// EXPLAIN (FORMAT JSON) の結果。CTEやサブクエリを含むすべてのノードを平坦にして持つ
+record QueryPlan(String json, double totalCost, List<JsonNode> nodes) {
+
+  static QueryPlan parse(ObjectMapper objectMapper, String json) throws JsonProcessingException {
+    JsonNode root = objectMapper.readTree(json).get(0).get("Plan");
+    List<JsonNode> nodes = new ArrayList<>();
+    collect(root, nodes);
+    return new QueryPlan(json, root.get("Total Cost").asDouble(), nodes);
+  }
+
+  // 全件走査しているテーブル
+  Set<String> seqScannedRelations() {
+    Set<String> relations = new TreeSet<>();
+    for (JsonNode node : nodes) {
+      if ("Seq Scan".equals(node.path("Node Type").asText())) {
+        relations.add(node.path("Relation Name").asText());
+      }
+    }
+    return relations;
+  }
+
+  private static void collect(JsonNode node, List<JsonNode> nodes) {
+    nodes.add(node);
+    for (JsonNode child : node.path("Plans")) {
+      collect(child, nodes);
+    }
+  }
+}
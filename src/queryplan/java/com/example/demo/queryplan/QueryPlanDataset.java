@@ -0,0 +1,150 @@
+package com.example.demo.queryplan;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.UUID;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// 実行計画の確認用のデータ。generate_series でサーバー側に一括投入し、キーは連番から決定的に作る
+record QueryPlanDataset(
+    int books, int customers, int orders, int queuedOrders, int idempotencyKeys) {
+
+  static final LocalDateTime BASE_TIME = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+  static final int ITEMS_PER_ORDER = 3;
+
+  // 処理待ちキューに残す注文の間隔（30件に1件）
+  private static final int QUEUE_INTERVAL = 30;
+
+  private static final String ANALYZE =
+      "ANALYZE book, customer, \"order\", order_item, order_queue, idempotency_key";
+
+  static QueryPlanDataset fromSystemProperties() {
+    double scale = Double.parseDouble(System.getProperty("queryplan.scale", "1"));
+    int orders = (int) (300_000 * scale);
+    return new QueryPlanDataset(
+        (int) (100_000 * scale),
+        (int) (100_000 * scale),
+        orders,
+        orders / QUEUE_INTERVAL,
+        (int) (100_000 * scale));
+  }
+
+  int orderItems() {
+    return orders * ITEMS_PER_ORDER;
+  }
+
+  // 同じ件数のデータが入っていれば投入し直さない
+  void load(JdbcTemplate jdbcTemplate) {
+    if (isLoaded(jdbcTemplate)) {
+      jdbcTemplate.execute(ANALYZE);
+      return;
+    }
+    jdbcTemplate.execute(
+        "TRUNCATE order_queue, order_item, \"order\", customer, book, idempotency_key");
+    jdbcTemplate.update(
+        """
+        INSERT INTO book (isbn, title, price, stock, created_at, updated_at)
+        SELECT '978' || lpad(i::text, 10, '0'), 'Book ' || i, 1000 + i % 5000, 100, ?, ?
+        FROM generate_series(1, ?) i
+        """,
+        BASE_TIME,
+        BASE_TIME,
+        books);
+    jdbcTemplate.update(
+        """
+        INSERT INTO customer (id, name, email, created_at, updated_at)
+        SELECT md5('customer' || i)::uuid, 'Customer ' || i, 'customer' || i || '@example.com', ?, ?
+        FROM generate_series(1, ?) i
+        """,
+        BASE_TIME,
+        BASE_TIME,
+        customers);
+    jdbcTemplate.update(
+        """
+        INSERT INTO "order" (id, customer_id, order_datetime, status, created_at, updated_at)
+        SELECT md5('order' || i)::uuid, md5('customer' || (i % ? + 1))::uuid,
+            ? - make_interval(mins => i), 'UNSHIPPED', ?, ?
+        FROM generate_series(1, ?) i
+        """,
+        customers,
+        BASE_TIME,
+        BASE_TIME,
+        BASE_TIME,
+        orders);
+    jdbcTemplate.update(
+        """
+        INSERT INTO order_item (order_id, book_isbn, quantity, created_at, updated_at)
+        SELECT md5('order' || i)::uuid, '978' || lpad(((i * 7 + k * 13) % ? + 1)::text, 10, '0'),
+            k, ?, ?
+        FROM generate_series(1, ?) i CROSS JOIN generate_series(1, ?) k
+        """,
+        books,
+        BASE_TIME,
+        BASE_TIME,
+        orders,
+        ITEMS_PER_ORDER);
+    jdbcTemplate.update(
+        """
+        INSERT INTO order_queue (order_id, enqueued_at)
+        SELECT md5('order' || (i * ?))::uuid, ? + make_interval(secs => i)
+        FROM generate_series(1, ?) i
+        """,
+        QUEUE_INTERVAL,
+        BASE_TIME,
+        queuedOrders);
+    jdbcTemplate.update(
+        """
+        INSERT INTO idempotency_key (id, request_hash, response_body, created_at, expires_at)
+        SELECT 'key-' || i, md5(i::text), '{}', ?, ? + make_interval(mins => i)
+        FROM generate_series(1, ?) i
+        """,
+        BASE_TIME,
+        BASE_TIME,
+        idempotencyKeys);
+    jdbcTemplate.execute(ANALYZE);
+  }
+
+  private boolean isLoaded(JdbcTemplate jdbcTemplate) {
+    Integer loadedBooks = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM book", Integer.class);
+    Integer loadedItems =
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_item", Integer.class);
+    return loadedBooks == books && loadedItems == orderItems();
+  }
+
+  static String isbn(int i) {
+    return "978" + String.format("%010d", i);
+  }
+
+  static UUID customerId(int i) {
+    return md5Uuid("customer" + i);
+  }
+
+  static UUID orderId(int i) {
+    return md5Uuid("order" + i);
+  }
+
+  // PostgreSQL の md5(text)::uuid と同じ値を作る
+  private static UUID md5Uuid(String value) {
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+      String hex = HexFormat.of().formatHex(digest);
+      return UUID.fromString(
+          hex.substring(0, 8)
+              + "-"
+              + hex.substring(8, 12)
+              + "-"
+              + hex.substring(12, 16)
+              + "-"
+              + hex.substring(16, 20)
+              + "-"
+              + hex.substring(20));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
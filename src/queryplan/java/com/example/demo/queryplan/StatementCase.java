@@ -0,0 +1,26 @@
+package com.example.demo.queryplan;
+
+// マッパーの1文について、EXPLAIN に渡すパラメーターと実行計画が満たすべき条件
+record StatementCase(Object parameter, boolean setup, boolean allowSeqScan, double maxCost) {
+
+  // 主キーやインデックスで数件を引く文の推定コストの上限
+  static final double DEFAULT_MAX_COST = 1_000;
+
+  static StatementCase lookup(Object parameter) {
+    return new StatementCase(parameter, false, false, DEFAULT_MAX_COST);
+  }
+
+  // 全件を返す文。件数に比例するため全件走査を許し、コストの上限も設けない
+  static StatementCase fullScan() {
+    return new StatementCase(null, false, true, Double.POSITIVE_INFINITY);
+  }
+
+  // EXPLAIN できないDDL。後続の文のために実行だけする
+  static StatementCase setupOnly() {
+    return new StatementCase(null, true, false, Double.POSITIVE_INFINITY);
+  }
+
+  StatementCase withMaxCost(double maxCost) {
+    return new StatementCase(parameter, setup, allowSeqScan, maxCost);
+  }
+}
@@ -0,0 +1,125 @@
+package com.example.demo.queryplan;
+
+import static com.example.demo.queryplan.StatementCase.*;
+
+import com.example.demo.domain.model.book.Book;
+import com.example.demo.domain.model.customer.Customer;
+import com.example.demo.domain.model.idempotency.IdempotencyKey;
+import com.example.demo.domain.model.order.Order;
+import com.example.demo.domain.model.order.OrderItem;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+// マッパーの文ごとの確認条件。キーは「マッパー名.文のID」。
+// 文を追加したらここにも追加する（追加漏れは MapperQueryPlanTest で検出する）
+final class StatementCases {
+
+  private StatementCases() {}
+
+  static Map<String, StatementCase> of(QueryPlanDataset dataset) {
+    LocalDateTime now = QueryPlanDataset.BASE_TIME;
+    String isbn = QueryPlanDataset.isbn(dataset.books() / 2);
+    UUID customerId = QueryPlanDataset.customerId(dataset.customers() / 2);
+    UUID orderId = QueryPlanDataset.orderId(dataset.orders() / 2);
+    List<UUID> orderIds =
+        List.of(orderId, QueryPlanDataset.orderId(1), QueryPlanDataset.orderId(dataset.orders()));
+
+    Map<String, StatementCase> cases = new LinkedHashMap<>();
+
+    cases.put("BookMapper.findPage", lookup(params("after", isbn, "limit", 20)));
+    cases.put("BookMapper.findPageVersion", lookup(params("after", isbn, "limit", 20)));
+    cases.put("BookMapper.findUpdatedAtById", lookup(isbn));
+    cases.put("BookMapper.findById", lookup(isbn));
+    cases.put("BookMapper.findByIdForUpdate", lookup(isbn));
+    cases.put(
+        "BookMapper.findByIsbns",
+        lookup(params("isbns", List.of(isbn, QueryPlanDataset.isbn(1), QueryPlanDataset.isbn(2)))));
+    cases.put(
+        "BookMapper.lockByIsbns",
+        lookup(params("isbns", List.of(isbn, QueryPlanDataset.isbn(1), QueryPlanDataset.isbn(2)))));
+    cases.put("BookMapper.save", lookup(Book.create(isbn, "達人プログラマー", 3200, 10)));
+    cases.put(
+        "BookMapper.saveAll",
+        lookup(
+            params(
+                "books",
+                List.of(
+                    Book.create(isbn, "達人プログラマー", 3200, 10),
+                    Book.create("9784798157622", "Clean Architecture", 3400, 5)))));
+    cases.put("BookMapper.createImportTable", setupOnly());
+    // 一時テーブルには統計情報がなく、行数を既定値で見積もるため上限を緩める
+    cases.put(
+        "BookMapper.mergeImportTable",
+        lookup(params("importedAt", now)).withMaxCost(10 * DEFAULT_MAX_COST));
+    cases.put(
+        "BookMapper.decreaseStock",
+        lookup(params("isbn", isbn, "quantity", 1, "updatedAt", now)));
+    cases.put(
+        "BookMapper.decreaseStocks",
+        lookup(
+            params(
+                "quantities",
+                new TreeMap<>(Map.of(isbn, 1, QueryPlanDataset.isbn(1), 2)),
+                "updatedAt",
+                now)));
+    cases.put(
+        "BookMapper.increaseStock",
+        lookup(params("isbn", isbn, "quantity", 1, "updatedAt", now)));
+    cases.put("BookMapper.deleteById", lookup(isbn));
+
+    Customer customer = new Customer(customerId, "山田太郎", "taro.yamada@example.com", now, now);
+    cases.put("CustomerMapper.findPage", lookup(params("after", customerId, "limit", 20)));
+    cases.put("CustomerMapper.findPageVersion", lookup(params("after", customerId, "limit", 20)));
+    cases.put("CustomerMapper.findUpdatedAtById", lookup(customerId));
+    cases.put("CustomerMapper.findById", lookup(customerId));
+    cases.put(
+        "CustomerMapper.findByLowerEmails",
+        lookup(params("emails", List.of("customer1@example.com", "taro.yamada@example.com"))));
+    cases.put("CustomerMapper.save", lookup(customer));
+    cases.put("CustomerMapper.saveAll", lookup(params("customers", List.of(customer))));
+    cases.put("CustomerMapper.deleteById", lookup(customerId));
+
+    IdempotencyKey key = new IdempotencyKey("key-1", "hash", "{}", now, now.plusHours(24));
+    cases.put("IdempotencyKeyMapper.findById", lookup("key-1"));
+    cases.put("IdempotencyKeyMapper.claim", lookup(key));
+    cases.put("IdempotencyKeyMapper.complete", lookup(key));
+    cases.put("IdempotencyKeyMapper.deleteExpired", lookup(now.plusMinutes(10)));
+
+    OrderItem orderItem = new OrderItem(null, orderId, isbn, 1, now, now);
+    cases.put("OrderItemMapper.findByOrderId", lookup(orderId));
+    cases.put("OrderItemMapper.findByOrderIds", lookup(params("orderIds", orderIds)));
+    cases.put("OrderItemMapper.save", lookup(orderItem));
+    cases.put("OrderItemMapper.saveAll", lookup(params("orderItems", List.of(orderItem))));
+    cases.put("OrderItemMapper.deleteByOrderId", lookup(orderId));
+
+    Order order = Order.create(customerId);
+    order.setId(orderId);
+    cases.put("OrderMapper.findPage", lookup(params("after", orderId, "limit", 20)));
+    cases.put("OrderMapper.findPageVersion", lookup(params("after", orderId, "limit", 20)));
+    cases.put("OrderMapper.findUpdatedAtById", lookup(orderId));
+    cases.put("OrderMapper.streamAll", fullScan());
+    cases.put("OrderMapper.findById", lookup(orderId));
+    cases.put("OrderMapper.insert", lookup(order));
+    cases.put("OrderMapper.enqueue", lookup(orderId));
+    cases.put("OrderMapper.findQueuedForUpdate", lookup(params("limit", 100)));
+    cases.put("OrderMapper.dequeue", lookup(params("orderIds", orderIds)));
+    cases.put("OrderMapper.update", lookup(order));
+    cases.put("OrderMapper.deleteById", lookup(orderId));
+
+    return cases;
+  }
+
+  // @Param で名前を付けた引数。null を渡せるよう HashMap にする
+  private static Map<String, Object> params(Object... namesAndValues) {
+    Map<String, Object> params = new HashMap<>();
+    for (int i = 0; i < namesAndValues.length; i += 2) {
+      params.put((String) namesAndValues[i], namesAndValues[i + 1]);
+    }
+    return params;
+  }
+}
@@ -0,0 +1,123 @@
+package com.example.demo.application.service.book;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.example.demo.application.dto.book.BookImportResultDto;
+import com.example.demo.application.service.imports.ImportFormat;
+import com.example.demo.domain.model.book.Book;
+import com.example.demo.domain.model.book.BookImportCount;
+import com.example.demo.domain.repository.book.BookRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BookImportServiceTest {
+
+  @Mock private BookRepository bookRepository;
+
+  private BookImportService bookImportService;
+
+  private List<Book> imported;
+
+  @BeforeEach
+  void setUp() {
+    bookImportService = new BookImportService(bookRepository, new ObjectMapper());
+    imported = new ArrayList<>();
+    when(bookRepository.importAll(any()))
+        .thenAnswer(
+            invocation -> {
+              Iterator<Book> books = invocation.getArgument(0);
+              books.forEachRemaining(imported::add);
+              BookImportCount count = new BookImportCount();
+              count.setInserted(imported.size());
+              return count;
+            });
+  }
+
+  @Test
+  @DisplayName("CSVのヘッダー行を読み飛ばし、引用符で囲まれた値を取り込める")
+  void testImportCsv() {
+    String csv =
+        "isbn,title,price,stock\n"
+            + "9784297100339,達人プログラマー,3200,10\n"
+            + "9784798157622,\"Clean Architecture, \"\"達人\"\"に学ぶ\",3400,5\n";
+
+    BookImportResultDto result = importBooks(csv, ImportFormat.CSV);
+
+    assertEquals(2, result.getInserted());
+    assertEquals(0, result.getRejected());
+    assertEquals("Clean Architecture, \"達人\"に学ぶ", imported.get(1).getTitle());
+    assertEquals(5, imported.get(1).getStock());
+  }
+
+  @Test
+  @DisplayName("Book.createの規則に違反する行は拒否し、行番号と理由を返す")
+  void testImportCsvRejections() {
+    String csv =
+        "isbn,title,price,stock\n"
+            + "9784297100339,達人プログラマー,3200,-1\n"
+            + "9784798157622,Clean Architecture,abc,5\n"
+            + "123,短いISBN,100,1\n"
+            + "9784873119045,Effective Java\n"
+            + "9784873119045,Effective Java 第3版,4950,15\n";
+
+    BookImportResultDto result = importBooks(csv, ImportFormat.CSV);
+
+    assertEquals(1, imported.size());
+    assertEquals(4, result.getRejected());
+    assertEquals(2, result.getRejections().get(0).getLine());
+    assertEquals("初期在庫数は0以上である必要があります", result.getRejections().get(0).getReason());
+    assertEquals("9784798157622", result.getRejections().get(1).getIsbn());
+    assertEquals("ISBNは13桁である必要があります", result.getRejections().get(2).getReason());
+    assertTrue(result.getRejections().get(3).getReason().startsWith("列数が不正です"));
+  }
+
+  @Test
+  @DisplayName("NDJSONの各行を取り込み、解析できない行は拒否する")
+  void testImportNdjson() {
+    String ndjson =
+        "{\"isbn\":\"9784297100339\",\"title\":\"達人プログラマー\",\"price\":3200,\"stock\":10}\n"
+            + "\n"
+            + "{\"isbn\":\"9784798157622\",\"title\":\"\",\"price\":3400,\"stock\":5}\n"
+            + "not json\n";
+
+    BookImportResultDto result = importBooks(ndjson, ImportFormat.NDJSON);
+
+    assertEquals(1, imported.size());
+    assertEquals(2, result.getRejected());
+    assertEquals(3, result.getRejections().get(0).getLine());
+    assertEquals("タイトルは必須です", result.getRejections().get(0).getReason());
+    assertEquals(4, result.getRejections().get(1).getLine());
+  }
+
+  @Test
+  @DisplayName("拒否された行の詳細は上限件数までに制限し、件数はすべて数える")
+  void testImportRejectionsAreCapped() {
+    StringBuilder csv = new StringBuilder();
+    int lines = BookImportService.MAX_REPORTED_REJECTIONS + 10;
+    for (int i = 0; i < lines; i++) {
+      csv.append("invalid\n");
+    }
+
+    BookImportResultDto result = importBooks(csv.toString(), ImportFormat.CSV);
+
+    assertEquals(lines, result.getRejected());
+    assertEquals(BookImportService.MAX_REPORTED_REJECTIONS, result.getRejections().size());
+  }
+
+  private BookImportResultDto importBooks(String content, ImportFormat format) {
+    return bookImportService.importBooks(
+        new BufferedReader(new StringReader(content)), format);
+  }
+}
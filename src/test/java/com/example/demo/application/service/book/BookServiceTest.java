@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import com.example.demo.application.dto.book.BookDto;
+import com.example.demo.application.dto.page.PageCursor;
+import com.example.demo.application.dto.page.PageDto;
 import com.example.demo.domain.exception.BookDeletionException;
 import com.example.demo.domain.exception.BookNotFoundException;
 import com.example.demo.domain.model.book.Book;
@@ -12,7 +14,6 @@ import com.example.demo.presentation.request.book.CreateBookRequest;
 import com.example.demo.presentation.request.book.UpdateBookRequest;
 import java.time.LocalDateTime;
 import java.util.Arrays;
-import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -58,17 +59,60 @@ class BookServiceTest {
   }
 
   @Test
-  @DisplayName("すべての書籍を取得できる")
-  void testFindAllBooks() {
-    when(bookRepository.findAll()).thenReturn(Arrays.asList(book1, book2));
+  @DisplayName("書籍をキーセットページネーションで取得できる")
+  void testFindBookPage() {
+    when(bookRepository.findPage(null, 2)).thenReturn(Arrays.asList(book1, book2));
 
-    List<BookDto> result = bookService.findAllBooks();
+    PageDto<BookDto> result = bookService.findBookPage(null, 1);
 
-    assertNotNull(result);
-    assertEquals(2, result.size());
-    assertEquals(book1.getIsbn(), result.get(0).getIsbn());
-    assertEquals(book2.getIsbn(), result.get(1).getIsbn());
-    verify(bookRepository, times(1)).findAll();
+    assertEquals(1, result.getItems().size());
+    assertEquals(book1.getIsbn(), result.getItems().get(0).getIsbn());
+    assertEquals(book1.getIsbn(), PageCursor.decode(result.getNextCursor()));
+    verify(bookRepository, times(1)).findPage(null, 2);
+  }
+
+  @Test
+  @DisplayName("最終ページでは次ページのカーソルを返さない")
+  void testFindBookPageLastPage() {
+    String cursor = PageCursor.encode(book1.getIsbn());
+    when(bookRepository.findPage(book1.getIsbn(), 11)).thenReturn(Arrays.asList(book2));
+
+    PageDto<BookDto> result = bookService.findBookPage(cursor, 10);
+
+    assertEquals(1, result.getItems().size());
+    assertEquals(book2.getIsbn(), result.getItems().get(0).getIsbn());
+    assertNull(result.getNextCursor());
+  }
+
+  @Test
+  @DisplayName("書籍一覧のバージョンは次ページの有無を含めて取得する")
+  void testFindBookPageVersion() {
+    when(bookRepository.findPageVersion(null, 11)).thenReturn("version");
+
+    assertEquals("version", bookService.findBookPageVersion(null, 10));
+    verify(bookRepository, never()).findPage(any(), anyInt());
+  }
+
+  @Test
+  @DisplayName("書籍の更新日時を取得できる")
+  void testFindBookLastModified() {
+    when(bookRepository.findUpdatedAtById(book1.getIsbn()))
+        .thenReturn(Optional.of(book1.getUpdatedAt()));
+
+    assertEquals(book1.getUpdatedAt(), bookService.findBookLastModified(book1.getIsbn()));
+    verify(bookRepository, never()).findById(anyString());
+  }
+
+  @Test
+  @DisplayName("更新日時の取得で書籍が見つからない場合にBookNotFoundExceptionをスローする")
+  void testFindBookLastModifiedNotFound() {
+    when(bookRepository.findUpdatedAtById("nonexistent")).thenReturn(Optional.empty());
+
+    assertThrows(
+        BookNotFoundException.class,
+        () -> {
+          bookService.findBookLastModified("nonexistent");
+        });
   }
 
   @Test
@@ -116,7 +160,7 @@ class BookServiceTest {
   @Test
   @DisplayName("書籍を更新できる")
   void testUpdateBook() {
-    when(bookRepository.findById(book1.getIsbn())).thenReturn(Optional.of(book1));
+    when(bookRepository.findByIdForUpdate(book1.getIsbn())).thenReturn(Optional.of(book1));
 
     BookDto result = bookService.updateBook(book1.getIsbn(), updateRequest);
 
@@ -126,7 +170,8 @@ class BookServiceTest {
     assertEquals(updateRequest.getPrice(), result.getPrice());
     assertEquals(updateRequest.getStock(), result.getStock());
     assertNotNull(result.getUpdatedAt());
-    verify(bookRepository, times(1)).findById(book1.getIsbn());
+    verify(bookRepository, times(1)).findByIdForUpdate(book1.getIsbn());
+    verify(bookRepository, never()).findById(anyString());
     verify(bookRepository, times(1)).save(any(Book.class));
   }
 
@@ -134,7 +179,7 @@ class BookServiceTest {
   @DisplayName("更新対象の書籍が見つからない場合にBookNotFoundExceptionをスローする")
   void testUpdateBookNotFound() {
     String nonexistentIsbn = "nonexistent";
-    when(bookRepository.findById(nonexistentIsbn)).thenReturn(Optional.empty());
+    when(bookRepository.findByIdForUpdate(nonexistentIsbn)).thenReturn(Optional.empty());
 
     BookNotFoundException thrown =
         assertThrows(
@@ -144,7 +189,7 @@ class BookServiceTest {
             });
 
     assertTrue(thrown.getMessage().contains("書籍が見つかりません"));
-    verify(bookRepository, times(1)).findById(nonexistentIsbn);
+    verify(bookRepository, times(1)).findByIdForUpdate(nonexistentIsbn);
     verify(bookRepository, never()).save(any(Book.class));
   }
 
@@ -152,19 +197,19 @@ class BookServiceTest {
   @DisplayName("書籍を削除できる")
   void testDeleteBook() {
     book1.setStock(0);
-    when(bookRepository.findById(book1.getIsbn())).thenReturn(Optional.of(book1));
+    when(bookRepository.findByIdForUpdate(book1.getIsbn())).thenReturn(Optional.of(book1));
     doNothing().when(bookRepository).deleteById(book1.getIsbn());
 
     bookService.deleteBook(book1.getIsbn());
 
-    verify(bookRepository, times(1)).findById(book1.getIsbn());
+    verify(bookRepository, times(1)).findByIdForUpdate(book1.getIsbn());
     verify(bookRepository, times(1)).deleteById(book1.getIsbn());
   }
 
   @Test
   @DisplayName("在庫のある書籍を削除しようとするとBookDeletionExceptionをスローする")
   void testDeleteBookWithStock() {
-    when(bookRepository.findById(book1.getIsbn())).thenReturn(Optional.of(book1));
+    when(bookRepository.findByIdForUpdate(book1.getIsbn())).thenReturn(Optional.of(book1));
 
     BookDeletionException thrown =
         assertThrows(
@@ -174,7 +219,7 @@ class BookServiceTest {
             });
 
     assertTrue(thrown.getMessage().contains("在庫のある書籍は削除できません"));
-    verify(bookRepository, times(1)).findById(book1.getIsbn());
+    verify(bookRepository, times(1)).findByIdForUpdate(book1.getIsbn());
     verify(bookRepository, never()).deleteById(anyString());
   }
 
@@ -182,7 +227,7 @@ class BookServiceTest {
   @DisplayName("削除対象の書籍が見つからない場合にBookNotFoundExceptionをスローする")
   void testDeleteBookNotFound() {
     String nonexistentIsbn = "nonexistent";
-    when(bookRepository.findById(nonexistentIsbn)).thenReturn(Optional.empty());
+    when(bookRepository.findByIdForUpdate(nonexistentIsbn)).thenReturn(Optional.empty());
 
     BookNotFoundException thrown =
         assertThrows(
@@ -192,7 +237,7 @@ class BookServiceTest {
             });
 
     assertTrue(thrown.getMessage().contains("書籍が見つかりません"));
-    verify(bookRepository, times(1)).findById(nonexistentIsbn);
+    verify(bookRepository, times(1)).findByIdForUpdate(nonexistentIsbn);
     verify(bookRepository, never()).deleteById(anyString());
   }
 }
@@ -0,0 +1,129 @@
+package com.example.demo.application.service.customer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.example.demo.application.dto.customer.CustomerImportResultDto;
+import com.example.demo.application.service.imports.ImportFormat;
+import com.example.demo.domain.model.customer.Customer;
+import com.example.demo.domain.repository.customer.CustomerRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerImportServiceTest {
+
+  @Mock private CustomerRepository customerRepository;
+
+  private CustomerImportService customerImportService;
+
+  private List<Customer> saved;
+
+  @BeforeEach
+  void setUp() {
+    customerImportService =
+        new CustomerImportService(
+            customerRepository,
+            new ObjectMapper(),
+            Validation.buildDefaultValidatorFactory().getValidator());
+    saved = new ArrayList<>();
+  }
+
+  @Test
+  @DisplayName("正規化したメールアドレスで既存の顧客を更新し、それ以外は新規登録する")
+  void testImportCustomers() {
+    UUID existingId = UUID.randomUUID();
+    when(customerRepository.findIdsByNormalizedEmails(anyCollection()))
+        .thenReturn(Map.of("john.doe@example.com", existingId));
+    captureSaved();
+
+    String csv =
+        "name,email\n"
+            + "John Doe, John.Doe@Example.com \n"
+            + "\"Smith, Jane\",jane.smith@example.com\n";
+
+    CustomerImportResultDto result = importCustomers(csv, ImportFormat.CSV);
+
+    assertEquals(1, result.getCreated());
+    assertEquals(1, result.getUpdated());
+    assertEquals(0, result.getRejected());
+    assertEquals(existingId, saved.get(0).getId());
+    assertEquals("john.doe@example.com", saved.get(0).getEmail());
+    assertEquals("Smith, Jane", saved.get(1).getName());
+    assertNotNull(saved.get(1).getId());
+    verify(customerRepository, times(1)).saveAll(anyList());
+  }
+
+  @Test
+  @DisplayName("入力内で重複するメールアドレスと不正な行は拒否する")
+  void testImportCustomersRejections() {
+    when(customerRepository.findIdsByNormalizedEmails(anyCollection())).thenReturn(Map.of());
+    captureSaved();
+
+    String ndjson =
+        "{\"name\":\"John Doe\",\"email\":\"john.doe@example.com\"}\n"
+            + "{\"name\":\"John D.\",\"email\":\"JOHN.DOE@example.com\"}\n"
+            + "{\"name\":\"\",\"email\":\"no-name@example.com\"}\n"
+            + "{\"name\":\"Bad Email\",\"email\":\"not-an-email\"}\n"
+            + "{broken\n";
+
+    CustomerImportResultDto result = importCustomers(ndjson, ImportFormat.NDJSON);
+
+    assertEquals(1, result.getCreated());
+    assertEquals(4, result.getRejected());
+    assertEquals(2, result.getRejections().get(0).getLine());
+    assertEquals("メールアドレスが重複しています", result.getRejections().get(0).getReason());
+    assertTrue(result.getRejections().get(1).getReason().startsWith("name: "));
+    assertTrue(result.getRejections().get(2).getReason().startsWith("email: "));
+    assertEquals("JSONとして解析できません", result.getRejections().get(3).getReason());
+    assertEquals(1, saved.size());
+  }
+
+  @Test
+  @DisplayName("一定件数ごとにまとめて登録する")
+  void testImportCustomersInChunks() {
+    when(customerRepository.findIdsByNormalizedEmails(anyCollection())).thenReturn(Map.of());
+    captureSaved();
+
+    StringBuilder csv = new StringBuilder();
+    int customers = CustomerImportService.CHUNK_SIZE * 2 + 1;
+    for (int i = 0; i < customers; i++) {
+      csv.append("Customer ").append(i).append(",customer").append(i).append("@example.com\n");
+    }
+
+    CustomerImportResultDto result = importCustomers(csv.toString(), ImportFormat.CSV);
+
+    assertEquals(customers, result.getCreated());
+    assertEquals(customers, saved.size());
+    verify(customerRepository, times(3)).findIdsByNormalizedEmails(anyCollection());
+    verify(customerRepository, times(3)).saveAll(anyList());
+  }
+
+  private void captureSaved() {
+    doAnswer(
+            invocation -> {
+              List<Customer> customers = invocation.getArgument(0);
+              saved.addAll(customers);
+              return null;
+            })
+        .when(customerRepository)
+        .saveAll(anyList());
+  }
+
+  private CustomerImportResultDto importCustomers(String content, ImportFormat format) {
+    return customerImportService.importCustomers(
+        new BufferedReader(new StringReader(content)), format);
+  }
+}
@@ -4,13 +4,15 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import com.example.demo.application.dto.customer.CustomerDto;
+import com.example.demo.application.dto.page.InvalidCursorException;
+import com.example.demo.application.dto.page.PageCursor;
+import com.example.demo.application.dto.page.PageDto;
 import com.example.demo.domain.model.customer.Customer;
 import com.example.demo.domain.repository.customer.CustomerRepository;
 import com.example.demo.presentation.request.customer.CreateCustomerRequest;
 import com.example.demo.presentation.request.customer.UpdateCustomerRequest;
 import java.time.LocalDateTime;
 import java.util.Arrays;
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
@@ -49,17 +51,30 @@ class CustomerServiceTest {
   }
 
   @Test
-  @DisplayName("すべての顧客を取得できる")
-  void testFindAllCustomers() {
-    when(customerRepository.findAll()).thenReturn(Arrays.asList(customer1, customer2));
+  @DisplayName("顧客をキーセットページネーションで取得できる")
+  void testFindCustomerPage() {
+    String cursor = PageCursor.encode(customer1.getId().toString());
+    when(customerRepository.findPage(customer1.getId(), PageCursor.DEFAULT_LIMIT + 1))
+        .thenReturn(Arrays.asList(customer2));
 
-    List<CustomerDto> result = customerService.findAllCustomers();
+    PageDto<CustomerDto> result = customerService.findCustomerPage(cursor, null);
 
-    assertNotNull(result);
-    assertEquals(2, result.size());
-    assertEquals(customer1.getId(), result.get(0).getId());
-    assertEquals(customer2.getId(), result.get(1).getId());
-    verify(customerRepository, times(1)).findAll();
+    assertEquals(1, result.getItems().size());
+    assertEquals(customer2.getId(), result.getItems().get(0).getId());
+    assertNull(result.getNextCursor());
+  }
+
+  @Test
+  @DisplayName("不正なカーソルを指定するとInvalidCursorExceptionをスローする")
+  void testFindCustomerPageInvalidCursor() {
+    String cursor = PageCursor.encode("not-a-uuid");
+
+    assertThrows(
+        InvalidCursorException.class,
+        () -> {
+          customerService.findCustomerPage(cursor, 10);
+        });
+    verify(customerRepository, never()).findPage(any(), anyInt());
   }
 
   @Test
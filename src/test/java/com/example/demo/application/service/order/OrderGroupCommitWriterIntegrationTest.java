@@ -0,0 +1,118 @@
+package com.example.demo.application.service.order;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.demo.application.dto.order.OrderDto;
+import com.example.demo.domain.exception.InsufficientStockException;
+import com.example.demo.domain.model.book.Book;
+import com.example.demo.domain.model.customer.Customer;
+import com.example.demo.domain.repository.book.BookRepository;
+import com.example.demo.domain.repository.customer.CustomerRepository;
+import com.example.demo.presentation.request.order.CreateOrderItemRequest;
+import com.example.demo.presentation.request.order.CreateOrderRequest;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = "app.order.group-commit.enabled=true")
+@ActiveProfiles("test")
+class OrderGroupCommitWriterIntegrationTest {
+
+  private static final int CLIENTS = 200;
+  private static final int STOCK = 150;
+
+  @Autowired private OrderGroupCommitWriter writer;
+
+  @Autowired private BookRepository bookRepository;
+
+  @Autowired private CustomerRepository customerRepository;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private Customer customer;
+  private Book book;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate.execute("DELETE FROM idempotency_key");
+    jdbcTemplate.execute("DELETE FROM order_queue");
+    jdbcTemplate.execute("DELETE FROM order_item");
+    jdbcTemplate.execute("DELETE FROM \"order\"");
+    jdbcTemplate.execute("DELETE FROM customer");
+    jdbcTemplate.execute("DELETE FROM book");
+
+    LocalDateTime now = LocalDateTime.now();
+    customer = new Customer(UUID.randomUUID(), "Test Customer", "test@example.com", now, now);
+    customerRepository.save(customer);
+
+    book = Book.create("9784297100339", "達人プログラマー", 3200, STOCK);
+    book.setCreatedAt(now);
+    book.setUpdatedAt(now);
+    bookRepository.save(book);
+  }
+
+  @Test
+  @DisplayName("200件の同時注文をまとめてコミットし、在庫を超えた注文だけが失敗する")
+  void testConcurrentOrders() throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+    List<Future<OrderDto>> futures = new ArrayList<>();
+    try {
+      for (int i = 0; i < CLIENTS; i++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  return writer.createOrder(request());
+                }));
+      }
+      start.countDown();
+
+      int created = 0;
+      int rejected = 0;
+      for (Future<OrderDto> future : futures) {
+        try {
+          assertNotNull(future.get(30, TimeUnit.SECONDS).getId());
+          created++;
+        } catch (ExecutionException e) {
+          assertInstanceOf(InsufficientStockException.class, e.getCause());
+          rejected++;
+        }
+      }
+      assertEquals(STOCK, created);
+      assertEquals(CLIENTS - STOCK, rejected);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(0, (int) bookRepository.findById(book.getIsbn()).get().getStock());
+    assertEquals(
+        STOCK, (int) jdbcTemplate.queryForObject("SELECT COUNT(*) FROM \"order\"", Integer.class));
+    assertEquals(
+        STOCK, (int) jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_item", Integer.class));
+  }
+
+  private CreateOrderRequest request() {
+    CreateOrderItemRequest item = new CreateOrderItemRequest();
+    item.setBookIsbn(book.getIsbn());
+    item.setQuantity(1);
+    CreateOrderRequest request = new CreateOrderRequest();
+    request.setCustomerId(customer.getId());
+    request.setOrderItems(List.of(item));
+    return request;
+  }
+}
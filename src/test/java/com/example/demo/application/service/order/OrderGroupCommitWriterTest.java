@@ -0,0 +1,189 @@
+package com.example.demo.application.service.order;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.example.demo.application.dto.order.OrderDto;
+import com.example.demo.application.service.order.OrderGroupCommitWriter.PendingOrder;
+import com.example.demo.domain.exception.InsufficientStockException;
+import com.example.demo.domain.repository.book.BookRepository;
+import com.example.demo.infrastructure.thread.WorkerThreads;
+import com.example.demo.presentation.request.order.CreateOrderItemRequest;
+import com.example.demo.presentation.request.order.CreateOrderRequest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionSystemException;
+
+@ExtendWith(MockitoExtension.class)
+class OrderGroupCommitWriterTest {
+
+  @Mock private OrderService orderService;
+
+  @Mock private BookRepository bookRepository;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  @Mock private TransactionStatus batchStatus;
+
+  private CreateOrderRequest request1;
+  private CreateOrderRequest request2;
+  private OrderDto order1;
+
+  @BeforeEach
+  void setUp() {
+    request1 = request("9784297100339", 1);
+    request2 = request("9784798157622", 99);
+    LocalDateTime now = LocalDateTime.now();
+    order1 =
+        new OrderDto(
+            UUID.randomUUID(), request1.getCustomerId(), now, "PENDING", null, now, now, List.of());
+  }
+
+  @Test
+  @DisplayName("無効な場合は呼び出し元のスレッドで注文を作成する")
+  void testCreateOrderDisabled() {
+    OrderGroupCommitWriter writer = writer(false, 64, Duration.ofMillis(5));
+    when(orderService.createOrder(request1)).thenReturn(order1);
+
+    writer.start();
+
+    assertSame(order1, writer.createOrder(request1));
+    assertFalse(writer.isRunning());
+    verifyNoInteractions(transactionManager);
+  }
+
+  @Test
+  @DisplayName("バッチを1トランザクションで書き込み、失敗した注文だけに例外を返す")
+  void testWriteIsolatesFailures() {
+    OrderGroupCommitWriter writer = writer(true, 64, Duration.ofMillis(5));
+    when(orderService.createOrder(request1)).thenReturn(order1);
+    InsufficientStockException shortage = new InsufficientStockException("在庫が不足しています");
+    when(orderService.createOrder(request2)).thenThrow(shortage);
+
+    PendingOrder pending1 = new PendingOrder(request1, new CompletableFuture<>());
+    PendingOrder pending2 = new PendingOrder(request2, new CompletableFuture<>());
+    writer.write(List.of(pending1, pending2));
+
+    assertSame(order1, pending1.future().join());
+    ExecutionException e = assertThrows(ExecutionException.class, () -> pending2.future().get());
+    assertSame(shortage, e.getCause());
+    // 書籍のロックはバッチ全体で1回だけ、ISBN順に取得する
+    InOrder inOrder = inOrder(bookRepository, orderService);
+    inOrder.verify(bookRepository).lockByIsbns(Set.of("9784297100339", "9784798157622"));
+    inOrder.verify(orderService).createOrder(request1);
+    // バッチ全体で1回、注文ごとにセーブポイントを1回ずつ
+    verify(transactionManager, times(1))
+        .getTransaction(
+            argThat(d -> d.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRED));
+    verify(transactionManager, times(2))
+        .getTransaction(
+            argThat(d -> d.getPropagationBehavior() == TransactionDefinition.PROPAGATION_NESTED));
+  }
+
+  @Test
+  @DisplayName("コミットに失敗した場合はバッチ内のすべての注文に例外を返す")
+  void testWriteCommitFailure() {
+    OrderGroupCommitWriter writer = writer(true, 64, Duration.ofMillis(5));
+    when(transactionManager.getTransaction(
+            argThat(d -> d.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRED)))
+        .thenReturn(batchStatus);
+    TransactionSystemException commitFailure = new TransactionSystemException("commit failed");
+    doThrow(commitFailure).when(transactionManager).commit(batchStatus);
+    when(orderService.createOrder(request1)).thenReturn(order1);
+
+    PendingOrder pending1 = new PendingOrder(request1, new CompletableFuture<>());
+    writer.write(List.of(pending1));
+
+    ExecutionException e = assertThrows(ExecutionException.class, () -> pending1.future().get());
+    assertSame(commitFailure, e.getCause());
+  }
+
+  @Test
+  @DisplayName("同時に届いた注文をまとめて書き込み、それぞれの呼び出し元に結果を返す")
+  void testCreateOrderGroupsConcurrentCalls() throws Exception {
+    int callers = 5;
+    OrderGroupCommitWriter writer = writer(true, callers, Duration.ofSeconds(5));
+    when(orderService.createOrder(any(CreateOrderRequest.class)))
+        .thenAnswer(
+            invocation -> {
+              CreateOrderRequest request = invocation.getArgument(0);
+              LocalDateTime now = LocalDateTime.now();
+              return new OrderDto(
+                  UUID.randomUUID(),
+                  request.getCustomerId(),
+                  now,
+                  "PENDING",
+                  null,
+                  now,
+                  now,
+                  List.of());
+            });
+
+    writer.start();
+    ExecutorService executor = Executors.newFixedThreadPool(callers);
+    try {
+      List<CreateOrderRequest> requests = new ArrayList<>();
+      List<Future<OrderDto>> futures = new ArrayList<>();
+      for (int i = 0; i < callers; i++) {
+        CreateOrderRequest request = request("9784297100339", 1);
+        requests.add(request);
+        futures.add(executor.submit(() -> writer.createOrder(request)));
+      }
+      for (int i = 0; i < callers; i++) {
+        OrderDto created = futures.get(i).get(5, TimeUnit.SECONDS);
+        assertEquals(requests.get(i).getCustomerId(), created.getCustomerId());
+      }
+    } finally {
+      executor.shutdownNow();
+      writer.stop();
+    }
+
+    verify(transactionManager, times(1))
+        .getTransaction(
+            argThat(d -> d.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRED));
+    verify(orderService, times(callers)).createOrder(any(CreateOrderRequest.class));
+  }
+
+  private OrderGroupCommitWriter writer(boolean enabled, int maxBatchSize, Duration maxDelay) {
+    return new OrderGroupCommitWriter(
+        orderService,
+        bookRepository,
+        transactionManager,
+        new WorkerThreads(false),
+        enabled,
+        maxBatchSize,
+        maxDelay,
+        1000);
+  }
+
+  private static CreateOrderRequest request(String isbn, int quantity) {
+    CreateOrderItemRequest item = new CreateOrderItemRequest();
+    item.setBookIsbn(isbn);
+    item.setQuantity(quantity);
+    CreateOrderRequest request = new CreateOrderRequest();
+    request.setCustomerId(UUID.randomUUID());
+    request.setOrderItems(List.of(item));
+    return request;
+  }
+}
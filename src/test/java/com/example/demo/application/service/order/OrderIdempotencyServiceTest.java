@@ -0,0 +1,220 @@
+package com.example.demo.application.service.order;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.example.demo.application.dto.order.OrderCreationResultDto;
+import com.example.demo.application.dto.order.OrderDto;
+import com.example.demo.domain.model.idempotency.IdempotencyKey;
+import com.example.demo.domain.repository.idempotency.IdempotencyKeyRepository;
+import com.example.demo.presentation.request.order.CreateOrderItemRequest;
+import com.example.demo.presentation.request.order.CreateOrderRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIdempotencyServiceTest {
+
+  private static final String KEY = "7f3c1b2e-order-key";
+
+  @Mock private OrderService orderService;
+
+  @Mock private IdempotencyKeyRepository idempotencyKeyRepository;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private ObjectMapper objectMapper;
+  private OrderIdempotencyService service;
+  private CreateOrderRequest request;
+  private OrderDto orderDto;
+
+  @BeforeEach
+  void setUp() {
+    objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    service =
+        new OrderIdempotencyService(
+            orderService,
+            idempotencyKeyRepository,
+            new TransactionTemplate(transactionManager),
+            objectMapper,
+            Duration.ofHours(24));
+
+    CreateOrderItemRequest item = new CreateOrderItemRequest();
+    item.setBookIsbn("9784297100339");
+    item.setQuantity(2);
+    request = new CreateOrderRequest();
+    request.setCustomerId(UUID.randomUUID());
+    request.setOrderItems(List.of(item));
+
+    LocalDateTime now = LocalDateTime.now();
+    orderDto =
+        new OrderDto(
+            UUID.randomUUID(), request.getCustomerId(), now, "PENDING", null, now, now, List.of());
+  }
+
+  @Test
+  @DisplayName("新しいキーでは注文を作成し、レスポンスをキーに保存する")
+  void testCreateOrderStoresResponse() throws Exception {
+    when(idempotencyKeyRepository.findById(KEY)).thenReturn(Optional.empty());
+    when(idempotencyKeyRepository.claim(any(IdempotencyKey.class))).thenReturn(true);
+    when(orderService.createOrder(request)).thenReturn(orderDto);
+
+    OrderCreationResultDto result = service.createOrder(KEY, request);
+
+    assertFalse(result.isReplayed());
+    assertEquals(orderDto.getId(), result.getOrder().getId());
+    ArgumentCaptor<IdempotencyKey> captor = ArgumentCaptor.forClass(IdempotencyKey.class);
+    verify(idempotencyKeyRepository).complete(captor.capture());
+    assertEquals(KEY, captor.getValue().getId());
+    assertEquals(
+        orderDto.getId(),
+        objectMapper.readValue(captor.getValue().getResponseBody(), OrderDto.class).getId());
+  }
+
+  @Test
+  @DisplayName("処理済みのキーでは保存済みのレスポンスを返し、注文を作成しない")
+  void testCreateOrderReplaysStoredResponse() throws Exception {
+    IdempotencyKey stored = completedKey(request);
+    when(idempotencyKeyRepository.findById(KEY)).thenReturn(Optional.of(stored));
+
+    OrderCreationResultDto result = service.createOrder(KEY, request);
+
+    assertTrue(result.isReplayed());
+    assertEquals(orderDto.getId(), result.getOrder().getId());
+    verifyNoInteractions(orderService, transactionManager);
+    verify(idempotencyKeyRepository, never()).claim(any());
+  }
+
+  @Test
+  @DisplayName("処理済みのキーを異なる内容のリクエストで使うと例外をスローする")
+  void testCreateOrderMismatchedRequest() throws Exception {
+    IdempotencyKey stored = completedKey(request);
+    when(idempotencyKeyRepository.findById(KEY)).thenReturn(Optional.of(stored));
+    request.getOrderItems().get(0).setQuantity(3);
+
+    assertThrows(IdempotencyKeyMismatchException.class, () -> service.createOrder(KEY, request));
+    verifyNoInteractions(orderService);
+  }
+
+  @Test
+  @DisplayName("期限切れのキーは新しいリクエストとして処理する")
+  void testCreateOrderExpiredKey() throws Exception {
+    IdempotencyKey stored = completedKey(request);
+    stored.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+    when(idempotencyKeyRepository.findById(KEY)).thenReturn(Optional.of(stored));
+    when(idempotencyKeyRepository.claim(any(IdempotencyKey.class))).thenReturn(true);
+    when(orderService.createOrder(request)).thenReturn(orderDto);
+
+    assertFalse(service.createOrder(KEY, request).isReplayed());
+    verify(orderService).createOrder(request);
+  }
+
+  @Test
+  @DisplayName("別のインスタンスが同じキーを処理済みの場合は、確保に失敗した後に保存済みのレスポンスを返す")
+  void testCreateOrderClaimedByOtherInstance() throws Exception {
+    IdempotencyKey stored = completedKey(request);
+    when(idempotencyKeyRepository.findById(KEY))
+        .thenReturn(Optional.empty())
+        .thenReturn(Optional.of(stored));
+    when(idempotencyKeyRepository.claim(any(IdempotencyKey.class))).thenReturn(false);
+
+    OrderCreationResultDto result = service.createOrder(KEY, request);
+
+    assertTrue(result.isReplayed());
+    verifyNoInteractions(orderService);
+    verify(idempotencyKeyRepository, never()).complete(any());
+  }
+
+  @Test
+  @DisplayName("同じキーの同時リクエストは先行リクエストの完了を待ち、注文は1回だけ作成する")
+  void testCreateOrderConcurrentDuplicates() throws Exception {
+    AtomicReference<IdempotencyKey> completed = new AtomicReference<>();
+    when(idempotencyKeyRepository.findById(KEY))
+        .thenAnswer(invocation -> Optional.ofNullable(completed.get()));
+    when(idempotencyKeyRepository.claim(any(IdempotencyKey.class))).thenReturn(true);
+    doAnswer(
+            invocation -> {
+              completed.set(invocation.getArgument(0));
+              return null;
+            })
+        .when(idempotencyKeyRepository)
+        .complete(any(IdempotencyKey.class));
+
+    CountDownLatch creating = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(orderService.createOrder(request))
+        .thenAnswer(
+            invocation -> {
+              creating.countDown();
+              assertTrue(release.await(5, TimeUnit.SECONDS));
+              return orderDto;
+            });
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<OrderCreationResultDto> first =
+          executor.submit(() -> service.createOrder(KEY, request));
+      assertTrue(creating.await(5, TimeUnit.SECONDS));
+      Future<OrderCreationResultDto> second =
+          executor.submit(() -> service.createOrder(KEY, request));
+
+      // 後続リクエストは先行リクエストが完了するまで戻らない
+      assertThrows(TimeoutException.class, () -> second.get(200, TimeUnit.MILLISECONDS));
+      release.countDown();
+
+      assertFalse(first.get(5, TimeUnit.SECONDS).isReplayed());
+      OrderCreationResultDto replayed = second.get(5, TimeUnit.SECONDS);
+      assertTrue(replayed.isReplayed());
+      assertEquals(orderDto.getId(), replayed.getOrder().getId());
+    } finally {
+      executor.shutdownNow();
+    }
+    verify(orderService, times(1)).createOrder(request);
+    verify(idempotencyKeyRepository, times(1)).claim(any(IdempotencyKey.class));
+  }
+
+  @Test
+  @DisplayName("期限切れのキーを削除する")
+  void testDeleteExpiredKeys() {
+    when(idempotencyKeyRepository.deleteExpired(any(LocalDateTime.class))).thenReturn(3);
+
+    service.deleteExpiredKeys();
+
+    verify(idempotencyKeyRepository).deleteExpired(any(LocalDateTime.class));
+  }
+
+  private IdempotencyKey completedKey(CreateOrderRequest original) throws Exception {
+    IdempotencyKey key = IdempotencyKey.create(KEY, hash(original), Duration.ofHours(24));
+    key.setResponseBody(objectMapper.writeValueAsString(orderDto));
+    return key;
+  }
+
+  private String hash(CreateOrderRequest original) throws Exception {
+    MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(original)));
+  }
+}
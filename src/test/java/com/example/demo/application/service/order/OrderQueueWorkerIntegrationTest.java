@@ -0,0 +1,136 @@
+package com.example.demo.application.service.order;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.example.demo.application.dto.order.OrderDto;
+import com.example.demo.domain.model.book.Book;
+import com.example.demo.domain.model.customer.Customer;
+import com.example.demo.domain.model.order.Order.OrderStatus;
+import com.example.demo.domain.repository.book.BookRepository;
+import com.example.demo.domain.repository.customer.CustomerRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"app.order.async.enabled=true", "app.order.async.poll-interval=50ms"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderQueueWorkerIntegrationTest {
+
+  private static final long TIMEOUT_MILLIS = 10_000;
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private BookRepository bookRepository;
+
+  @Autowired private CustomerRepository customerRepository;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  private Customer customer;
+  private Book book;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate.execute("DELETE FROM idempotency_key");
+    jdbcTemplate.execute("DELETE FROM order_queue");
+    jdbcTemplate.execute("DELETE FROM order_item");
+    jdbcTemplate.execute("DELETE FROM \"order\"");
+    jdbcTemplate.execute("DELETE FROM customer");
+    jdbcTemplate.execute("DELETE FROM book");
+
+    LocalDateTime now = LocalDateTime.now();
+    customer = new Customer(UUID.randomUUID(), "Test Customer", "test@example.com", now, now);
+    customerRepository.save(customer);
+
+    book = Book.create("9784297100339", "達人プログラマー", 3200, 3);
+    book.setCreatedAt(now);
+    book.setUpdatedAt(now);
+    bookRepository.save(book);
+  }
+
+  @Test
+  @DisplayName("POST /api/orders - Prefer: respond-async で受け付けた注文は在庫を確保できればPENDINGになる")
+  void testAcceptOrderConfirmed() throws Exception {
+    OrderDto accepted = accept(2);
+    assertEquals(OrderStatus.ACCEPTED.name(), accepted.getStatus());
+
+    awaitStatus(accepted.getId(), OrderStatus.PENDING);
+    assertEquals(1, (int) bookRepository.findById(book.getIsbn()).get().getStock());
+    assertEquals(
+        0, (int) jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_queue", Integer.class));
+  }
+
+  @Test
+  @DisplayName("POST /api/orders - Prefer: respond-async で受け付けた注文は在庫が不足していればREJECTEDになる")
+  void testAcceptOrderRejected() throws Exception {
+    OrderDto accepted = accept(4);
+
+    awaitStatus(accepted.getId(), OrderStatus.REJECTED);
+    mockMvc
+        .perform(get("/api/orders/{id}", accepted.getId()))
+        .andExpect(jsonPath("$.rejectionReason", startsWith("在庫が不足しています")));
+    assertEquals(3, (int) bookRepository.findById(book.getIsbn()).get().getStock());
+  }
+
+  private OrderDto accept(int quantity) throws Exception {
+    String orderJson =
+        "{\"customerId\":\""
+            + customer.getId()
+            + "\",\"orderItems\":[{\"bookIsbn\":\""
+            + book.getIsbn()
+            + "\",\"quantity\":"
+            + quantity
+            + "}]}";
+    String body =
+        mockMvc
+            .perform(
+                post("/api/orders")
+                    .header("Prefer", "respond-async")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(orderJson))
+            .andExpect(status().isAccepted())
+            .andExpect(header().string("Preference-Applied", "respond-async"))
+            .andExpect(header().string("Location", containsString("/api/orders/")))
+            .andReturn()
+            .getResponse()
+            .getContentAsString(StandardCharsets.UTF_8);
+    return objectMapper.readValue(body, OrderDto.class);
+  }
+
+  private void awaitStatus(UUID orderId, OrderStatus expected) throws Exception {
+    long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+    while (true) {
+      String body =
+          mockMvc
+              .perform(get("/api/orders/{id}", orderId))
+              .andExpect(status().isOk())
+              .andReturn()
+              .getResponse()
+              .getContentAsString(StandardCharsets.UTF_8);
+      if (expected.name().equals(objectMapper.readValue(body, OrderDto.class).getStatus())) {
+        return;
+      }
+      assertTrue(System.currentTimeMillis() < deadline, "注文が処理されませんでした");
+      Thread.sleep(50);
+    }
+  }
+}
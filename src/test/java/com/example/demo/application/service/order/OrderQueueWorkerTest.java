@@ -0,0 +1,177 @@
+package com.example.demo.application.service.order;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.example.demo.domain.exception.InsufficientStockException;
+import com.example.demo.domain.model.order.Order;
+import com.example.demo.domain.model.order.Order.OrderStatus;
+import com.example.demo.domain.repository.order.OrderRepository;
+import com.example.demo.domain.service.BookDomainService;
+import com.example.demo.infrastructure.thread.WorkerThreads;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+@ExtendWith(MockitoExtension.class)
+class OrderQueueWorkerTest {
+
+  @Mock private OrderRepository orderRepository;
+
+  @Mock private BookDomainService bookDomainService;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private OrderQueueWorker worker;
+  private Order order1;
+  private Order order2;
+
+  @BeforeEach
+  void setUp() {
+    worker =
+        new OrderQueueWorker(
+            orderRepository,
+            bookDomainService,
+            transactionManager,
+            new WorkerThreads(false),
+            true,
+            1,
+            10,
+            Duration.ofMillis(100));
+
+    order1 = Order.create(UUID.randomUUID());
+    order1.addOrderItem("9784297100339", 2);
+    order1.accept();
+    order2 = Order.create(UUID.randomUUID());
+    order2.addOrderItem("9784798157622", 9);
+    order2.accept();
+  }
+
+  @Test
+  @DisplayName("在庫を確保できた注文はPENDING、確保できなかった注文はREJECTEDにしてキューから削除する")
+  void testProcessBatch() {
+    when(orderRepository.findQueuedForUpdate(1))
+        .thenReturn(List.of(order1), List.of(order2), List.of());
+    doNothing().when(bookDomainService).reserveStock(anyMap());
+    doThrow(new InsufficientStockException("在庫が不足しています"))
+        .when(bookDomainService)
+        .reserveStock(eq(Map.of("9784798157622", 9)));
+
+    assertEquals(2, worker.processBatch());
+
+    assertEquals(OrderStatus.PENDING.name(), order1.getStatus());
+    assertNull(order1.getRejectionReason());
+    assertEquals(OrderStatus.REJECTED.name(), order2.getStatus());
+    assertEquals("在庫が不足しています", order2.getRejectionReason());
+    verify(orderRepository).update(order1);
+    verify(orderRepository).update(order2);
+    verify(orderRepository).dequeue(List.of(order1.getId()));
+    verify(orderRepository).dequeue(List.of(order2.getId()));
+    // 注文ごとに別のトランザクションでコミットする
+    verify(transactionManager, times(3))
+        .getTransaction(
+            argThat(
+                definition ->
+                    definition.getPropagationBehavior()
+                        == TransactionDefinition.PROPAGATION_REQUIRED));
+  }
+
+  @Test
+  @DisplayName("1バッチの件数に達したら、キューに注文が残っていても処理を終える")
+  void testProcessBatchLimit() {
+    OrderQueueWorker limited =
+        new OrderQueueWorker(
+            orderRepository,
+            bookDomainService,
+            transactionManager,
+            new WorkerThreads(false),
+            true,
+            1,
+            1,
+            Duration.ofMillis(100));
+    when(orderRepository.findQueuedForUpdate(1)).thenReturn(List.of(order1));
+
+    assertEquals(1, limited.processBatch());
+
+    verify(orderRepository, times(1)).findQueuedForUpdate(1);
+    verify(orderRepository).dequeue(List.of(order1.getId()));
+  }
+
+  @Test
+  @DisplayName("予期しない例外が発生した注文はREJECTEDにしてキューから削除し、残りの注文の処理を続ける")
+  void testProcessBatchUnexpectedError() {
+    when(orderRepository.findQueuedForUpdate(1))
+        .thenReturn(List.of(order1), List.of(order2), List.of());
+    doThrow(new IllegalStateException("想定外のエラー"))
+        .when(bookDomainService)
+        .reserveStock(eq(Map.of("9784297100339", 2)));
+    doNothing().when(bookDomainService).reserveStock(eq(Map.of("9784798157622", 9)));
+
+    assertEquals(2, worker.processBatch());
+
+    assertEquals(OrderStatus.REJECTED.name(), order1.getStatus());
+    assertEquals(OrderQueueWorker.UNEXPECTED_ERROR_REASON, order1.getRejectionReason());
+    assertEquals(OrderStatus.PENDING.name(), order2.getStatus());
+    verify(orderRepository).update(order1);
+    verify(orderRepository).update(order2);
+    verify(orderRepository).dequeue(List.of(order1.getId()));
+    verify(orderRepository).dequeue(List.of(order2.getId()));
+  }
+
+  @Test
+  @DisplayName("一時的なデータアクセスエラーは注文のトランザクションを失敗させ、注文をキューに残す")
+  void testProcessBatchTransientError() {
+    when(orderRepository.findQueuedForUpdate(1)).thenReturn(List.of(order1));
+    doThrow(new CannotAcquireLockException("deadlock detected"))
+        .when(bookDomainService)
+        .reserveStock(anyMap());
+
+    assertThrows(CannotAcquireLockException.class, () -> worker.processBatch());
+
+    assertEquals(OrderStatus.ACCEPTED.name(), order1.getStatus());
+    verify(orderRepository, never()).update(any());
+    verify(orderRepository, never()).dequeue(any());
+  }
+
+  @Test
+  @DisplayName("キューが空の場合は何もしない")
+  void testProcessBatchEmpty() {
+    when(orderRepository.findQueuedForUpdate(1)).thenReturn(List.of());
+
+    assertEquals(0, worker.processBatch());
+
+    verifyNoInteractions(bookDomainService);
+    verify(orderRepository, never()).update(any());
+  }
+
+  @Test
+  @DisplayName("無効な場合はワーカーを起動しない")
+  void testStartDisabled() {
+    OrderQueueWorker disabled =
+        new OrderQueueWorker(
+            orderRepository,
+            bookDomainService,
+            transactionManager,
+            new WorkerThreads(false),
+            false,
+            1,
+            10,
+            Duration.ofMillis(100));
+
+    disabled.start();
+
+    assertFalse(disabled.isRunning());
+    assertFalse(disabled.isEnabled());
+    verifyNoInteractions(orderRepository);
+  }
+}
@@ -4,10 +4,11 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import com.example.demo.application.dto.order.OrderDto;
+import com.example.demo.application.dto.page.PageCursor;
+import com.example.demo.application.dto.page.PageDto;
 import com.example.demo.domain.exception.InsufficientStockException;
 import com.example.demo.domain.exception.OrderNotFoundException;
 import com.example.demo.domain.exception.OrderStateException;
-import com.example.demo.domain.model.book.Book;
 import com.example.demo.domain.model.order.Order;
 import com.example.demo.domain.model.order.Order.OrderStatus;
 import com.example.demo.domain.model.order.OrderItem;
@@ -17,16 +18,23 @@ import com.example.demo.domain.repository.order.OrderRepository;
 import com.example.demo.domain.service.BookDomainService;
 import com.example.demo.presentation.request.order.CreateOrderItemRequest;
 import com.example.demo.presentation.request.order.CreateOrderRequest;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -49,8 +57,6 @@ class OrderServiceTest {
   private OrderItem orderItem1;
   private OrderItem orderItem2;
   private CreateOrderRequest createRequest;
-  private Book bookInStock;
-  private Book bookOutOfStock;
 
   @BeforeEach
   void setUp() {
@@ -96,46 +102,54 @@ class OrderServiceTest {
     createRequest = new CreateOrderRequest();
     createRequest.setCustomerId(customerId);
     createRequest.setOrderItems(Arrays.asList(createOrderItemRequest1));
+  }
+
+  @Test
+  @DisplayName("注文をキーセットページネーションで取得できる")
+  void testFindOrderPage() {
+    when(orderRepository.findPage(null, 2)).thenReturn(Arrays.asList(order1, order2));
 
-    bookInStock = Book.create("9784873119045", "Effective Java 第3版", 4950, 10);
-    bookInStock.setCreatedAt(now);
-    bookInStock.setUpdatedAt(now);
+    PageDto<OrderDto> result = orderService.findOrderPage(null, 1);
 
-    bookOutOfStock = Book.create("9784873119045", "Effective Java 第3版", 4950, 2);
-    bookOutOfStock.setCreatedAt(now);
-    bookOutOfStock.setUpdatedAt(now);
+    assertEquals(1, result.getItems().size());
+    assertEquals(order1.getId(), result.getItems().get(0).getId());
+    assertEquals(2, result.getItems().get(0).getOrderItems().size());
+    assertEquals(order1.getId(), PageCursor.decodeUuid(result.getNextCursor()));
   }
 
   @Test
-  @DisplayName("すべての注文を取得できる")
-  void testFindAllOrders() {
-    when(orderRepository.findAll()).thenReturn(Arrays.asList(order1, order2));
-    when(orderItemRepository.findByOrderId(order1.getId())).thenReturn(order1.getOrderItems());
-    when(orderItemRepository.findByOrderId(order2.getId())).thenReturn(order2.getOrderItems());
+  @DisplayName("すべての注文を1件ずつエクスポートできる")
+  void testExportOrders() {
+    doAnswer(
+            invocation -> {
+              Consumer<Order> action = invocation.getArgument(0);
+              action.accept(order1);
+              action.accept(order2);
+              return null;
+            })
+        .when(orderRepository)
+        .forEach(any());
 
-    List<OrderDto> result = orderService.findAllOrders();
+    List<OrderDto> exported = new ArrayList<>();
+    orderService.exportOrders(exported::add);
 
-    assertNotNull(result);
-    assertEquals(2, result.size());
-    assertEquals(order1.getId(), result.get(0).getId());
-    assertEquals(order2.getId(), result.get(1).getId());
-    verify(orderRepository, times(1)).findAll();
-    verify(orderItemRepository, times(1)).findByOrderId(order1.getId());
-    verify(orderItemRepository, times(1)).findByOrderId(order2.getId());
+    assertEquals(2, exported.size());
+    assertEquals(order1.getId(), exported.get(0).getId());
+    assertEquals(2, exported.get(0).getOrderItems().size());
   }
 
   @Test
   @DisplayName("IDで注文を1件取得できる")
   void testFindOrderByIdFound() {
     when(orderRepository.findById(order1.getId())).thenReturn(Optional.of(order1));
-    when(orderItemRepository.findByOrderId(order1.getId())).thenReturn(order1.getOrderItems());
 
     OrderDto result = orderService.findOrderById(order1.getId());
 
     assertNotNull(result);
     assertEquals(order1.getId(), result.getId());
+    assertEquals(2, result.getOrderItems().size());
     verify(orderRepository, times(1)).findById(order1.getId());
-    verify(orderItemRepository, times(1)).findByOrderId(order1.getId());
+    verify(orderItemRepository, never()).findByOrderId(any(UUID.class));
   }
 
   @Test
@@ -167,8 +181,8 @@ class OrderServiceTest {
             })
         .when(orderRepository)
         .insert(any(Order.class));
-    doNothing().when(orderItemRepository).save(any(OrderItem.class));
-    when(bookDomainService.validateAndDecreaseStock(anyString(), anyInt())).thenReturn(bookInStock);
+    doNothing().when(orderItemRepository).saveAll(anyList());
+    doNothing().when(bookDomainService).reserveStock(anyMap());
 
     OrderDto result = orderService.createOrder(createRequest);
 
@@ -178,15 +192,52 @@ class OrderServiceTest {
     assertEquals(OrderStatus.PENDING.name(), result.getStatus());
     assertEquals(1, result.getOrderItems().size());
     verify(orderRepository, times(1)).insert(any(Order.class));
-    verify(orderItemRepository, times(1)).save(any(OrderItem.class));
-    verify(bookDomainService, times(1)).validateAndDecreaseStock(anyString(), anyInt());
+    verify(orderItemRepository, times(1)).saveAll(anyList());
+    verify(bookDomainService, times(1)).reserveStock(Map.of("9784873119045", 3));
+  }
+
+  @Test
+  @DisplayName("同じISBNの注文明細は1つにまとめて在庫を確保する")
+  void testCreateOrderMergesDuplicateIsbn() {
+    CreateOrderItemRequest item1 = new CreateOrderItemRequest();
+    item1.setBookIsbn("9784873119045");
+    item1.setQuantity(1);
+    CreateOrderItemRequest item2 = new CreateOrderItemRequest();
+    item2.setBookIsbn("9784297100339");
+    item2.setQuantity(2);
+    CreateOrderItemRequest item3 = new CreateOrderItemRequest();
+    item3.setBookIsbn("9784873119045");
+    item3.setQuantity(4);
+    createRequest.setOrderItems(Arrays.asList(item1, item2, item3));
+
+    OrderDto result = orderService.createOrder(createRequest);
+
+    assertEquals(2, result.getOrderItems().size());
+    assertEquals(5, result.getOrderItems().get(0).getQuantity());
+    verify(bookDomainService, times(1))
+        .reserveStock(Map.of("9784873119045", 5, "9784297100339", 2));
+    verify(orderItemRepository, times(1)).saveAll(argThat(items -> items.size() == 2));
+  }
+
+  @Test
+  @DisplayName("非同期で受け付けた注文は在庫を確保せずにACCEPTEDでキューに追加する")
+  void testAcceptOrder() {
+    OrderDto result = orderService.acceptOrder(createRequest);
+
+    assertEquals(OrderStatus.ACCEPTED.name(), result.getStatus());
+    assertEquals(1, result.getOrderItems().size());
+    verify(orderRepository, times(1)).insert(any(Order.class));
+    verify(orderItemRepository, times(1)).saveAll(anyList());
+    verify(orderRepository, times(1)).enqueue(result.getId());
+    verifyNoInteractions(bookDomainService);
   }
 
   @Test
   @DisplayName("在庫が不足している場合にInsufficientStockExceptionをスローする")
   void testCreateOrderInsufficientStock() {
-    when(bookDomainService.validateAndDecreaseStock(anyString(), anyInt()))
-        .thenThrow(new InsufficientStockException("在庫が不足しています"));
+    doThrow(new InsufficientStockException("在庫が不足しています"))
+        .when(bookDomainService)
+        .reserveStock(anyMap());
 
     InsufficientStockException thrown =
         assertThrows(
@@ -196,26 +247,60 @@ class OrderServiceTest {
             });
 
     assertTrue(thrown.getMessage().contains("在庫が不足しています"));
-    verify(orderRepository, times(1)).insert(any(Order.class));
-    verify(orderItemRepository, never()).save(any(OrderItem.class));
-    verify(bookDomainService, times(1)).validateAndDecreaseStock(anyString(), anyInt());
+    verify(orderRepository, never()).insert(any(Order.class));
+    verify(orderItemRepository, never()).saveAll(anyList());
+    verify(bookDomainService, times(1)).reserveStock(anyMap());
+  }
+
+  @Test
+  @DisplayName("JFRの記録中は注文作成の段階ごとの処理時間と結果をイベントとして記録する")
+  void testCreateOrderRecordsJfrEvents(@TempDir Path tempDir) throws Exception {
+    List<RecordedEvent> events;
+    try (Recording recording = new Recording()) {
+      recording.enable("com.example.demo.OrderStage");
+      recording.enable("com.example.demo.OrderOperation");
+      recording.start();
+
+      OrderDto result = orderService.createOrder(createRequest);
+
+      recording.stop();
+      Path file = tempDir.resolve("order.jfr");
+      recording.dump(file);
+      events = RecordingFile.readAllEvents(file);
+
+      List<String> stages =
+          events.stream()
+              .filter(
+                  event -> event.getEventType().getName().equals("com.example.demo.OrderStage"))
+              .map(event -> event.getString("stage"))
+              .toList();
+      assertEquals(
+          List.of("validation", "stock-reservation", "order-insert", "item-insert"), stages);
+
+      RecordedEvent operation =
+          events.stream()
+              .filter(
+                  event -> event.getEventType().getName().equals("com.example.demo.OrderOperation"))
+              .findFirst()
+              .orElseThrow();
+      assertEquals("placement", operation.getString("operation"));
+      assertEquals(result.getId().toString(), operation.getString("orderId"));
+      assertEquals(1, operation.getInt("lines"));
+      assertTrue(operation.getBoolean("succeeded"));
+    }
   }
 
   @Test
   @DisplayName("注文を削除できる（在庫が元に戻ることを含む）")
   void testDeleteOrder() {
     when(orderRepository.findById(order1.getId())).thenReturn(Optional.of(order1));
-    when(orderItemRepository.findByOrderId(order1.getId())).thenReturn(order1.getOrderItems());
     doNothing().when(orderItemRepository).deleteByOrderId(order1.getId());
     doNothing().when(orderRepository).deleteById(order1.getId());
-
-    Book updatedBook = Book.create(orderItem1.getBookIsbn(), "Test Book", 100, 5);
-    when(bookDomainService.validateAndIncreaseStock(anyString(), anyInt())).thenReturn(updatedBook);
+    doNothing().when(bookDomainService).validateAndIncreaseStock(anyString(), anyInt());
 
     orderService.deleteOrder(order1.getId());
 
     verify(orderRepository, times(1)).findById(order1.getId());
-    verify(orderItemRepository, times(1)).findByOrderId(order1.getId());
     verify(bookDomainService, times(2)).validateAndIncreaseStock(anyString(), anyInt());
     verify(orderItemRepository, times(1)).deleteByOrderId(order1.getId());
     verify(orderRepository, times(1)).deleteById(order1.getId());
@@ -225,7 +310,6 @@ class OrderServiceTest {
   @DisplayName("出荷済み注文を削除しようとするとOrderStateExceptionをスローする")
   void testDeleteShippedOrder() {
     when(orderRepository.findById(order2.getId())).thenReturn(Optional.of(order2));
-    when(orderItemRepository.findByOrderId(order2.getId())).thenReturn(Collections.emptyList());
 
     OrderStateException thrown =
         assertThrows(
@@ -236,7 +320,6 @@ class OrderServiceTest {
 
     assertTrue(thrown.getMessage().contains("この操作は注文のステータスが"));
     verify(orderRepository, times(1)).findById(order2.getId());
-    verify(orderItemRepository, times(1)).findByOrderId(order2.getId());
     verify(bookDomainService, never()).validateAndIncreaseStock(anyString(), anyInt());
     verify(orderItemRepository, never()).deleteByOrderId(any(UUID.class));
     verify(orderRepository, never()).deleteById(any(UUID.class));
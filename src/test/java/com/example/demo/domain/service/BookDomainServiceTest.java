@@ -0,0 +1,179 @@
+package com.example.demo.domain.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.example.demo.domain.exception.BookNotFoundException;
+import com.example.demo.domain.exception.InsufficientStockException;
+import com.example.demo.domain.model.book.Book;
+import com.example.demo.domain.repository.book.BookRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BookDomainServiceTest {
+
+  @Mock private BookRepository bookRepository;
+
+  @InjectMocks private BookDomainService bookDomainService;
+
+  private Book book;
+
+  @BeforeEach
+  void setUp() {
+    book = Book.create("9784297100339", "達人プログラマー", 3200, 2);
+  }
+
+  @Test
+  @DisplayName("在庫が足りる場合は1回の更新で在庫を減らす")
+  void testDecreaseStock() {
+    when(bookRepository.decreaseStock(book.getIsbn(), 2)).thenReturn(true);
+
+    bookDomainService.validateAndDecreaseStock(book.getIsbn(), 2);
+
+    verify(bookRepository, times(1)).decreaseStock(book.getIsbn(), 2);
+    verify(bookRepository, never()).findById(anyString());
+  }
+
+  @Test
+  @DisplayName("在庫が不足している場合にInsufficientStockExceptionをスローする")
+  void testDecreaseStockInsufficient() {
+    when(bookRepository.decreaseStock(book.getIsbn(), 3)).thenReturn(false);
+    when(bookRepository.findById(book.getIsbn())).thenReturn(Optional.of(book));
+
+    InsufficientStockException thrown =
+        assertThrows(
+            InsufficientStockException.class,
+            () -> {
+              bookDomainService.validateAndDecreaseStock(book.getIsbn(), 3);
+            });
+
+    assertTrue(thrown.getMessage().contains("在庫が不足しています（要求数: 3, 在庫数: 2"));
+  }
+
+  @Test
+  @DisplayName("在庫確認の間に補充された場合は減算を再試行する")
+  void testDecreaseStockRetry() {
+    when(bookRepository.decreaseStock(book.getIsbn(), 2)).thenReturn(false).thenReturn(true);
+    when(bookRepository.findById(book.getIsbn())).thenReturn(Optional.of(book));
+
+    bookDomainService.validateAndDecreaseStock(book.getIsbn(), 2);
+
+    verify(bookRepository, times(2)).decreaseStock(book.getIsbn(), 2);
+  }
+
+  @Test
+  @DisplayName("書籍が存在しない場合にBookNotFoundExceptionをスローする")
+  void testDecreaseStockBookNotFound() {
+    when(bookRepository.decreaseStock("nonexistent", 1)).thenReturn(false);
+    when(bookRepository.findById("nonexistent")).thenReturn(Optional.empty());
+
+    assertThrows(
+        BookNotFoundException.class,
+        () -> {
+          bookDomainService.validateAndDecreaseStock("nonexistent", 1);
+        });
+  }
+
+  @Test
+  @DisplayName("数量が0以下の場合は更新せずにIllegalArgumentExceptionをスローする")
+  void testDecreaseStockInvalidQuantity() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> {
+          bookDomainService.validateAndDecreaseStock(book.getIsbn(), 0);
+        });
+    verify(bookRepository, never()).decreaseStock(anyString(), anyInt());
+  }
+
+  @Test
+  @DisplayName("複数ISBNの在庫を1回の更新でまとめて確保する")
+  void testReserveStock() {
+    Map<String, Integer> quantities = Map.of(book.getIsbn(), 1, "9784798157622", 2);
+    when(bookRepository.decreaseStocks(quantities)).thenReturn(quantities.keySet());
+
+    bookDomainService.reserveStock(quantities);
+
+    verify(bookRepository, times(1)).decreaseStocks(quantities);
+    verify(bookRepository, never()).findByIsbns(anyCollection());
+  }
+
+  @Test
+  @DisplayName("在庫を確保できなかったISBNごとに不足内容を報告する")
+  void testReserveStockInsufficient() {
+    Book other = Book.create("9784798157622", "Clean Architecture", 3400, 1);
+    Map<String, Integer> quantities =
+        Map.of(book.getIsbn(), 3, other.getIsbn(), 2, "9784774193136", 1);
+    when(bookRepository.decreaseStocks(quantities)).thenReturn(Set.of("9784774193136"));
+    when(bookRepository.findByIsbns(List.of(book.getIsbn(), other.getIsbn())))
+        .thenReturn(List.of(book, other));
+
+    InsufficientStockException thrown =
+        assertThrows(
+            InsufficientStockException.class,
+            () -> {
+              bookDomainService.reserveStock(quantities);
+            });
+
+    assertEquals(2, thrown.getShortages().size());
+    assertTrue(thrown.getShortages().get(book.getIsbn()).contains("要求数: 3, 在庫数: 2"));
+    assertTrue(thrown.getShortages().get(other.getIsbn()).contains("要求数: 2, 在庫数: 1"));
+  }
+
+  @Test
+  @DisplayName("まとめて確保する際、在庫確認の間に補充された書籍だけ減算を再試行する")
+  void testReserveStockRetry() {
+    Book other = Book.create("9784798157622", "Clean Architecture", 3400, 5);
+    Map<String, Integer> quantities = Map.of(book.getIsbn(), 1, other.getIsbn(), 2);
+    when(bookRepository.decreaseStocks(quantities)).thenReturn(Set.of(book.getIsbn()));
+    when(bookRepository.findByIsbns(List.of(other.getIsbn()))).thenReturn(List.of(other));
+    when(bookRepository.decreaseStocks(Map.of(other.getIsbn(), 2)))
+        .thenReturn(Set.of(other.getIsbn()));
+
+    bookDomainService.reserveStock(quantities);
+
+    verify(bookRepository, times(1)).decreaseStocks(quantities);
+    verify(bookRepository, times(1)).decreaseStocks(Map.of(other.getIsbn(), 2));
+  }
+
+  @Test
+  @DisplayName("まとめて確保する書籍が存在しない場合にBookNotFoundExceptionをスローする")
+  void testReserveStockBookNotFound() {
+    Map<String, Integer> quantities = Map.of(book.getIsbn(), 1, "nonexistent", 1);
+    when(bookRepository.decreaseStocks(quantities)).thenReturn(Set.of(book.getIsbn()));
+    when(bookRepository.findByIsbns(List.of("nonexistent"))).thenReturn(List.of());
+
+    BookNotFoundException thrown =
+        assertThrows(
+            BookNotFoundException.class,
+            () -> {
+              bookDomainService.reserveStock(quantities);
+            });
+
+    assertEquals("書籍が見つかりません。ISBN: nonexistent", thrown.getMessage());
+  }
+
+  @Test
+  @DisplayName("在庫を増やす。書籍が存在しない場合はBookNotFoundExceptionをスローする")
+  void testIncreaseStock() {
+    when(bookRepository.increaseStock(book.getIsbn(), 1)).thenReturn(true);
+    when(bookRepository.increaseStock("nonexistent", 1)).thenReturn(false);
+
+    bookDomainService.validateAndIncreaseStock(book.getIsbn(), 1);
+
+    assertThrows(
+        BookNotFoundException.class,
+        () -> {
+          bookDomainService.validateAndIncreaseStock("nonexistent", 1);
+        });
+  }
+}
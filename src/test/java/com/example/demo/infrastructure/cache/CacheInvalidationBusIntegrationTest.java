@@ -0,0 +1,176 @@
+package com.example.demo.infrastructure.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.domain.model.book.Book;
+import com.example.demo.domain.repository.book.BookRepository;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 同じデータベースに接続する2つのアプリケーションコンテキストで、インスタンス間のキャッシュ破棄を確認する
+class CacheInvalidationBusIntegrationTest {
+
+  private static final String FAILING_ENTITY = "failing";
+  private static final long TIMEOUT_MILLIS = 10_000;
+
+  private ConfigurableApplicationContext node1;
+  private ConfigurableApplicationContext node2;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    node1 = startNode();
+    node2 = startNode();
+
+    JdbcTemplate jdbcTemplate = node1.getBean(JdbcTemplate.class);
+    jdbcTemplate.execute("DELETE FROM order_queue");
+    jdbcTemplate.execute("DELETE FROM order_item");
+    jdbcTemplate.execute("DELETE FROM \"order\"");
+    jdbcTemplate.execute("DELETE FROM book");
+
+    awaitListening(node1);
+    awaitListening(node2);
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (node1 != null) {
+      node1.close();
+    }
+    if (node2 != null) {
+      node2.close();
+    }
+  }
+
+  @Test
+  @DisplayName("一方のインスタンスで在庫を更新すると、もう一方のキャッシュが破棄される")
+  void testInvalidateAcrossNodes() throws Exception {
+    BookRepository repository1 = node1.getBean(BookRepository.class);
+    BookRepository repository2 = node2.getBean(BookRepository.class);
+
+    Book book = Book.create("9784297100339", "達人プログラマー", 3200, 10);
+    repository1.save(book);
+    assertEquals(10, repository2.findById(book.getIsbn()).get().getStock());
+
+    assertTrue(repository1.decreaseStock(book.getIsbn(), 3));
+
+    long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+    while (repository2.findById(book.getIsbn()).get().getStock() != 7) {
+      assertTrue(System.currentTimeMillis() < deadline, "キャッシュが破棄されませんでした");
+      Thread.sleep(50);
+    }
+  }
+
+  @Test
+  @DisplayName("通知の処理で例外が発生しても購読を続け、後続の通知でキャッシュを破棄する")
+  void testContinueAfterHandlerFailure() throws Exception {
+    BookRepository repository1 = node1.getBean(BookRepository.class);
+    BookRepository repository2 = node2.getBean(BookRepository.class);
+    CacheInvalidationBus bus2 = node2.getBean(CacheInvalidationBus.class);
+    bus2.register(
+        FAILING_ENTITY,
+        new CacheInvalidationHandler() {
+          @Override
+          public void invalidate(Collection<String> keys) {
+            throw new IllegalStateException("想定外のエラー");
+          }
+
+          @Override
+          public void invalidateAll() {}
+        });
+
+    Book book = Book.create("9784297100339", "達人プログラマー", 3200, 10);
+    repository1.save(book);
+    assertEquals(10, repository2.findById(book.getIsbn()).get().getStock());
+
+    node1
+        .getBean(CacheInvalidationBus.class)
+        .publish(FAILING_ENTITY, List.of(UUID.randomUUID().toString()));
+    assertTrue(repository1.decreaseStock(book.getIsbn(), 3));
+
+    long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+    while (repository2.findById(book.getIsbn()).get().getStock() != 7) {
+      assertTrue(System.currentTimeMillis() < deadline, "キャッシュが破棄されませんでした");
+      Thread.sleep(50);
+    }
+    assertTrue(bus2.isListening());
+  }
+
+  @Test
+  @DisplayName("1つのトランザクションで更新したキーは、コミット時に1回の通知にまとめて配信される")
+  void testPublishOncePerTransaction() throws Exception {
+    BookRepository repository1 = node1.getBean(BookRepository.class);
+    Book book1 = Book.create("9784297100339", "達人プログラマー", 3200, 10);
+    Book book2 = Book.create("9784798157622", "Clean Architecture", 3400, 5);
+    List<Collection<String>> received = new CopyOnWriteArrayList<>();
+    node2
+        .getBean(CacheInvalidationBus.class)
+        .register(
+            CacheInvalidationBus.BOOK,
+            new CacheInvalidationHandler() {
+              @Override
+              public void invalidate(Collection<String> keys) {
+                received.add(keys);
+              }
+
+              @Override
+              public void invalidateAll() {}
+            });
+    // トランザクション外の更新はすぐに通知される
+    repository1.saveAll(List.of(book1, book2));
+
+    TransactionTemplate transactionTemplate =
+        new TransactionTemplate(node1.getBean(PlatformTransactionManager.class));
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          repository1.decreaseStock(book1.getIsbn(), 1);
+          repository1.decreaseStock(book2.getIsbn(), 1);
+          repository1.increaseStock(book1.getIsbn(), 1);
+        });
+    // ロールバックしたトランザクションの通知は配信されない
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          repository1.decreaseStock(book1.getIsbn(), 1);
+          status.setRollbackOnly();
+        });
+
+    long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+    while (received.size() < 2) {
+      assertTrue(System.currentTimeMillis() < deadline, "通知が配信されませんでした");
+      Thread.sleep(50);
+    }
+    Thread.sleep(500);
+    assertEquals(2, received.size());
+    assertEquals(List.of(book1.getIsbn(), book2.getIsbn()), received.get(1));
+  }
+
+  private ConfigurableApplicationContext startNode() {
+    // プロファイルの設定より優先させるため、コマンドライン引数として渡す
+    return new SpringApplicationBuilder(DemoApplication.class)
+        .profiles("test")
+        .run(
+            "--server.port=0",
+            "--app.cache.book.enabled=true",
+            "--app.cache.invalidation.enabled=true");
+  }
+
+  private void awaitListening(ConfigurableApplicationContext node) throws InterruptedException {
+    CacheInvalidationBus bus = node.getBean(CacheInvalidationBus.class);
+    long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+    while (!bus.isListening()) {
+      assertTrue(System.currentTimeMillis() < deadline, "通知の購読を開始できませんでした");
+      Thread.sleep(50);
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.infrastructure.dataset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DatasetGeneratorIntegrationTest {
+
+  private static final String CHECKSUM_SQL =
+      """
+      SELECT md5(string_agg(o.id::text || o.customer_id || i.book_isbn || i.quantity, ','
+          ORDER BY o.id, i.book_isbn))
+      FROM "order" o JOIN order_item i ON i.order_id = o.id
+      """;
+
+  @Autowired private DataSource dataSource;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  @DisplayName("指定した件数の書籍・顧客・注文を投入し、注文明細は1件以上で書籍が重複しない")
+  void testGenerate() {
+    generate(42);
+
+    assertEquals(200, count("SELECT COUNT(*) FROM book"));
+    assertEquals(100, count("SELECT COUNT(*) FROM customer"));
+    assertEquals(1000, count("SELECT COUNT(*) FROM \"order\""));
+    assertEquals(
+        0,
+        count(
+            "SELECT COUNT(*) FROM \"order\" o"
+                + " WHERE NOT EXISTS (SELECT 1 FROM order_item i WHERE i.order_id = o.id)"));
+    assertEquals(
+        0,
+        count(
+            "SELECT COUNT(*) FROM (SELECT order_id FROM order_item"
+                + " GROUP BY order_id HAVING COUNT(*) > 3 OR COUNT(DISTINCT book_isbn) < COUNT(*))"
+                + " t"));
+    assertEquals(
+        0,
+        count(
+            "SELECT COUNT(*) FROM \"order\""
+                + " WHERE order_datetime > '2025-01-01' OR order_datetime < '2024-12-01'"));
+  }
+
+  @Test
+  @DisplayName("一部の書籍に注文が集中する")
+  void testSkewedPopularity() {
+    generate(42);
+
+    // 上位1割の書籍が明細の半分以上を占める（一様なら1割程度）
+    long total = count("SELECT COUNT(*) FROM order_item");
+    long top =
+        count(
+            "SELECT COALESCE(SUM(c), 0) FROM (SELECT COUNT(*) c FROM order_item"
+                + " GROUP BY book_isbn ORDER BY c DESC LIMIT 20) t");
+    assertTrue(top * 2 > total, () -> "上位の書籍の明細数: " + top + " / " + total);
+  }
+
+  @Test
+  @DisplayName("同じシードなら同じデータ、異なるシードなら異なるデータを投入する")
+  void testReproducible() {
+    generate(42);
+    String first = jdbcTemplate.queryForObject(CHECKSUM_SQL, String.class);
+    generate(42);
+    String second = jdbcTemplate.queryForObject(CHECKSUM_SQL, String.class);
+    generate(7);
+    String other = jdbcTemplate.queryForObject(CHECKSUM_SQL, String.class);
+
+    assertEquals(first, second);
+    assertNotEquals(first, other);
+  }
+
+  private void generate(long seed) {
+    DatasetProperties properties =
+        new DatasetProperties(
+            seed,
+            200,
+            100,
+            1000,
+            3,
+            1.0,
+            LocalDateTime.of(2025, 1, 1, 0, 0),
+            Duration.ofDays(31),
+            true,
+            true);
+    new DatasetGenerator(dataSource, properties).generate();
+  }
+
+  private long count(String sql) {
+    return jdbcTemplate.queryForObject(sql, Long.class);
+  }
+}
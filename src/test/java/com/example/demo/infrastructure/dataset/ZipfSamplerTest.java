@@ -0,0 +1,61 @@
+package com.example.demo.infrastructure.dataset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ZipfSamplerTest {
+
+  private static final int SAMPLES = 200_000;
+
+  @Test
+  @DisplayName("順位kの出現率が1/k^指数に比例する")
+  void testDistribution() {
+    int n = 100;
+    double exponent = 1.0;
+    ZipfSampler sampler = new ZipfSampler(n, exponent);
+    SplittableRandom random = new SplittableRandom(42);
+
+    int[] counts = new int[n + 1];
+    for (int i = 0; i < SAMPLES; i++) {
+      int k = sampler.sample(random);
+      assertTrue(k >= 1 && k <= n, () -> "範囲外の順位です: " + k);
+      counts[k]++;
+    }
+
+    double harmonic = IntStream.rangeClosed(1, n).mapToDouble(k -> Math.pow(k, -exponent)).sum();
+    for (int k : new int[] {1, 2, 10}) {
+      double expected = Math.pow(k, -exponent) / harmonic;
+      assertEquals(expected, (double) counts[k] / SAMPLES, expected * 0.05, "順位 " + k);
+    }
+  }
+
+  @Test
+  @DisplayName("同じシードからは同じ順位の列を返す")
+  void testReproducible() {
+    ZipfSampler sampler = new ZipfSampler(1_000_000, 1.2);
+    SplittableRandom first = new SplittableRandom(7);
+    SplittableRandom second = new SplittableRandom(7);
+
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(sampler.sample(first), sampler.sample(second));
+    }
+  }
+
+  @Test
+  @DisplayName("人気の順位を番号に重複なく対応させる")
+  void testScatter() {
+    int n = 1000;
+    boolean[] seen = new boolean[n + 1];
+    for (int rank = 1; rank <= n; rank++) {
+      long index = DatasetGenerator.scatter(rank, n);
+      assertTrue(index >= 1 && index <= n);
+      assertFalse(seen[(int) index], "番号が重複しています: " + index);
+      seen[(int) index] = true;
+    }
+    assertNotEquals(2, DatasetGenerator.scatter(2, n));
+  }
+}
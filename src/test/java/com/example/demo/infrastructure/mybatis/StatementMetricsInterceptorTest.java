@@ -0,0 +1,183 @@
+package com.example.demo.infrastructure.mybatis;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.apache.ibatis.binding.MapperMethod;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class StatementMetricsInterceptorTest {
+
+  private static final String FIND_BY_ID =
+      "com.example.demo.infrastructure.mapper.book.BookMapper.findById";
+  private static final String UPDATE =
+      "com.example.demo.infrastructure.mapper.book.BookMapper.update";
+
+  private SimpleMeterRegistry meterRegistry;
+  private StatementMetricsInterceptor interceptor;
+  private Executor executor;
+  private Configuration configuration;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    interceptor = new StatementMetricsInterceptor(meterRegistry, Duration.ofSeconds(10));
+    executor = mock(Executor.class);
+    configuration = new Configuration();
+  }
+
+  @Test
+  @DisplayName("検索したステートメントごとに実行時間と件数を記録する")
+  void testQuery() throws Throwable {
+    MappedStatement statement = statement(FIND_BY_ID, SqlCommandType.SELECT);
+    when(executor.query(any(), any(), any(), any())).thenReturn(List.of("a", "b"));
+
+    Object result = interceptor.intercept(query(statement, "9784297100339", null));
+    interceptor.intercept(query(statement, "9784297100339", null));
+
+    assertEquals(List.of("a", "b"), result);
+    Timer timer =
+        meterRegistry.get("mybatis.statement").tag("statement", "BookMapper.findById").timer();
+    assertEquals(2, timer.count());
+    DistributionSummary rows =
+        meterRegistry
+            .get("mybatis.statement.rows")
+            .tag("statement", "BookMapper.findById")
+            .summary();
+    assertEquals(2, rows.count());
+    assertEquals(4, rows.totalAmount());
+  }
+
+  @Test
+  @DisplayName("更新したステートメントは更新件数を記録する")
+  void testUpdate() throws Throwable {
+    MappedStatement statement = statement(UPDATE, SqlCommandType.UPDATE);
+    when(executor.update(any(), any())).thenReturn(3);
+
+    interceptor.intercept(
+        new Invocation(
+            executor,
+            Executor.class.getMethod("update", MappedStatement.class, Object.class),
+            new Object[] {statement, null}));
+
+    DistributionSummary rows =
+        meterRegistry
+            .get("mybatis.statement.rows")
+            .tag("statement", "BookMapper.update")
+            .summary();
+    assertEquals(3, rows.totalAmount());
+  }
+
+  @Test
+  @DisplayName("ResultHandler で処理した場合は処理した件数を記録する")
+  void testQueryWithResultHandler() throws Throwable {
+    MappedStatement statement = statement(FIND_BY_ID, SqlCommandType.SELECT);
+    when(executor.query(any(), any(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              ResultHandler<Object> handler = invocation.getArgument(3);
+              DefaultResultContext<Object> context = new DefaultResultContext<>();
+              for (int i = 0; i < 5; i++) {
+                context.nextResultObject("row" + i);
+                handler.handleResult(context);
+              }
+              return List.of();
+            });
+    @SuppressWarnings("unchecked")
+    ResultHandler<Object> handler = mock(ResultHandler.class);
+
+    interceptor.intercept(query(statement, null, handler));
+
+    verify(handler, times(5)).handleResult(any());
+    DistributionSummary rows =
+        meterRegistry
+            .get("mybatis.statement.rows")
+            .tag("statement", "BookMapper.findById")
+            .summary();
+    assertEquals(5, rows.totalAmount());
+  }
+
+  @Test
+  @DisplayName("失敗したステートメントも実行時間を記録し、例外をそのまま伝える")
+  void testQueryFailure() throws Throwable {
+    MappedStatement statement = statement(FIND_BY_ID, SqlCommandType.SELECT);
+    when(executor.query(any(), any(), any(), any())).thenThrow(new SQLException("boom"));
+
+    Invocation invocation = query(statement, null, null);
+    assertThrows(Exception.class, () -> interceptor.intercept(invocation));
+
+    Timer timer =
+        meterRegistry.get("mybatis.statement").tag("statement", "BookMapper.findById").timer();
+    assertEquals(1, timer.count());
+    assertEquals(0, meterRegistry.get("mybatis.statement.rows").summary().count());
+  }
+
+  @Test
+  @DisplayName("しきい値を超えても結果は変わらない")
+  void testSlowQuery() throws Throwable {
+    interceptor = new StatementMetricsInterceptor(meterRegistry, Duration.ZERO);
+    MappedStatement statement = statement(FIND_BY_ID, SqlCommandType.SELECT);
+    when(executor.query(any(), any(), any(), any())).thenReturn(List.of("a"));
+
+    assertEquals(List.of("a"), interceptor.intercept(query(statement, "9784297100339", null)));
+  }
+
+  @Test
+  @DisplayName("ステートメント名はマッパー名とメソッド名にする")
+  void testStatementName() {
+    assertEquals("BookMapper.findById", StatementMetricsInterceptor.statementName(FIND_BY_ID));
+    assertEquals("findById", StatementMetricsInterceptor.statementName("findById"));
+  }
+
+  @Test
+  @DisplayName("パラメータは値を含めず、名前・型・件数で表す")
+  void testParameterShapes() {
+    MapperMethod.ParamMap<Object> params = new MapperMethod.ParamMap<>();
+    params.put("afterIsbn", "9784297100339");
+    params.put("limit", 100);
+    params.put("isbns", List.of("9784297100339", "9784798157622"));
+    params.put("param1", "9784297100339");
+
+    assertEquals(
+        "{afterIsbn=String, isbns=List<String>[2], limit=Integer}",
+        ParameterShapes.describe(params));
+    assertEquals("String", ParameterShapes.describe("secret@example.com"));
+    assertEquals("null", ParameterShapes.describe(null));
+    assertEquals("String[3]", ParameterShapes.describe(new String[] {"a", "b", "c"}));
+    assertEquals("{}", ParameterShapes.describe(Map.of()));
+  }
+
+  private MappedStatement statement(String id, SqlCommandType commandType) {
+    return new MappedStatement.Builder(
+            configuration, id, new StaticSqlSource(configuration, "SELECT 1"), commandType)
+        .build();
+  }
+
+  private Invocation query(MappedStatement statement, Object parameter, ResultHandler<?> handler)
+      throws NoSuchMethodException {
+    return new Invocation(
+        executor,
+        Executor.class.getMethod(
+            "query", MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class),
+        new Object[] {statement, parameter, RowBounds.DEFAULT, handler});
+  }
+}
@@ -0,0 +1,76 @@
+package com.example.demo.infrastructure.repository.book;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.demo.domain.model.book.Book;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookRepositoryImplIntegrationTest {
+
+  @Autowired private BookRepositoryImpl bookRepository;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate.execute("DELETE FROM order_queue");
+    jdbcTemplate.execute("DELETE FROM order_item");
+    jdbcTemplate.execute("DELETE FROM \"order\"");
+    jdbcTemplate.execute("DELETE FROM book");
+  }
+
+  @Test
+  @DisplayName("新規登録ではtrue、既存の書籍の更新ではfalseを返す")
+  void testSave() {
+    Book book = Book.create("9784297100339", "達人プログラマー", 3200, 10);
+    assertTrue(bookRepository.save(book));
+
+    book.setTitle("達人プログラマー 第2版");
+    assertFalse(bookRepository.save(book));
+
+    Book saved = bookRepository.findById(book.getIsbn()).orElseThrow();
+    assertEquals("達人プログラマー 第2版", saved.getTitle());
+  }
+
+  @Test
+  @DisplayName("存在する書籍だけをISBN順にロックして返す")
+  void testLockByIsbns() {
+    bookRepository.save(Book.create("9784798157622", "Clean Architecture", 3400, 5));
+    bookRepository.save(Book.create("9784297100339", "達人プログラマー", 3200, 10));
+
+    List<String> locked =
+        bookRepository.lockByIsbns(List.of("9784798157622", "9784297100339", "9999999999999"));
+
+    assertEquals(List.of("9784297100339", "9784798157622"), locked);
+    assertEquals(List.of(), bookRepository.lockByIsbns(List.of()));
+  }
+
+  @Test
+  @DisplayName("まとめて登録または更新し、新規登録した件数を返す")
+  void testSaveAll() {
+    bookRepository.save(Book.create("9784297100339", "達人プログラマー", 3200, 10));
+
+    int inserted =
+        bookRepository.saveAll(
+            List.of(
+                Book.create("9784297100339", "達人プログラマー 第2版", 3300, 8),
+                Book.create("9784798157622", "Clean Architecture", 3400, 5),
+                Book.create("9784798157622", "Clean Architecture 達人に学ぶ", 3520, 6)));
+
+    assertEquals(1, inserted);
+    assertEquals(2, bookRepository.findPage(null, 10).size());
+    assertEquals(8, bookRepository.findById("9784297100339").orElseThrow().getStock());
+    assertEquals(
+        "Clean Architecture 達人に学ぶ",
+        bookRepository.findById("9784798157622").orElseThrow().getTitle());
+  }
+}
@@ -0,0 +1,168 @@
+package com.example.demo.infrastructure.repository.book;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.example.demo.domain.model.book.Book;
+import com.example.demo.infrastructure.cache.CacheInvalidationBus;
+import com.example.demo.infrastructure.cache.CacheInvalidationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CachingBookRepositoryTest {
+
+  @Mock private BookRepositoryImpl delegate;
+
+  @Mock private CacheInvalidationBus cacheInvalidationBus;
+
+  private SimpleMeterRegistry meterRegistry;
+  private CachingBookRepository repository;
+  private Book book1;
+  private Book book2;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    repository =
+        new CachingBookRepository(
+            delegate, cacheInvalidationBus, meterRegistry, 100, Duration.ofMinutes(10));
+    book1 = Book.create("9784297100339", "達人プログラマー", 3200, 10);
+    book2 = Book.create("9784798157622", "Clean Architecture", 3400, 5);
+  }
+
+  @Test
+  @DisplayName("2回目以降のISBN検索はキャッシュから返す")
+  void testFindByIdCached() {
+    when(delegate.findById(book1.getIsbn())).thenReturn(Optional.of(book1));
+
+    assertEquals(book1.getTitle(), repository.findById(book1.getIsbn()).get().getTitle());
+    assertEquals(book1.getTitle(), repository.findById(book1.getIsbn()).get().getTitle());
+
+    verify(delegate, times(1)).findById(book1.getIsbn());
+    assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    assertEquals(
+        1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+  }
+
+  @Test
+  @DisplayName("返した書籍を変更してもキャッシュには影響しない")
+  void testFindByIdReturnsCopy() {
+    when(delegate.findById(book1.getIsbn())).thenReturn(Optional.of(book1));
+
+    repository.findById(book1.getIsbn()).get().setStock(0);
+
+    assertEquals(10, repository.findById(book1.getIsbn()).get().getStock());
+  }
+
+  @Test
+  @DisplayName("読み込み中にキャッシュが破棄された場合は、読み込んだ値をキャッシュしない")
+  void testFindByIdInvalidatedWhileLoading() {
+    when(delegate.findById(book1.getIsbn()))
+        .thenAnswer(
+            invocation -> {
+              // 読み込みの途中で他のスレッドが書籍を更新した状況を再現する
+              repository.increaseStock(book1.getIsbn(), 1);
+              return Optional.of(book1);
+            })
+        .thenReturn(Optional.of(book1));
+
+    repository.findById(book1.getIsbn());
+    repository.findById(book1.getIsbn());
+    repository.findById(book1.getIsbn());
+
+    verify(delegate, times(2)).findById(book1.getIsbn());
+  }
+
+  @Test
+  @DisplayName("存在しない書籍はキャッシュしない")
+  void testFindByIdNotFound() {
+    when(delegate.findById("nonexistent")).thenReturn(Optional.empty());
+
+    assertTrue(repository.findById("nonexistent").isEmpty());
+    assertTrue(repository.findById("nonexistent").isEmpty());
+
+    verify(delegate, times(2)).findById("nonexistent");
+  }
+
+  @Test
+  @DisplayName("保存・在庫変更・削除でキャッシュを破棄する")
+  void testInvalidateOnWrite() {
+    when(delegate.findById(book1.getIsbn())).thenReturn(Optional.of(book1));
+    when(delegate.decreaseStocks(anyMap())).thenReturn(Set.of(book1.getIsbn()));
+
+    repository.findById(book1.getIsbn());
+    repository.save(book1);
+    repository.findById(book1.getIsbn());
+    repository.decreaseStock(book1.getIsbn(), 1);
+    repository.findById(book1.getIsbn());
+    repository.decreaseStocks(Map.of(book1.getIsbn(), 1));
+    repository.findById(book1.getIsbn());
+    repository.increaseStock(book1.getIsbn(), 1);
+    repository.findById(book1.getIsbn());
+    repository.deleteById(book1.getIsbn());
+    repository.findById(book1.getIsbn());
+
+    verify(delegate, times(6)).findById(book1.getIsbn());
+  }
+
+  @Test
+  @DisplayName("在庫を変更した書籍だけを他インスタンスに通知する")
+  void testPublishChangedOnly() {
+    when(delegate.decreaseStock(book1.getIsbn(), 1)).thenReturn(false);
+    when(delegate.decreaseStocks(anyMap())).thenReturn(Set.of(book2.getIsbn()));
+
+    repository.decreaseStock(book1.getIsbn(), 1);
+    repository.decreaseStocks(Map.of(book1.getIsbn(), 100, book2.getIsbn(), 1));
+
+    verify(cacheInvalidationBus).publish(CacheInvalidationBus.BOOK, Set.of(book2.getIsbn()));
+    verify(cacheInvalidationBus, never())
+        .publish(CacheInvalidationBus.BOOK, List.of(book1.getIsbn()));
+  }
+
+  @Test
+  @DisplayName("他インスタンスからの破棄通知でキャッシュを破棄する")
+  void testInvalidateByRemoteNotification() {
+    ArgumentCaptor<CacheInvalidationHandler> handler =
+        ArgumentCaptor.forClass(CacheInvalidationHandler.class);
+    verify(cacheInvalidationBus).register(eq(CacheInvalidationBus.BOOK), handler.capture());
+    when(delegate.findById(book1.getIsbn())).thenReturn(Optional.of(book1));
+    when(delegate.findById(book2.getIsbn())).thenReturn(Optional.of(book2));
+
+    repository.findById(book1.getIsbn());
+    repository.findById(book2.getIsbn());
+    handler.getValue().invalidate(List.of(book1.getIsbn()));
+    repository.findById(book1.getIsbn());
+    repository.findById(book2.getIsbn());
+    handler.getValue().invalidateAll();
+    repository.findById(book2.getIsbn());
+
+    verify(delegate, times(2)).findById(book1.getIsbn());
+    verify(delegate, times(2)).findById(book2.getIsbn());
+  }
+
+  @Test
+  @DisplayName("行ロック付きの取得はキャッシュを経由せずに毎回データベースから読み込む")
+  void testFindByIdForUpdateBypassesCache() {
+    when(delegate.findById(book1.getIsbn())).thenReturn(Optional.of(book1));
+    Book locked = Book.create(book1.getIsbn(), book1.getTitle(), book1.getPrice(), 3);
+    when(delegate.findByIdForUpdate(book1.getIsbn())).thenReturn(Optional.of(locked));
+
+    repository.findById(book1.getIsbn());
+
+    assertEquals(3, repository.findByIdForUpdate(book1.getIsbn()).get().getStock());
+    assertEquals(3, repository.findByIdForUpdate(book1.getIsbn()).get().getStock());
+    verify(delegate, times(2)).findByIdForUpdate(book1.getIsbn());
+  }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.infrastructure.thread;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class WorkerThreadsTest {
+
+  @Test
+  @DisplayName("仮想スレッドモードでは仮想スレッドでタスクを実行する")
+  void testStartVirtual() throws Exception {
+    CompletableFuture<Thread> executed = new CompletableFuture<>();
+
+    Thread thread =
+        new WorkerThreads(true).start("worker", () -> executed.complete(Thread.currentThread()));
+
+    assertSame(thread, executed.get(5, TimeUnit.SECONDS));
+    assertTrue(thread.isVirtual());
+    assertEquals("worker", thread.getName());
+  }
+
+  @Test
+  @DisplayName("通常はデーモンのプラットフォームスレッドでタスクを実行する")
+  void testStartPlatform() throws Exception {
+    CompletableFuture<Thread> executed = new CompletableFuture<>();
+
+    Thread thread =
+        new WorkerThreads(false).start("worker", () -> executed.complete(Thread.currentThread()));
+
+    assertSame(thread, executed.get(5, TimeUnit.SECONDS));
+    assertFalse(thread.isVirtual());
+    assertTrue(thread.isDaemon());
+  }
+
+  @Test
+  @DisplayName("ファクトリは接頭辞に連番を付けた名前でスレッドを生成する")
+  void testFactory() {
+    ThreadFactory factory = new WorkerThreads(true).factory("order-queue-worker");
+
+    assertEquals("order-queue-worker-1", factory.newThread(() -> {}).getName());
+    assertEquals("order-queue-worker-2", factory.newThread(() -> {}).getName());
+  }
+}
@@ -0,0 +1,189 @@
+package com.example.demo.infrastructure.tracing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.util.unit.DataSize;
+
+class TailSamplingSpanExporterTest {
+
+  // 開始時刻 0 は SDK が「未指定」とみなして現在時刻を使うため、固定の時刻を基準にする
+  private static final long BASE_MILLIS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+
+  @TempDir private Path tempDir;
+
+  private SpanRingBuffer ringBuffer;
+  private SdkTracerProvider tracerProvider;
+  private Tracer tracer;
+
+  @AfterEach
+  void tearDown() {
+    tracerProvider.close();
+  }
+
+  @Test
+  @DisplayName("サンプリングされないトレースは保持しない")
+  void testDropFastTrace() {
+    setUp(0.0, null);
+
+    trace(Duration.ofMillis(10), StatusCode.UNSET);
+
+    assertTrue(ringBuffer.traces(0, 10).isEmpty());
+  }
+
+  @Test
+  @DisplayName("サンプリング率が低くても、しきい値以上かかったトレースはすべてのスパンを保持する")
+  void testKeepSlowTrace() {
+    setUp(0.0, null);
+
+    String traceId = trace(Duration.ofMillis(600), StatusCode.UNSET);
+
+    List<TraceSummary> traces = ringBuffer.traces(0, 10);
+    assertEquals(1, traces.size());
+    assertEquals(traceId, traces.get(0).traceId());
+    assertEquals("GET /api/orders", traces.get(0).name());
+    assertEquals(600_000, traces.get(0).durationMicros());
+    assertEquals(2, traces.get(0).spans());
+
+    List<RecordedSpan> spans = ringBuffer.trace(traceId);
+    RecordedSpan root = spans.stream().filter(RecordedSpan::isRoot).findFirst().orElseThrow();
+    RecordedSpan child = spans.stream().filter(span -> !span.isRoot()).findFirst().orElseThrow();
+    assertEquals(root.spanId(), child.parentSpanId());
+    assertEquals("OrderService.findOrderPage", child.name());
+  }
+
+  @Test
+  @DisplayName("エラーになったトレースはサンプリング率に関係なく保持する")
+  void testKeepErrorTrace() {
+    setUp(0.0, null);
+
+    trace(Duration.ofMillis(10), StatusCode.ERROR);
+
+    assertEquals(1, ringBuffer.traces(0, 10).size());
+  }
+
+  @Test
+  @DisplayName("サンプリング率1ではすべてのトレースを保持し、処理時間で絞り込める")
+  void testKeepSampledTrace() {
+    setUp(1.0, null);
+
+    trace(Duration.ofMillis(10), StatusCode.UNSET);
+    trace(Duration.ofMillis(600), StatusCode.UNSET);
+
+    assertEquals(2, ringBuffer.traces(0, 10).size());
+    assertEquals(1, ringBuffer.traces(500_000, 10).size());
+    assertEquals(1, ringBuffer.traces(0, 1).size());
+  }
+
+  @Test
+  @DisplayName("ルートより後に終了したスパンはトレースの判定に従う")
+  void testLateSpan() {
+    setUp(0.0, null);
+
+    Span root = start("GET /api/orders", Context.root(), 0);
+    Span late = start("OrderQueueWorker.processBatch", Context.root().with(root), 1);
+    end(root, 600);
+    end(late, 700);
+
+    assertEquals(2, ringBuffer.trace(root.getSpanContext().getTraceId()).size());
+  }
+
+  @Test
+  @DisplayName("リングバッファは上限を超えると古いスパンから捨てる")
+  void testRingBufferCapacity() {
+    ringBuffer = new SpanRingBuffer(2);
+    tracerProvider = SdkTracerProvider.builder().build();
+
+    ringBuffer.addAll(List.of(span("a", "1"), span("a", "2"), span("b", "3")));
+
+    assertTrue(ringBuffer.trace("a").stream().map(RecordedSpan::spanId).toList().contains("2"));
+    assertEquals(1, ringBuffer.trace("a").size());
+    assertEquals(1, ringBuffer.trace("b").size());
+  }
+
+  @Test
+  @DisplayName("ファイルは上限サイズを超えるとずらし、上限数を超えた古いファイルを削除する")
+  void testRollingFile() throws Exception {
+    Path path = tempDir.resolve("spans.ndjson");
+    RollingSpanFile file =
+        new RollingSpanFile(
+            path, DataSize.ofBytes(1), 2, new ObjectMapper().findAndRegisterModules());
+    setUp(1.0, file);
+
+    trace(Duration.ofMillis(10), StatusCode.UNSET);
+    trace(Duration.ofMillis(10), StatusCode.UNSET);
+    trace(Duration.ofMillis(10), StatusCode.UNSET);
+    file.destroy();
+
+    assertTrue(Files.exists(tempDir.resolve("spans.ndjson.1")));
+    assertTrue(Files.exists(tempDir.resolve("spans.ndjson.2")));
+    assertFalse(Files.exists(tempDir.resolve("spans.ndjson.3")));
+    assertEquals(2, Files.readAllLines(tempDir.resolve("spans.ndjson.1")).size());
+  }
+
+  private void setUp(double sampleRate, RollingSpanFile file) {
+    if (ringBuffer == null) {
+      ringBuffer = new SpanRingBuffer(100);
+    }
+    StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+    if (file != null) {
+      beanFactory.addBean("rollingSpanFile", file);
+    }
+    TailSamplingSpanExporter exporter =
+        new TailSamplingSpanExporter(
+            ringBuffer,
+            beanFactory.getBeanProvider(RollingSpanFile.class),
+            sampleRate,
+            Duration.ofMillis(500));
+    tracerProvider =
+        SdkTracerProvider.builder()
+            .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+            .build();
+    tracer = tracerProvider.get("test");
+  }
+
+  // ルート（HTTPリクエスト）と子（サービスメソッド）からなるトレースを記録し、トレースIDを返す
+  private String trace(Duration duration, StatusCode status) {
+    Span root = start("GET /api/orders", Context.root(), 0);
+    Span child = start("OrderService.findOrderPage", Context.root().with(root), 1);
+    end(child, duration.toMillis() - 1);
+    root.setStatus(status);
+    end(root, duration.toMillis());
+    return root.getSpanContext().getTraceId();
+  }
+
+  private Span start(String name, Context parent, long startMillis) {
+    return tracer
+        .spanBuilder(name)
+        .setParent(parent)
+        .setStartTimestamp(BASE_MILLIS + startMillis, TimeUnit.MILLISECONDS)
+        .startSpan();
+  }
+
+  private static void end(Span span, long endMillis) {
+    span.end(BASE_MILLIS + endMillis, TimeUnit.MILLISECONDS);
+  }
+
+  private static RecordedSpan span(String traceId, String spanId) {
+    return new RecordedSpan(
+        traceId, spanId, null, "span", "INTERNAL", Instant.EPOCH, 0, "UNSET", Map.of());
+  }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.presentation.actuator;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.example.demo.infrastructure.cache.CacheInvalidationBus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationHealthIndicatorTest {
+
+  @Mock private CacheInvalidationBus cacheInvalidationBus;
+
+  @Test
+  @DisplayName("通知を購読している場合はUPを返す")
+  void testListening() {
+    when(cacheInvalidationBus.isEnabled()).thenReturn(true);
+    when(cacheInvalidationBus.isListening()).thenReturn(true);
+
+    Health health = new CacheInvalidationHealthIndicator(cacheInvalidationBus).health();
+
+    assertEquals(Status.UP, health.getStatus());
+    assertEquals(true, health.getDetails().get("listening"));
+  }
+
+  @Test
+  @DisplayName("通知を購読できていない場合はDOWNを返す")
+  void testNotListening() {
+    when(cacheInvalidationBus.isEnabled()).thenReturn(true);
+    when(cacheInvalidationBus.isListening()).thenReturn(false);
+
+    Health health = new CacheInvalidationHealthIndicator(cacheInvalidationBus).health();
+
+    assertEquals(Status.DOWN, health.getStatus());
+    assertEquals(false, health.getDetails().get("listening"));
+  }
+
+  @Test
+  @DisplayName("通知が無効な場合は購読の有無にかかわらずUPを返す")
+  void testDisabled() {
+    when(cacheInvalidationBus.isEnabled()).thenReturn(false);
+
+    Health health = new CacheInvalidationHealthIndicator(cacheInvalidationBus).health();
+
+    assertEquals(Status.UP, health.getStatus());
+    assertEquals(false, health.getDetails().get("enabled"));
+    verify(cacheInvalidationBus, never()).isListening();
+  }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.presentation.actuator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+
+class JfrRecordingEndpointTest {
+
+  @TempDir private Path tempDir;
+
+  private JfrRecordingEndpoint endpoint;
+
+  @BeforeEach
+  void setUp() {
+    endpoint = new JfrRecordingEndpoint(tempDir);
+  }
+
+  @AfterEach
+  void tearDown() {
+    endpoint.destroy();
+  }
+
+  @Test
+  @DisplayName("記録を開始・停止し、書き出した.jfrファイルをダウンロードできる")
+  void testStartStopAndDownload() throws Exception {
+    assertEquals("NONE", endpoint.status().get("state"));
+
+    WebEndpointResponse<Map<String, Object>> started = endpoint.start(null, null);
+    assertEquals(WebEndpointResponse.STATUS_OK, started.getStatus());
+    assertEquals("RUNNING", started.getBody().get("state"));
+
+    WebEndpointResponse<Map<String, Object>> stopped = endpoint.stop();
+    assertEquals(WebEndpointResponse.STATUS_OK, stopped.getStatus());
+    String file = (String) stopped.getBody().get("file");
+    assertTrue(file.endsWith(".jfr"));
+    assertTrue(Files.size(tempDir.resolve(file)) > 0);
+
+    WebEndpointResponse<Resource> download = endpoint.download(file);
+    assertEquals(WebEndpointResponse.STATUS_OK, download.getStatus());
+    assertEquals(file, download.getBody().getFilename());
+    assertEquals(
+        WebEndpointResponse.STATUS_NOT_FOUND, endpoint.download("other.jfr").getStatus());
+  }
+
+  @Test
+  @DisplayName("記録中に開始しようとすると400を返す")
+  void testStartWhileRunning() {
+    endpoint.start("default", null);
+
+    WebEndpointResponse<Map<String, Object>> response = endpoint.start("default", null);
+
+    assertEquals(WebEndpointResponse.STATUS_BAD_REQUEST, response.getStatus());
+    assertEquals("記録中です。停止してから開始してください", response.getBody().get("error"));
+  }
+
+  @Test
+  @DisplayName("存在しない設定を指定すると400を返す")
+  void testStartWithUnknownSettings() {
+    WebEndpointResponse<Map<String, Object>> response = endpoint.start("unknown", null);
+
+    assertEquals(WebEndpointResponse.STATUS_BAD_REQUEST, response.getStatus());
+    assertEquals("NONE", endpoint.status().get("state"));
+  }
+
+  @Test
+  @DisplayName("記録を開始していない場合、停止しようとすると404を返す")
+  void testStopWithoutRecording() {
+    assertEquals(WebEndpointResponse.STATUS_NOT_FOUND, endpoint.stop().getStatus());
+  }
+}
@@ -6,12 +6,14 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.example.demo.domain.model.book.Book;
 import com.example.demo.domain.repository.book.BookRepository;
+import com.example.demo.presentation.response.PageResponses;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
@@ -31,6 +33,7 @@ class BookControllerIntegrationTest {
   @BeforeEach
   void setUp() {
     // 各テストの前にデータをクリーンアップ
+    jdbcTemplate.execute("DELETE FROM order_queue");
     jdbcTemplate.execute("DELETE FROM order_item");
     jdbcTemplate.execute("DELETE FROM \"order\"");
     jdbcTemplate.execute("DELETE FROM book");
@@ -53,6 +56,42 @@ class BookControllerIntegrationTest {
         .andExpect(jsonPath("$[0].isbn", is("9784297100339")));
   }
 
+  @Test
+  @DisplayName("GET /api/books - カーソルで次のページを取得できる")
+  void testGetBooksPaged() throws Exception {
+    bookRepository.save(Book.create("9784297100339", "達人プログラマー", 3200, 10));
+    bookRepository.save(Book.create("9784798157622", "Clean Architecture", 3400, 5));
+    bookRepository.save(Book.create("9784873119045", "Effective Java 第3版", 4950, 15));
+
+    String nextCursor =
+        mockMvc
+            .perform(get("/api/books").param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()", is(2)))
+            .andExpect(jsonPath("$[0].isbn", is("9784297100339")))
+            .andExpect(jsonPath("$[1].isbn", is("9784798157622")))
+            .andExpect(header().exists(PageResponses.NEXT_CURSOR_HEADER))
+            .andReturn()
+            .getResponse()
+            .getHeader(PageResponses.NEXT_CURSOR_HEADER);
+
+    mockMvc
+        .perform(get("/api/books").param("limit", "2").param("cursor", nextCursor))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()", is(1)))
+        .andExpect(jsonPath("$[0].isbn", is("9784873119045")))
+        .andExpect(header().doesNotExist(PageResponses.NEXT_CURSOR_HEADER));
+  }
+
+  @Test
+  @DisplayName("GET /api/books - 不正なカーソルを指定すると400エラーを返す")
+  void testGetBooksInvalidCursor() throws Exception {
+    mockMvc
+        .perform(get("/api/books").param("cursor", "!!invalid!!"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error", is("カーソルが不正です: !!invalid!!")));
+  }
+
   @Test
   @DisplayName("GET /api/books/{isbn} - ISBNで書籍を1件取得できる")
   void testGetBookByIsbn() throws Exception {
@@ -63,7 +102,69 @@ class BookControllerIntegrationTest {
         .perform(get("/api/books/{isbn}", book.getIsbn()))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.isbn", is(book.getIsbn())))
-        .andExpect(jsonPath("$.title", is(book.getTitle())));
+        .andExpect(jsonPath("$.title", is(book.getTitle())))
+        .andExpect(header().string("X-DB-Statements", matchesPattern("[1-9][0-9]*")))
+        .andExpect(header().exists("X-DB-Transactions"));
+  }
+
+  @Test
+  @DisplayName("GET /api/books/{isbn} - ETagが一致すれば304を返し、更新後は200を返す")
+  void testGetBookByIsbnNotModified() throws Exception {
+    Book book = Book.create("9784873119045", "Effective Java 第3版", 4950, 15);
+    bookRepository.save(book);
+
+    String etag =
+        mockMvc
+            .perform(get("/api/books/{isbn}", book.getIsbn()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    mockMvc
+        .perform(get("/api/books/{isbn}", book.getIsbn()).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+
+    mockMvc
+        .perform(
+            put("/api/books/{isbn}", book.getIsbn())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Effective Java\",\"price\":4950,\"stock\":15}"))
+        .andExpect(status().isOk());
+
+    mockMvc
+        .perform(get("/api/books/{isbn}", book.getIsbn()).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.title", is("Effective Java")))
+        .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+  }
+
+  @Test
+  @DisplayName("GET /api/books - 一覧のETagが一致すれば304を返し、書籍が増えると200を返す")
+  void testGetAllBooksNotModified() throws Exception {
+    bookRepository.save(Book.create("9784297100339", "達人プログラマー", 3200, 10));
+
+    String etag =
+        mockMvc
+            .perform(get("/api/books"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    mockMvc
+        .perform(get("/api/books").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified());
+
+    bookRepository.save(Book.create("9784798157622", "Clean Architecture", 3400, 5));
+
+    mockMvc
+        .perform(get("/api/books").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()", is(2)));
   }
 
   @Test
@@ -106,6 +207,54 @@ class BookControllerIntegrationTest {
         .andExpect(jsonPath("$.stock", is("must be greater than or equal to 0")));
   }
 
+  @Test
+  @DisplayName("POST /api/books/import - CSVで書籍を一括登録・更新し、不正な行を報告する")
+  void testImportBooksCsv() throws Exception {
+    bookRepository.save(Book.create("9784297100339", "達人プログラマー", 3200, 10));
+
+    String csv =
+        "isbn,title,price,stock\n"
+            + "9784297100339,達人プログラマー 第2版,3300,8\n"
+            + "9784798157622,\"Clean Architecture, 達人に学ぶ\",3400,5\n"
+            + "9784873119045,Effective Java,4950,-1\n"
+            + "9784798157622,\"Clean Architecture, 達人に学ぶ\",3520,6\n";
+
+    mockMvc
+        .perform(post("/api/books/import").contentType("text/csv").content(csv))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.inserted", is(1)))
+        .andExpect(jsonPath("$.updated", is(1)))
+        .andExpect(jsonPath("$.rejected", is(1)))
+        .andExpect(jsonPath("$.rejections[0].line", is(4)))
+        .andExpect(jsonPath("$.rejections[0].isbn", is("9784873119045")));
+
+    mockMvc
+        .perform(get("/api/books"))
+        .andExpect(jsonPath("$.length()", is(2)))
+        .andExpect(jsonPath("$[0].title", is("達人プログラマー 第2版")))
+        .andExpect(jsonPath("$[1].title", is("Clean Architecture, 達人に学ぶ")))
+        .andExpect(jsonPath("$[1].price", is(3520)));
+  }
+
+  @Test
+  @DisplayName("POST /api/books/import - NDJSONで書籍を一括登録できる")
+  void testImportBooksNdjson() throws Exception {
+    String ndjson =
+        "{\"isbn\":\"9784297100339\",\"title\":\"達人プログラマー\",\"price\":3200,\"stock\":10}\n"
+            + "{\"isbn\":\"9784798157622\",\"title\":\"Clean Architecture\",\"price\":3400,\"stock\":5}\n";
+
+    mockMvc
+        .perform(post("/api/books/import").contentType("application/x-ndjson").content(ndjson))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.inserted", is(2)))
+        .andExpect(jsonPath("$.rejected", is(0)));
+
+    mockMvc
+        .perform(get("/api/books/{isbn}", "9784798157622"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.stock", is(5)));
+  }
+
   @Test
   @DisplayName("PUT /api/books/{isbn} - 書籍を更新できる")
   void testUpdateBook() throws Exception {
@@ -146,7 +295,11 @@ class BookControllerIntegrationTest {
     Book book = Book.create("9782222222222", "Delete Me", 50, 0);
     bookRepository.save(book);
 
-    mockMvc.perform(delete("/api/books/{isbn}", book.getIsbn())).andExpect(status().isNoContent());
+    // 書籍の確認と削除の2回のみ（書籍を二重に読み込まない）
+    mockMvc
+        .perform(delete("/api/books/{isbn}", book.getIsbn()))
+        .andExpect(status().isNoContent())
+        .andExpect(header().string("X-DB-Statements", "2"));
 
     // DBから削除されたことを確認
     mockMvc.perform(get("/api/books/{isbn}", book.getIsbn())).andExpect(status().isNotFound());
@@ -14,6 +14,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
@@ -34,6 +35,7 @@ class CustomerControllerIntegrationTest {
 
   @BeforeEach
   void setUp() {
+    jdbcTemplate.execute("DELETE FROM order_queue");
     jdbcTemplate.execute("DELETE FROM order_item");
     jdbcTemplate.execute("DELETE FROM \"order\"");
     jdbcTemplate.execute("DELETE FROM customer");
@@ -65,6 +67,24 @@ class CustomerControllerIntegrationTest {
         .andExpect(jsonPath("$.name", is(customer1.getName())));
   }
 
+  @Test
+  @DisplayName("GET /api/customers/{id} - If-Modified-Since以降に更新がなければ304を返す")
+  void testGetCustomerByIdNotModifiedSince() throws Exception {
+    String lastModified =
+        mockMvc
+            .perform(get("/api/customers/{id}", customer1.getId()))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.LAST_MODIFIED);
+
+    mockMvc
+        .perform(
+            get("/api/customers/{id}", customer1.getId())
+                .header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+        .andExpect(status().isNotModified());
+  }
+
   @Test
   @DisplayName("GET /api/customers/{id} - 存在しないIDで顧客を取得しようとすると404を返す")
   void testGetCustomerByIdNotFound() throws Exception {
@@ -83,6 +103,33 @@ class CustomerControllerIntegrationTest {
         .andExpect(jsonPath("$.name", is("New Customer")));
   }
 
+  @Test
+  @DisplayName("POST /api/customers/import - 顧客を一括登録し、メールアドレスが同じ顧客は更新する")
+  void testImportCustomers() throws Exception {
+    String csv =
+        "name,email\n"
+            + "John Doe Jr.,JOHN.DOE@example.com\n"
+            + "Jane Smith,jane.smith@example.com\n"
+            + "Jane S.,Jane.Smith@example.com\n"
+            + "Invalid,not-an-email\n";
+
+    mockMvc
+        .perform(post("/api/customers/import").contentType("text/csv").content(csv))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.created", is(1)))
+        .andExpect(jsonPath("$.updated", is(1)))
+        .andExpect(jsonPath("$.rejected", is(2)))
+        .andExpect(jsonPath("$.rejections[0].line", is(4)))
+        .andExpect(jsonPath("$.rejections[1].line", is(5)));
+
+    mockMvc
+        .perform(get("/api/customers/{id}", customer1.getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.name", is("John Doe Jr.")))
+        .andExpect(jsonPath("$.email", is("john.doe@example.com")));
+    mockMvc.perform(get("/api/customers")).andExpect(jsonPath("$.length()", is(2)));
+  }
+
   @Test
   @DisplayName("PUT /api/customers/{id} - 顧客を更新できる")
   void testUpdateCustomer() throws Exception {
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.example.demo.application.dto.order.OrderDto;
 import com.example.demo.domain.model.book.Book;
 import com.example.demo.domain.model.customer.Customer;
 import com.example.demo.domain.model.order.Order;
@@ -12,6 +13,8 @@ import com.example.demo.domain.repository.book.BookRepository;
 import com.example.demo.domain.repository.customer.CustomerRepository;
 import com.example.demo.domain.repository.order.OrderItemRepository;
 import com.example.demo.domain.repository.order.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,6 +23,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
@@ -42,6 +46,8 @@ class OrderControllerIntegrationTest {
 
   @Autowired private JdbcTemplate jdbcTemplate;
 
+  @Autowired private ObjectMapper objectMapper;
+
   private Customer customer;
   private Book book1;
   private Book book2;
@@ -49,6 +55,8 @@ class OrderControllerIntegrationTest {
 
   @BeforeEach
   void setUp() {
+    jdbcTemplate.execute("DELETE FROM idempotency_key");
+    jdbcTemplate.execute("DELETE FROM order_queue");
     jdbcTemplate.execute("DELETE FROM order_item");
     jdbcTemplate.execute("DELETE FROM \"order\"");
     jdbcTemplate.execute("DELETE FROM customer");
@@ -94,6 +102,25 @@ class OrderControllerIntegrationTest {
         .andExpect(jsonPath("$[0].orderItems.length()", is(2)));
   }
 
+  @Test
+  @DisplayName("GET /api/orders/export - 注文をNDJSON形式でエクスポートできる")
+  void testExportOrders() throws Exception {
+    String body =
+        mockMvc
+            .perform(get("/api/orders/export"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+            .andReturn()
+            .getResponse()
+            .getContentAsString(StandardCharsets.UTF_8);
+
+    String[] lines = body.split("\n");
+    assertEquals(1, lines.length);
+    OrderDto exported = objectMapper.readValue(lines[0], OrderDto.class);
+    assertEquals(order.getId(), exported.getId());
+    assertEquals(2, exported.getOrderItems().size());
+  }
+
   @Test
   @DisplayName("GET /api/orders/{id} - IDで注文を1件取得できる")
   void testGetOrderById() throws Exception {
@@ -105,6 +132,29 @@ class OrderControllerIntegrationTest {
         .andExpect(jsonPath("$.orderItems.length()", is(2)));
   }
 
+  @Test
+  @DisplayName("GET /api/orders - 一覧のETagが一致すれば304を返し、注文のキャンセル後は200を返す")
+  void testGetAllOrdersNotModified() throws Exception {
+    String etag =
+        mockMvc
+            .perform(get("/api/orders"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    mockMvc
+        .perform(get("/api/orders").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified());
+
+    mockMvc.perform(delete("/api/orders/{id}", order.getId())).andExpect(status().isNoContent());
+
+    mockMvc
+        .perform(get("/api/orders").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()", is(0)));
+  }
+
   @Test
   @DisplayName("GET /api/orders/{id} - 存在しないIDで注文を取得しようとすると404を返す")
   void testGetOrderByIdNotFound() throws Exception {
@@ -135,6 +185,9 @@ class OrderControllerIntegrationTest {
         .andExpect(jsonPath("$.customerId", is(newCustomer.getId().toString())))
         .andExpect(jsonPath("$.status", is(Order.OrderStatus.PENDING.name())))
         .andExpect(jsonPath("$.orderItems.length()", is(1)));
+
+    // 在庫が減っていることを確認
+    assertEquals(9, (int) bookRepository.findById(book1.getIsbn()).get().getStock());
   }
 
   @Test
@@ -162,6 +215,170 @@ class OrderControllerIntegrationTest {
                 is("在庫が不足しています（要求数: 11, 在庫数: 10, 書籍: 達人プログラマー [" + book1.getIsbn() + "]）")));
   }
 
+  @Test
+  @DisplayName("POST /api/orders - 同じISBNをまとめて複数書籍の在庫を確保できる")
+  void testCreateOrderMultipleItems() throws Exception {
+    String newOrderJson =
+        "{\"customerId\":\""
+            + customer.getId()
+            + "\",\"orderItems\":["
+            + "{\"bookIsbn\":\""
+            + book1.getIsbn()
+            + "\",\"quantity\":2},"
+            + "{\"bookIsbn\":\""
+            + book2.getIsbn()
+            + "\",\"quantity\":5},"
+            + "{\"bookIsbn\":\""
+            + book1.getIsbn()
+            + "\",\"quantity\":3}]}";
+
+    mockMvc
+        .perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON).content(newOrderJson))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.orderItems.length()", is(2)))
+        .andExpect(jsonPath("$.orderItems[0].quantity", is(5)))
+        .andExpect(jsonPath("$.orderItems[0].id", notNullValue()))
+        .andExpect(jsonPath("$.orderItems[1].id", notNullValue()));
+
+    assertEquals(5, (int) bookRepository.findById(book1.getIsbn()).get().getStock());
+    assertEquals(0, (int) bookRepository.findById(book2.getIsbn()).get().getStock());
+  }
+
+  @Test
+  @DisplayName("POST /api/orders - 1冊でも在庫が不足すると在庫を一切減らさずにISBNごとの不足を返す")
+  void testCreateOrderMultipleItemsInsufficientStock() throws Exception {
+    String newOrderJson =
+        "{\"customerId\":\""
+            + customer.getId()
+            + "\",\"orderItems\":["
+            + "{\"bookIsbn\":\""
+            + book1.getIsbn()
+            + "\",\"quantity\":1},"
+            + "{\"bookIsbn\":\""
+            + book2.getIsbn()
+            + "\",\"quantity\":6}]}";
+
+    mockMvc
+        .perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON).content(newOrderJson))
+        .andExpect(status().isBadRequest())
+        .andExpect(
+            jsonPath(
+                "$.shortages['" + book2.getIsbn() + "']",
+                is("在庫が不足しています（要求数: 6, 在庫数: 5, 書籍: Clean Architecture [" + book2.getIsbn() + "]）")))
+        .andExpect(jsonPath("$.shortages['" + book1.getIsbn() + "']").doesNotExist());
+
+    assertEquals(10, (int) bookRepository.findById(book1.getIsbn()).get().getStock());
+    assertEquals(5, (int) bookRepository.findById(book2.getIsbn()).get().getStock());
+  }
+
+  @Test
+  @DisplayName("POST /api/orders - 同じIdempotency-Keyの再送には作成済みの注文を返し、在庫を再度減らさない")
+  void testCreateOrderIdempotencyKeyReplay() throws Exception {
+    String idempotencyKey = UUID.randomUUID().toString();
+    String newOrderJson =
+        "{\"customerId\":\""
+            + customer.getId()
+            + "\",\"orderItems\":[{\"bookIsbn\":\""
+            + book1.getIsbn()
+            + "\",\"quantity\":3}]}";
+
+    String orderId =
+        objectMapper
+            .readValue(
+                mockMvc
+                    .perform(
+                        post("/api/orders")
+                            .header("Idempotency-Key", idempotencyKey)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(newOrderJson))
+                    .andExpect(status().isCreated())
+                    .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString(StandardCharsets.UTF_8),
+                OrderDto.class)
+            .getId()
+            .toString();
+
+    mockMvc
+        .perform(
+            post("/api/orders")
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(newOrderJson))
+        .andExpect(status().isCreated())
+        .andExpect(header().string("Idempotent-Replayed", "true"))
+        .andExpect(header().string(HttpHeaders.LOCATION, endsWith("/api/orders/" + orderId)))
+        .andExpect(jsonPath("$.id", is(orderId)))
+        .andExpect(jsonPath("$.orderItems.length()", is(1)));
+
+    assertEquals(7, (int) bookRepository.findById(book1.getIsbn()).get().getStock());
+    assertEquals(
+        2, (int) jdbcTemplate.queryForObject("SELECT COUNT(*) FROM \"order\"", Integer.class));
+  }
+
+  @Test
+  @DisplayName("POST /api/orders - 使用済みのIdempotency-Keyを異なる内容の注文で使うと422エラーを返す")
+  void testCreateOrderIdempotencyKeyMismatch() throws Exception {
+    String idempotencyKey = UUID.randomUUID().toString();
+    String orderJson =
+        "{\"customerId\":\""
+            + customer.getId()
+            + "\",\"orderItems\":[{\"bookIsbn\":\""
+            + book1.getIsbn()
+            + "\",\"quantity\":%d}]}";
+
+    mockMvc
+        .perform(
+            post("/api/orders")
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(String.format(orderJson, 1)))
+        .andExpect(status().isCreated());
+
+    mockMvc
+        .perform(
+            post("/api/orders")
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(String.format(orderJson, 2)))
+        .andExpect(status().isUnprocessableEntity())
+        .andExpect(jsonPath("$.error", startsWith("この Idempotency-Key は異なる内容のリクエストで使用済みです")));
+
+    assertEquals(9, (int) bookRepository.findById(book1.getIsbn()).get().getStock());
+  }
+
+  @Test
+  @DisplayName("POST /api/orders - 在庫不足で失敗した注文のIdempotency-Keyは再利用できる")
+  void testCreateOrderIdempotencyKeyAfterFailure() throws Exception {
+    String idempotencyKey = UUID.randomUUID().toString();
+    String orderJson =
+        "{\"customerId\":\""
+            + customer.getId()
+            + "\",\"orderItems\":[{\"bookIsbn\":\""
+            + book1.getIsbn()
+            + "\",\"quantity\":11}]}";
+
+    mockMvc
+        .perform(
+            post("/api/orders")
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(orderJson))
+        .andExpect(status().isBadRequest());
+
+    jdbcTemplate.update("UPDATE book SET stock = 20 WHERE isbn = ?", book1.getIsbn());
+
+    mockMvc
+        .perform(
+            post("/api/orders")
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(orderJson))
+        .andExpect(status().isCreated())
+        .andExpect(header().doesNotExist("Idempotent-Replayed"));
+  }
+
   @Test
   @DisplayName("DELETE /api/orders/{id} - 注文を削除できる（在庫が元に戻ることを含む）")
   void testDeleteOrder() throws Exception {
@@ -174,11 +391,11 @@ class OrderControllerIntegrationTest {
     // DBから削除されたことを確認
     mockMvc.perform(get("/api/orders/{id}", order.getId())).andExpect(status().isNotFound());
 
-    // 在庫が元に戻ったことを確認
+    // 注文数量の分だけ在庫が戻ったことを確認
     assertEquals(
-        initialBook1Stock, (int) bookRepository.findById(book1.getIsbn()).get().getStock());
+        initialBook1Stock + 2, (int) bookRepository.findById(book1.getIsbn()).get().getStock());
     assertEquals(
-        initialBook2Stock, (int) bookRepository.findById(book2.getIsbn()).get().getStock());
+        initialBook2Stock + 1, (int) bookRepository.findById(book2.getIsbn()).get().getStock());
   }
 
   @Test
@@ -0,0 +1,225 @@
+package com.example.demo.presentation.filter;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import com.example.demo.infrastructure.mybatis.DatabaseRoundTrips;
+import com.example.demo.infrastructure.mybatis.RoundTripCountingInterceptor;
+import com.example.demo.infrastructure.mybatis.RoundTripTransactionListener;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import java.util.List;
+import java.util.Map;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.servlet.HandlerMapping;
+
+class DatabaseBudgetFilterTest {
+
+  private static final String FIND_BY_ORDER_ID =
+      "com.example.demo.infrastructure.mapper.order.OrderItemMapper.findByOrderId";
+
+  private SimpleMeterRegistry meterRegistry;
+  private MockHttpServletRequest request;
+  private MockHttpServletResponse response;
+  private MappedStatement statement;
+  private Executor executor;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    request = new MockHttpServletRequest("GET", "/api/orders");
+    request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/orders");
+    response = new MockHttpServletResponse();
+    executor = mock(Executor.class);
+    Configuration configuration = new Configuration();
+    statement =
+        new MappedStatement.Builder(
+                configuration,
+                FIND_BY_ORDER_ID,
+                new StaticSqlSource(configuration, "SELECT 1"),
+                SqlCommandType.SELECT)
+            .build();
+  }
+
+  @Test
+  @DisplayName("実行したステートメント数とトランザクション数をヘッダーとメトリクスに出力する")
+  void testHeadersAndMetrics() throws Exception {
+    DatabaseBudgetFilter filter = filter(false, null);
+
+    filter.doFilter(
+        request,
+        response,
+        chain(2, 1, (req, res) -> res.getWriter().write("[]")));
+
+    assertEquals("2", response.getHeader(DatabaseBudgetFilter.STATEMENTS_HEADER));
+    assertEquals("1", response.getHeader(DatabaseBudgetFilter.TRANSACTIONS_HEADER));
+    assertEquals(
+        2,
+        meterRegistry
+            .get("db.request.statements")
+            .tag("endpoint", "GET /api/orders")
+            .summary()
+            .totalAmount());
+    assertNull(DatabaseRoundTrips.current());
+  }
+
+  @Test
+  @DisplayName("ボディのないレスポンスにもヘッダーを出力する")
+  void testHeadersWithoutBody() throws Exception {
+    DatabaseBudgetFilter filter = filter(false, null);
+
+    filter.doFilter(request, response, chain(1, 0, (req, res) -> {}));
+
+    assertEquals("1", response.getHeader(DatabaseBudgetFilter.STATEMENTS_HEADER));
+    assertEquals("0", response.getHeader(DatabaseBudgetFilter.TRANSACTIONS_HEADER));
+  }
+
+  @Test
+  @DisplayName("上限を超えた場合、fail-on-exceed が有効なら例外にする")
+  void testBudgetExceeded() {
+    DatabaseBudgetFilter filter = filter(true, null);
+
+    DatabaseBudgetExceededException exception =
+        assertThrows(
+            DatabaseBudgetExceededException.class,
+            () -> filter.doFilter(request, response, chain(11, 0, (req, res) -> {})));
+    assertTrue(exception.getMessage().contains("GET /api/orders"));
+    assertTrue(exception.getMessage().contains("ステートメント 11 > 10"));
+  }
+
+  @Test
+  @DisplayName("上限を超えても fail-on-exceed が無効なら警告のみ")
+  void testBudgetExceededWithoutFailure() throws Exception {
+    DatabaseBudgetFilter filter = filter(false, null);
+
+    filter.doFilter(request, response, chain(11, 3, (req, res) -> {}));
+
+    assertEquals("11", response.getHeader(DatabaseBudgetFilter.STATEMENTS_HEADER));
+  }
+
+  @Test
+  @DisplayName("エンドポイントごとの上限を優先する")
+  void testEndpointBudget() throws Exception {
+    DatabaseBudgetFilter filter =
+        filter(true, Map.of("GET /api/orders", new DatabaseBudgetProperties.Budget(20, null, false)));
+
+    filter.doFilter(request, response, chain(11, 2, (req, res) -> {}));
+
+    assertEquals("11", response.getHeader(DatabaseBudgetFilter.STATEMENTS_HEADER));
+  }
+
+  @Test
+  @DisplayName("同じステートメントをパラメータを変えて繰り返し実行すると N+1 として記録する")
+  void testNPlusOne() throws Exception {
+    DatabaseBudgetFilter filter = filter(false, null);
+
+    filter.doFilter(request, response, chain(5, 0, (req, res) -> {}));
+
+    assertEquals(
+        1,
+        meterRegistry
+            .get("db.request.n-plus-one")
+            .tag("endpoint", "GET /api/orders")
+            .tag("statement", "OrderItemMapper.findByOrderId")
+            .counter()
+            .count());
+  }
+
+  @Test
+  @DisplayName("同じパラメータでの繰り返しは N+1 として記録しない")
+  void testSameParameters() {
+    DatabaseRoundTrips roundTrips = DatabaseRoundTrips.begin(3);
+    try {
+      for (int i = 0; i < 5; i++) {
+        intercept("9784297100339");
+      }
+      assertEquals(5, roundTrips.statements());
+      assertTrue(roundTrips.nPlusOneSuspects().isEmpty());
+    } finally {
+      DatabaseRoundTrips.end();
+    }
+  }
+
+  @Test
+  @DisplayName("除外したエンドポイントは上限を超えても例外にせず、N+1 としても記録しない")
+  void testExemptEndpoint() throws Exception {
+    request = new MockHttpServletRequest("GET", "/api/orders/export");
+    request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/orders/export");
+    DatabaseBudgetFilter filter =
+        filter(
+            true,
+            Map.of("GET /api/orders/export", new DatabaseBudgetProperties.Budget(null, null, true)));
+
+    filter.doFilter(request, response, chain(50, 1, (req, res) -> {}));
+
+    assertEquals("50", response.getHeader(DatabaseBudgetFilter.STATEMENTS_HEADER));
+    assertNull(meterRegistry.find("db.request.n-plus-one").counter());
+    assertEquals(
+        50,
+        meterRegistry
+            .get("db.request.statements")
+            .tag("endpoint", "GET /api/orders/export")
+            .summary()
+            .totalAmount());
+  }
+
+  @Test
+  @DisplayName("大量に繰り返し実行しても N+1 の疑いとして実行回数を報告する")
+  void testParameterTrackingBounded() {
+    DatabaseRoundTrips roundTrips = DatabaseRoundTrips.begin(3);
+    try {
+      for (int i = 0; i < 1000; i++) {
+        intercept(List.of("order-" + i));
+      }
+      assertEquals(1000, roundTrips.statements());
+      assertEquals(
+          Map.of("OrderItemMapper.findByOrderId", 1000), roundTrips.nPlusOneSuspects());
+    } finally {
+      DatabaseRoundTrips.end();
+    }
+  }
+
+  private DatabaseBudgetFilter filter(
+      boolean failOnExceed, Map<String, DatabaseBudgetProperties.Budget> endpoints) {
+    return new DatabaseBudgetFilter(
+        new DatabaseBudgetProperties(failOnExceed, 10, 2, 3, endpoints), meterRegistry);
+  }
+
+  // statements 回ステートメントを（異なるパラメータで）実行し、transactions 回トランザクションを開始してから応答する
+  private FilterChain chain(int statements, int transactions, FilterChain respond) {
+    return (req, res) -> {
+      for (int i = 0; i < statements; i++) {
+        intercept("order-" + i);
+      }
+      RoundTripTransactionListener listener = new RoundTripTransactionListener();
+      for (int i = 0; i < transactions; i++) {
+        listener.afterBegin(new SimpleTransactionStatus(), null);
+      }
+      respond.doFilter(req, res);
+    };
+  }
+
+  private void intercept(Object parameter) {
+    try {
+      new RoundTripCountingInterceptor()
+          .intercept(
+              new Invocation(
+                  executor,
+                  Executor.class.getMethod("update", MappedStatement.class, Object.class),
+                  new Object[] {statement, parameter}));
+    } catch (Throwable e) {
+      throw new AssertionError(e);
+    }
+  }
+}
@@ -0,0 +1,192 @@
+package com.example.demo.presentation.reactive;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.demo.application.dto.book.BookDto;
+import com.example.demo.application.dto.page.PageCursor;
+import com.example.demo.domain.model.book.Book;
+import com.example.demo.domain.model.customer.Customer;
+import com.example.demo.domain.model.order.Order;
+import com.example.demo.domain.repository.book.BookRepository;
+import com.example.demo.domain.repository.customer.CustomerRepository;
+import com.example.demo.domain.repository.order.OrderItemRepository;
+import com.example.demo.domain.repository.order.OrderRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(properties = {"app.reactive.enabled=true", "app.reactive.port=0"})
+@ActiveProfiles("test")
+class ReactiveServerIntegrationTest {
+
+  @Autowired private ReactiveServer reactiveServer;
+
+  @Autowired private BookRepository bookRepository;
+
+  @Autowired private CustomerRepository customerRepository;
+
+  @Autowired private OrderRepository orderRepository;
+
+  @Autowired private OrderItemRepository orderItemRepository;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private WebTestClient client;
+  private Book book1;
+  private Book book2;
+  private Order order;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate.execute("DELETE FROM idempotency_key");
+    jdbcTemplate.execute("DELETE FROM order_queue");
+    jdbcTemplate.execute("DELETE FROM order_item");
+    jdbcTemplate.execute("DELETE FROM \"order\"");
+    jdbcTemplate.execute("DELETE FROM customer");
+    jdbcTemplate.execute("DELETE FROM book");
+
+    LocalDateTime now = LocalDateTime.now();
+    book1 = Book.create("9784297100339", "達人プログラマー", 3200, 10);
+    bookRepository.save(book1);
+    book2 = Book.create("9784798157622", "Clean Architecture", 3400, 5);
+    bookRepository.save(book2);
+
+    Customer customer =
+        new Customer(UUID.randomUUID(), "Test Customer", "test@example.com", now, now);
+    customerRepository.save(customer);
+    order = Order.create(customer.getId());
+    orderRepository.insert(order);
+    order.addOrderItem(book1.getIsbn(), 2);
+    orderItemRepository.saveAll(order.getOrderItems());
+
+    client =
+        WebTestClient.bindToServer()
+            .baseUrl("http://localhost:" + reactiveServer.getPort())
+            .build();
+  }
+
+  @Test
+  @DisplayName("GET /api/books - 書籍をISBN順に流し、カーソル以降に絞り込める")
+  void testStreamBooks() {
+    List<BookDto> books =
+        client
+            .get()
+            .uri("/api/books")
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .returnResult(BookDto.class)
+            .getResponseBody()
+            .collectList()
+            .block();
+    assertEquals(
+        List.of(book1.getIsbn(), book2.getIsbn()),
+        books.stream().map(BookDto::getIsbn).toList());
+
+    client
+        .get()
+        .uri("/api/books?cursor={cursor}", PageCursor.encode(book1.getIsbn()))
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.length()")
+        .isEqualTo(1)
+        .jsonPath("$[0].isbn")
+        .isEqualTo(book2.getIsbn());
+  }
+
+  @Test
+  @DisplayName("GET /api/books - 不正なカーソルは400エラーを返す")
+  void testStreamBooksInvalidCursor() {
+    client
+        .get()
+        .uri("/api/books?cursor=a")
+        .exchange()
+        .expectStatus()
+        .isBadRequest()
+        .expectBody()
+        .jsonPath("$.error")
+        .isEqualTo("カーソルが不正です: a");
+  }
+
+  @Test
+  @DisplayName("GET /api/books/{isbn} - ISBNで書籍を取得し、ETagが一致すれば304を返す")
+  void testGetBookByIsbn() {
+    String etag =
+        client
+            .get()
+            .uri("/api/books/{isbn}", book1.getIsbn())
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.title")
+            .isEqualTo(book1.getTitle())
+            .returnResult()
+            .getResponseHeaders()
+            .getETag();
+
+    client
+        .get()
+        .uri("/api/books/{isbn}", book1.getIsbn())
+        .header(HttpHeaders.IF_NONE_MATCH, etag)
+        .exchange()
+        .expectStatus()
+        .isNotModified();
+  }
+
+  @Test
+  @DisplayName("GET /api/books/{isbn} - 存在しないISBNは404エラーを返す")
+  void testGetBookByIsbnNotFound() {
+    client
+        .get()
+        .uri("/api/books/{isbn}", "9999999999999")
+        .exchange()
+        .expectStatus()
+        .isNotFound()
+        .expectBody()
+        .jsonPath("$.error")
+        .isEqualTo("書籍が見つかりません。ISBN: 9999999999999");
+  }
+
+  @Test
+  @DisplayName("GET /api/orders/{id} - IDで注文を注文アイテムと共に取得できる")
+  void testGetOrderById() {
+    client
+        .get()
+        .uri("/api/orders/{id}", order.getId())
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.id")
+        .isEqualTo(order.getId().toString())
+        .jsonPath("$.status")
+        .isEqualTo(Order.OrderStatus.PENDING.name())
+        .jsonPath("$.orderItems.length()")
+        .isEqualTo(1)
+        .jsonPath("$.orderItems[0].quantity")
+        .isEqualTo(2);
+
+    client
+        .get()
+        .uri("/api/orders/{id}", UUID.randomUUID())
+        .exchange()
+        .expectStatus()
+        .isNotFound();
+  }
+}